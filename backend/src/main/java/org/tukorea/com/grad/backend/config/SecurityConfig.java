@@ -17,6 +17,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.tukorea.com.grad.backend.jwt.JwtAuthenticationFilter;
 import org.tukorea.com.grad.backend.jwt.JwtTokenProvider;
+import org.tukorea.com.grad.backend.resilience.AdmissionControlFilter;
+import org.tukorea.com.grad.backend.resilience.AdmissionControlService;
 
 import java.util.Arrays;
 
@@ -26,6 +28,7 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final AdmissionControlService admissionControlService;
 
     // ✅ 비밀번호 암호화 빈 등록 (BCrypt 사용)
     @Bean
@@ -54,10 +57,16 @@ public class SecurityConfig {
                 // [A팀원] 뉴스 검색은 비로그인 상태에서도 허용
                 .requestMatchers("/api/news/**").permitAll()
 
+                // 공지 썸네일은 <img> 태그로 바로 불러오므로 토큰 없이 허용 (학교 홈페이지 이미지만 프록시)
+                .requestMatchers("/api/tukorea/thumbnails").permitAll()
+
                 // [B팀원] 개발/기능 테스트용 API 및 H2 콘솔 일시 허용
                 .requestMatchers("/api/major/**", "/api/notes/**", "/api/ai/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
 
+                // 모의 LLM 서버 (mock-llm 프로필에서만 존재)
+                .requestMatchers("/mock-llm/**").permitAll()
+
                 // [A팀원 핵심] 회원 탈퇴, 비밀번호 변경을 포함한 그 외 모든 요청은 로그인(인증) 필수!
                 .anyRequest().authenticated()
             )
@@ -65,7 +74,10 @@ public class SecurityConfig {
             .headers(headers -> headers.frameOptions(frame -> frame.disable()))
             
             // ✅ JWT 필터를 시큐리티 필터 체인 앞에 추가
-            .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class)
+
+            // ✅ AI 엔드포인트 요청 수 제한 (JWT 필터 다음 -> 로그인 사용자별 / 비로그인은 IP별)
+            .addFilterAfter(new AdmissionControlFilter(admissionControlService), JwtAuthenticationFilter.class);
         
         return http.build();
     }
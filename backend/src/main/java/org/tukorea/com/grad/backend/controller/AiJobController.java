@@ -0,0 +1,30 @@
+package org.tukorea.com.grad.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.tukorea.com.grad.backend.service.AiJobService;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class AiJobController {
+
+    private final AiJobService aiJobService;
+
+    // 비동기 AI 작업 상태/결과 조회 (폴링용)
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable Long jobId, Authentication authentication) {
+        if (authentication == null) return ResponseEntity.status(401).build();
+
+        try {
+            return ResponseEntity.ok(aiJobService.getJob(jobId, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
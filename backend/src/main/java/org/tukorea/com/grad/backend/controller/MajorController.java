@@ -2,10 +2,15 @@ package org.tukorea.com.grad.backend.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.tukorea.com.grad.backend.dto.RoadmapRequestDto;
+import org.tukorea.com.grad.backend.entity.AiJobType;
+import org.tukorea.com.grad.backend.service.AiJobService;
+import org.tukorea.com.grad.backend.service.IdempotencyService;
 import org.tukorea.com.grad.backend.service.MajorService;
 
 import java.util.List;
@@ -20,6 +25,8 @@ import java.util.Map;
 public class MajorController {
 
     private final MajorService majorService;
+    private final IdempotencyService idempotencyService;
+    private final AiJobService aiJobService;
 
     /**
      * 1. AI 로드맵 생성 및 분석
@@ -27,6 +34,7 @@ public class MajorController {
     @PostMapping("/analyze")
     public ResponseEntity<?> analyze(
             @RequestBody RoadmapRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication) {
         
         // [B팀원] 인증 정보 Null 체크 (토큰 없이 요청 시 500 에러 방지)
@@ -36,7 +44,43 @@ public class MajorController {
         
         String email = authentication.getName();
         log.info("로드맵 분석 요청 - 사용자: {}", email);
-        return ResponseEntity.ok(majorService.analyze(request, email));
+
+        // 더블클릭/재시도로 들어온 같은 요청은 GPT 호출 1번으로 병합
+        return ResponseEntity.ok(idempotencyService.execute(email, "major/analyze", request, idempotencyKey,
+                () -> majorService.analyze(request, email)));
+    }
+
+    /**
+     * 1-1. AI 로드맵 생성 (SSE 스트리밍) - 완성된 학기 계획부터 바로 전달
+     */
+    @PostMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> analyzeStream(
+            @RequestBody RoadmapRequestDto request,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        String email = authentication.getName();
+        log.info("로드맵 분석(스트리밍) 요청 - 사용자: {}", email);
+        return ResponseEntity.ok(majorService.analyzeStream(request, email));
+    }
+
+    /**
+     * 1-2. AI 로드맵 생성 (비동기 작업) - 202 + jobId 를 바로 반환, 결과는 /api/jobs/{jobId} 로 조회
+     */
+    @PostMapping("/analyze/async")
+    public ResponseEntity<?> analyzeAsync(
+            @RequestBody RoadmapRequestDto request,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(401).body("로그인이 필요합니다.");
+        }
+
+        Long jobId = aiJobService.submit(AiJobType.ROADMAP_ANALYZE, authentication.getName(), request);
+        return ResponseEntity.accepted().body(Map.of("jobId", jobId, "statusUrl", "/api/jobs/" + jobId));
     }
 
     /**
@@ -89,6 +133,7 @@ public class MajorController {
     @PostMapping("/finish-semester")
     public ResponseEntity<?> finishSemester(
             Authentication authentication, 
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody Map<String, String> payload) {
         
         if (authentication == null) return ResponseEntity.status(401).build();
@@ -97,8 +142,32 @@ public class MajorController {
         String roadmapJson = payload.get("roadmapJson");
         String finishedGrade = payload.get("finishedGrade"); // 예: "4학년 1학기"
         
-        majorService.refreshFeedback(email, roadmapJson, finishedGrade);
+        // 갱신에 실패하면 예외로 끝내서 같은 Idempotency-Key 재시도가 실패 결과를 재사용하지 않도록 함
+        try {
+            idempotencyService.execute(email, "major/finish-semester", payload, idempotencyKey, () -> {
+                if (!majorService.refreshFeedback(email, roadmapJson, finishedGrade)) {
+                    throw new IllegalStateException("피드백 갱신 실패");
+                }
+                return Boolean.TRUE;
+            });
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(502).body("AI 피드백 갱신에 실패했습니다. 잠시 후 다시 시도해 주세요.");
+        }
         
         return ResponseEntity.ok("결산 및 피드백 갱신 완료");
     }
+
+    /**
+     * 5-1. 학기 결산 (비동기 작업) - 202 + jobId 반환
+     */
+    @PostMapping("/finish-semester/async")
+    public ResponseEntity<?> finishSemesterAsync(
+            Authentication authentication,
+            @RequestBody Map<String, String> payload) {
+
+        if (authentication == null) return ResponseEntity.status(401).build();
+
+        Long jobId = aiJobService.submit(AiJobType.SEMESTER_FEEDBACK, authentication.getName(), payload);
+        return ResponseEntity.accepted().body(Map.of("jobId", jobId, "statusUrl", "/api/jobs/" + jobId));
+    }
 }
\ No newline at end of file
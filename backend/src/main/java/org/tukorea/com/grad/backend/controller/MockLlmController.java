@@ -0,0 +1,155 @@
+package org.tukorea.com.grad.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 로컬 테스트용 모의 OpenAI Chat Completions 서버 (mock-llm 프로필에서만 등록)
+ * - openai.api.url 을 이 주소로 바꾸면 실제 과금 없이 일괄 결산/부하 테스트를 할 수 있습니다. (application-mock-llm.properties)
+ * - JSON 모드 요청에는 서비스들이 읽는 필드(semesterPlans, analysis, swaps, activities, ranked)를 모두 담은 응답을 돌려줍니다.
+ * - mock-llm.tokens-per-minute 를 넘으면 실제 서비스처럼 429 를 돌려줍니다. (속도 제한 확인용)
+ */
+@Slf4j
+@Profile("mock-llm")
+@RestController
+@RequestMapping("/mock-llm/v1")
+public class MockLlmController {
+
+    private static final Pattern CANDIDATE_ID = Pattern.compile("(?m)^(\\d+) \\|");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final long latencyMs;
+    private final long streamChunkDelayMs;
+    private final long tokensPerMinute;
+
+    private long windowStartedAt = System.currentTimeMillis();
+    private long windowTokens;
+
+    public MockLlmController(@Value("${mock-llm.latency-ms:800}") long latencyMs,
+                             @Value("${mock-llm.stream-chunk-delay-ms:30}") long streamChunkDelayMs,
+                             @Value("${mock-llm.tokens-per-minute:0}") long tokensPerMinute) {
+        this.latencyMs = latencyMs;
+        this.streamChunkDelayMs = streamChunkDelayMs;
+        this.tokensPerMinute = tokensPerMinute;
+    }
+
+    @PostMapping("/chat/completions")
+    public ResponseEntity<?> completions(@RequestBody JsonNode request) throws Exception {
+        String systemPrompt = "";
+        String userPrompt = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("system".equals(message.path("role").asText())) systemPrompt = message.path("content").asText();
+            if ("user".equals(message.path("role").asText())) userPrompt = message.path("content").asText();
+        }
+        boolean jsonMode = request.hasNonNull("response_format");
+        String content = jsonMode ? objectMapper.writeValueAsString(jsonContent(userPrompt)) : "모의 응답입니다. (mock-llm)";
+
+        // 글자 수 / 2 를 토큰 수로 가정
+        int promptTokens = (systemPrompt.length() + userPrompt.length()) / 2;
+        int completionTokens = content.length() / 2;
+        if (!admit(promptTokens + completionTokens)) {
+            return ResponseEntity.status(429).body(Map.of("error", Map.of(
+                    "message", "Rate limit reached (mock-llm)", "type", "tokens", "code", "rate_limit_exceeded")));
+        }
+
+        if (request.path("stream").asBoolean(false)) {
+            StreamingResponseBody body = out -> {
+                for (int i = 0; i < content.length(); i += 8) {
+                    String piece = content.substring(i, Math.min(content.length(), i + 8));
+                    Map<String, Object> chunk = Map.of("choices", List.of(Map.of("index", 0, "delta", Map.of("content", piece))));
+                    out.write(("data: " + objectMapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    sleep(streamChunkDelayMs);
+                }
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            };
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(body);
+        }
+
+        sleep(latencyMs);
+        return ResponseEntity.ok(Map.of(
+                "id", "mock-" + System.nanoTime(),
+                "model", request.path("model").asText("mock"),
+                "choices", List.of(Map.of("index", 0, "finish_reason", "stop",
+                        "message", Map.of("role", "assistant", "content", content))),
+                "usage", Map.of("prompt_tokens", promptTokens, "completion_tokens", completionTokens,
+                        "total_tokens", promptTokens + completionTokens)));
+    }
+
+    // 1분 고정 구간 토큰 한도
+    private synchronized boolean admit(int tokens) {
+        if (tokensPerMinute <= 0) return true;
+        long now = System.currentTimeMillis();
+        if (now - windowStartedAt >= 60_000) {
+            windowStartedAt = now;
+            windowTokens = 0;
+        }
+        if (windowTokens + tokens > tokensPerMinute) return false;
+        windowTokens += tokens;
+        return true;
+    }
+
+    private Map<String, Object> jsonContent(String userPrompt) {
+        Map<String, Object> analysis = new LinkedHashMap<>();
+        analysis.put("overallReview", "모의 분석 결과입니다.");
+        analysis.put("strengths", List.of("꾸준한 학습", "프로젝트 경험"));
+        analysis.put("gaps", Map.of(
+                "owned", List.of("Java"),
+                "missing", List.of(Map.of("name", "Spring", "method", "공식 가이드 따라 하기")),
+                "aiFeedback", "모의 피드백입니다."));
+        analysis.put("topMissions", List.of("미션 1", "미션 2", "미션 3"));
+        analysis.put("recommendedResources", List.of(Map.of("type", "도서", "title", "모의 도서", "reason", "테스트")));
+
+        List<Map<String, Object>> plans = new ArrayList<>();
+        for (String grade : List.of("1학년 1학기", "1학년 여름방학", "1학년 2학기", "1학년 겨울방학")) {
+            plans.add(Map.of("grade", grade, "goal", List.of("목표 1", "목표 2"),
+                    "courses", List.of("자료구조"), "activities", List.of("활동 1", "활동 2", "활동 3")));
+        }
+
+        // 재정렬 요청이면 후보 번호를 앞에서부터 그대로 사용
+        List<Map<String, Object>> ranked = new ArrayList<>();
+        Matcher matcher = CANDIDATE_ID.matcher(userPrompt);
+        while (matcher.find() && ranked.size() < 6) {
+            ranked.add(Map.of("id", Long.parseLong(matcher.group(1)), "reason", "모의 추천 이유"));
+        }
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("semesterPlans", plans);
+        content.put("swaps", List.of());
+        content.put("activities", List.of(Map.of("category", "CONTEST", "title", "모의 공모전 " + Math.abs(userPrompt.hashCode() % 100),
+                "description", "모의 설명", "dday", "D-14", "tags", List.of("모의", "테스트"),
+                "link", "https://www.google.com/search?q=mock")));
+        content.put("ranked", ranked);
+        content.put("analysis", analysis);
+        return content;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package org.tukorea.com.grad.backend.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication; // ★ 필수 추가
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.tukorea.com.grad.backend.dto.NoteRequestDto;
 import org.tukorea.com.grad.backend.dto.NoteResponseDto;
 import org.tukorea.com.grad.backend.service.StudyNoteService;
@@ -59,13 +61,40 @@ public class StudyNoteController {
     }
 
     // --- 🔥 AI 관련 API (/api/ai/ask) ---
+    // 로그인 상태면 { question, noteId(선택) } 만 보내면 서버가 노트에서 관련 부분을 찾아 사용
     @PostMapping("/ai/ask")
-    public ResponseEntity<Map<String, String>> askAi(@RequestBody Map<String, String> request) {
+    public ResponseEntity<Map<String, String>> askAi(
+            Authentication authentication,
+            @RequestBody Map<String, String> request) {
         String noteContent = request.get("noteContent");
         String question = request.get("question");
 
-        String answer = noteService.askAi(noteContent, question);
+        String answer = noteService.askAi(emailOf(authentication), question, parseNoteId(request.get("noteId")), noteContent);
 
         return ResponseEntity.ok(Map.of("answer", answer));
     }
-}
\ No newline at end of file
+
+    // --- 🔥 AI 스트리밍 API (/api/ai/ask/stream) : 토큰을 SSE 로 바로 전달 ---
+    @PostMapping(value = "/ai/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter askAiStream(
+            Authentication authentication,
+            @RequestBody Map<String, String> request) {
+        String noteContent = request.get("noteContent");
+        String question = request.get("question");
+
+        return noteService.askAiStream(emailOf(authentication), question, parseNoteId(request.get("noteId")), noteContent);
+    }
+
+    private static String emailOf(Authentication authentication) {
+        return authentication == null ? null : authentication.getName();
+    }
+
+    private static Long parseNoteId(String noteId) {
+        if (noteId == null || noteId.isBlank()) return null;
+        try {
+            return Long.valueOf(noteId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,19 +1,45 @@
 package org.tukorea.com.grad.backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import org.tukorea.com.grad.backend.dto.TukoreaNoticeDto;
+import org.tukorea.com.grad.backend.resilience.DependencyUnavailableException;
+import org.tukorea.com.grad.backend.resilience.OutboundCallException;
+import org.tukorea.com.grad.backend.service.NoticeThumbnailService;
 import org.tukorea.com.grad.backend.service.TukoreaService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/tukorea")
 public class TukoreaController {
 
+    // Tomcat sendfile 요청 속성 (커넥터가 지원하면 커널에서 바로 소켓으로 복사)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String THUMBNAIL_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(7)).cachePublic().getHeaderValue();
+
     private final TukoreaService tukoreaService;
+    private final NoticeThumbnailService thumbnailService;
 
-    public TukoreaController(TukoreaService tukoreaService) {
+    public TukoreaController(TukoreaService tukoreaService, NoticeThumbnailService thumbnailService) {
         this.tukoreaService = tukoreaService;
+        this.thumbnailService = thumbnailService;
     }
 
     @GetMapping("/extracurriculars")
@@ -23,4 +49,51 @@ public class TukoreaController {
 
         return tukoreaService.getExtracurriculars(major, grade);
     }
+
+    // 공지 이미지 썸네일 (w 는 가장 가까운 고정 폭으로 맞춤)
+    @GetMapping("/thumbnails")
+    public void thumbnail(@RequestParam String url,
+                          @RequestParam(required = false) Integer w,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        NoticeThumbnailService.Thumbnail thumbnail;
+        try {
+            thumbnail = thumbnailService.thumbnail(url, w);
+        } catch (IllegalArgumentException e) {
+            response.sendError(400, "허용하지 않는 이미지 주소입니다.");
+            return;
+        } catch (DependencyUnavailableException | RejectedExecutionException e) {
+            response.sendError(503, "잠시 후 다시 시도해 주세요.");
+            return;
+        } catch (IllegalStateException | OutboundCallException | UncheckedIOException e) {
+            response.sendError(502, "이미지를 불러오지 못했습니다.");
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, THUMBNAIL_CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, thumbnail.etag());
+        if (thumbnail.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(304);
+            return;
+        }
+
+        response.setContentType("image/jpeg");
+        response.setContentLengthLong(thumbnail.size());
+        // 반환한 파일은 캐시에서 밀려나도 delete-grace-ms 동안은 남아 있으므로 Tomcat 이 나중에 열어도 됨
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, thumbnail.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, thumbnail.size());
+            return;
+        }
+
+        // sendfile 을 쓸 수 없으면 응답 스트림으로 복사 (스트림을 감싼 채널이라 zero-copy 는 아니고, 힙에 파일 전체를 올리지 않는 정도)
+        try (FileChannel file = FileChannel.open(thumbnail.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < thumbnail.size()) {
+                position += file.transferTo(position, thumbnail.size() - position, out);
+            }
+        }
+    }
 }
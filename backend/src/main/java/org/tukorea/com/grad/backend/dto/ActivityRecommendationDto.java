@@ -0,0 +1,20 @@
+package org.tukorea.com.grad.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// 추천 활동 응답 (카탈로그 내용 + 사용자별 추천 이유)
+@Getter
+@Builder
+public class ActivityRecommendationDto {
+    private Long catalogId;
+    private String category;
+    private String title;
+    private String description;
+    private String dday;
+    private List<String> tags;
+    private String link;
+    private String createdAt;
+}
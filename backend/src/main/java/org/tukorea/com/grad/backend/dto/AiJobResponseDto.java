@@ -0,0 +1,17 @@
+package org.tukorea.com.grad.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class AiJobResponseDto {
+    private Long jobId;
+    private String type;          // ROADMAP_ANALYZE, SEMESTER_FEEDBACK
+    private String status;        // PENDING, RUNNING, SUCCEEDED, FAILED
+    private int attempts;         // 지금까지 시도한 횟수
+    private Object result;        // 완료 시 결과 (JSON)
+    private String errorMessage;  // 마지막 실패 사유
+    private String createdAt;
+    private String updatedAt;
+}
@@ -20,4 +20,5 @@ public class TukoreaNoticeDto {
 
     private String content;
     private String imageUrl;
+    private String thumbnailUrl; // 목록 카드용 축소 이미지 (/api/tukorea/thumbnails, 이미지가 없으면 null)
 }
\ No newline at end of file
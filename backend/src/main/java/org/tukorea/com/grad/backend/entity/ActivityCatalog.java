@@ -0,0 +1,71 @@
+package org.tukorea.com.grad.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 공용 대외활동 카탈로그 (activity_catalog 테이블)
+ * - 공모전/인턴십/동아리/자격증을 한 번만 저장하고 모든 사용자의 추천이 이 행을 참조합니다.
+ * - titleKey = SHA-256(정규화된 활동명), linkKey = SHA-256(정규화된 링크, 검색 링크는 제외) 로 중복을 막습니다.
+ * - "D-14" 같은 상대 기한은 그대로 두면 계속 D-14 로 보이므로, 등록할 때 절대 마감일(deadline)로 바꿔 저장합니다.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "activity_catalog", indexes = {
+        @Index(name = "uk_activity_catalog_title_key", columnList = "titleKey", unique = true),
+        @Index(name = "idx_activity_catalog_link_key", columnList = "linkKey")
+})
+public class ActivityCatalog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String category; // CONTEST, INTERN, CLUB, LICENSE
+    private String title;
+
+    @Column(length = 64)
+    private String titleKey;
+
+    @Column(length = 1000)
+    private String link;
+
+    @Column(length = 64)
+    private String linkKey;
+
+    // 활동 자체에 대한 일반 설명 (사용자별 추천 이유는 ActivityRecommendation.description)
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    // GPT 가 적은 마감 기한 원문 (예: "D-14", "3월 중순", "상시")
+    private String dday;
+
+    // dday 를 등록 시점 기준으로 계산한 마감일 (계산할 수 없으면 null = 상시/알 수 없음)
+    private LocalDate deadline;
+
+    // 활동 태그 (쉼표 구분)
+    private String tags;
+
+    // 검색용 키워드 - 이 활동을 처음 추천받은 전공/직무/기술 (쉼표 구분)
+    @Column(columnDefinition = "TEXT")
+    private String keywords;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
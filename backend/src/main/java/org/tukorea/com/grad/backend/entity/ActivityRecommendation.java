@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 
+/**
+ * 사용자별 추천 결과 - 활동 내용은 공용 카탈로그(ActivityCatalog)를 참조하고, 추천 이유만 따로 저장합니다.
+ * - 카탈로그 도입 전 기록은 활동 정보를 category/title/link 컬럼에 직접 가지고 있습니다. (ActivityService 가 카탈로그로 옮김)
+ */
 @Entity
 @Getter @Setter
 @NoArgsConstructor
@@ -18,17 +22,29 @@ public class ActivityRecommendation {
     @JoinColumn(name = "user_id")
     private User user;
 
-    private String category;
-    private String title;
-    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "catalog_id")
+    private ActivityCatalog catalog;
+
+    // 카탈로그 도입 전 기록의 활동 정보 (카탈로그로 옮긴 뒤에는 null)
+    @Column(name = "category")
+    private String legacyCategory;
+
+    @Column(name = "title")
+    private String legacyTitle;
+
+    @Column(name = "link")
+    private String legacyLink;
+
+    // 이 사용자에게 추천하는 이유
     @Column(columnDefinition = "TEXT")
     private String description;
-    
-    private String link;
+
+    private int rankOrder;
     private LocalDateTime createdAt;
 
     @PrePersist
     public void prePersist() {
         this.createdAt = LocalDateTime.now();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package org.tukorea.com.grad.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 비동기 AI 작업 (ai_job 테이블)
+ * - 요청 스레드에서 GPT 를 기다리지 않고, 작업을 저장한 뒤 워커가 가져가서 처리합니다.
+ * - 여러 서버의 워커가 SELECT ... FOR UPDATE SKIP LOCKED 로 서로 다른 작업을 가져갑니다.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "ai_job", indexes = {
+        @Index(name = "idx_ai_job_claim", columnList = "status, nextAttemptAt"),
+        @Index(name = "uk_ai_job_dedup_key", columnList = "dedupKey", unique = true)
+})
+public class AiJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private AiJobType type;
+
+    @Enumerated(EnumType.STRING)
+    private AiJobStatus status;
+
+    private String userEmail;
+
+    // 같은 작업을 두 번 등록하지 않기 위한 키 (일괄 작업용, 예: feedback-batch:{이메일}:{학기 종료일})
+    private String dedupKey;
+
+    // 작업 입력 (JSON)
+    @Column(columnDefinition = "LONGTEXT")
+    private String payload;
+
+    // 작업 결과 (JSON)
+    @Column(columnDefinition = "LONGTEXT")
+    private String result;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    private int attempts;
+    private int maxAttempts;
+    private LocalDateTime nextAttemptAt;
+
+    private String lockedBy;   // 작업을 가져간 서버(워커) 식별자
+    private LocalDateTime lockedAt;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,5 @@
+package org.tukorea.com.grad.backend.entity;
+
+public enum AiJobStatus {
+	PENDING, RUNNING, SUCCEEDED, FAILED
+}
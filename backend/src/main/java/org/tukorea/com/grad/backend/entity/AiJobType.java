@@ -0,0 +1,7 @@
+package org.tukorea.com.grad.backend.entity;
+
+public enum AiJobType {
+	ROADMAP_ANALYZE,    // 로드맵 생성 (MajorService.analyze)
+	SEMESTER_FEEDBACK,  // 학기 결산 피드백 (MajorService.refreshFeedback)
+	SEMESTER_FEEDBACK_BATCH // 학기 종료 후 일괄 결산 (SemesterFeedbackBatch, 한가한 시간에만 속도 제한을 두고 처리)
+}
@@ -0,0 +1,38 @@
+package org.tukorea.com.grad.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * LLM 응답 캐시 (L2) - 서버 재시작 후에도 유지되고 여러 서버가 공유합니다.
+ * cacheKey = SHA-256(모델, temperature, 정규화된 프롬프트)
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "llm_cache_entry", indexes = @Index(name = "idx_llm_cache_expires_at", columnList = "expiresAt"))
+public class LlmCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String cacheKey;
+
+    private String model;
+
+    @Column(columnDefinition = "LONGTEXT")
+    private String content;
+
+    private int promptTokens;
+    private int completionTokens;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,25 @@
+package org.tukorea.com.grad.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 요청 수 제한용 토큰 버킷 (rate_limit_bucket 테이블)
+ * - 여러 서버가 같은 행을 SELECT ... FOR UPDATE 로 잠그고 갱신하므로 서버 수와 관계없이 한도가 일정합니다.
+ * - bucketKey 예: "user:{이메일}:ai-ask", "ip:{주소}:major-analyze", "global:llm"
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "rate_limit_bucket", indexes = @Index(name = "idx_rate_limit_updated_at", columnList = "updatedAtMillis"))
+public class RateLimitBucket {
+
+    @Id
+    @Column(length = 191)
+    private String bucketKey;
+
+    private double tokens;          // 남은 토큰 수
+    private long updatedAtMillis;   // 마지막으로 토큰을 채운 시각 (epoch ms)
+}
@@ -2,6 +2,11 @@ package org.tukorea.com.grad.backend.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
 @Getter @Setter
@@ -47,4 +52,55 @@ public class Roadmap {
     // 피드백 탭에서 보여줄 총평, Gap 분석 등이 들어갑니다. (MySQL LONGTEXT 4GB까지 안전하게 저장)
     @Column(columnDefinition = "LONGTEXT")
     private String analysisResult;
+
+    // 마지막 학기 결산 피드백 정보 (야간 일괄 결산 대상 선정 / 결과 재사용용)
+    private LocalDateTime feedbackRefreshedAt;
+    private String feedbackFinishedGrade; // 예: "2학년 1학기"
+    private String feedbackSource;        // LIVE(사용자 요청) 또는 BATCH(야간 일괄 결산)
+    @Column(length = 64)
+    private String feedbackProgressHash;  // 피드백을 만들 때 사용한 roadmapJson 의 해시 (일괄 결산 재사용 판단용)
+
+    // 활동 추천에 쓰이는 프로필(전공, 목표 직무, 기술 스택, 목표 기업)의 해시 - 저장할 때마다 자동 계산
+    @Column(length = 64)
+    private String profileHash;
+
+    // 마지막 활동 추천을 만들 때의 profileHash (profileHash 와 다르면 추천이 오래된 것)
+    @Column(length = 64)
+    private String activityProfileHash;
+    private LocalDateTime activitiesRefreshedAt;
+    private LocalDateTime activityPrecomputeClaimedAt; // 야간 미리 계산을 가져간 시각 (서버 간 중복 방지)
+
+    @PrePersist
+    @PreUpdate
+    public void updateProfileHash() {
+        this.profileHash = profileHashOf(major, targetJob, techStacks, targetCompany);
+    }
+
+    /**
+     * 활동 추천 프로필 해시 = SHA-256(공백을 정리한 전공 | 목표 직무 | 기술 스택 | 목표 기업)
+     */
+    public static String profileHashOf(String major, String targetJob, String techStacks, String targetCompany) {
+        String material = String.join("\u0000", clean(major), clean(targetJob), clean(techStacks), clean(targetCompany));
+        return sha256(material);
+    }
+
+    /**
+     * 진행 상황 해시 = SHA-256(RoadmapDigester.progressState) - 같은 체크 상태로 만든 피드백인지 비교할 때 사용
+     */
+    public static String progressHashOf(String progressState) {
+        return progressState == null ? null : sha256(progressState);
+    }
+
+    private static String sha256(String material) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String clean(String value) {
+        return value == null ? "" : value.strip().replaceAll("\\s+", " ");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package org.tukorea.com.grad.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 코호트 공통 로드맵 (roadmap_template 테이블)
+ * - 같은 (전공, 학년, 학기, 목표 직무) 사용자들이 공유하는 학기별 계획 뼈대
+ * - cohortKey = SHA-256(정규화된 전공 | 학년 | 학기 | 목표 직무)
+ * - expiresAt 이 지나면 스케줄러가 다시 생성합니다. (그 전까지는 기존 것을 그대로 사용)
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "roadmap_template", indexes = @Index(name = "idx_roadmap_template_expires_at", columnList = "expiresAt"))
+public class RoadmapTemplate {
+
+    @Id
+    @Column(length = 64)
+    private String cohortKey;
+
+    private String major;
+    private String grade;
+    private String semester;
+    private String targetJob;
+
+    // semesterPlans 배열 (JSON)
+    @Column(columnDefinition = "LONGTEXT")
+    private String semesterPlans;
+
+    // 생성에 사용한 프롬프트 템플릿 (예: roadmap-template.v1)
+    private String promptTemplate;
+
+    private long useCount;
+
+    private LocalDateTime generatedAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime lastUsedAt;
+}
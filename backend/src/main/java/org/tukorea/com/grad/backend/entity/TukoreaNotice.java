@@ -0,0 +1,69 @@
+package org.tukorea.com.grad.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 학교 홈페이지 비교과 공지 (tukorea_notice 테이블)
+ * - TukoreaNoticeCrawler 가 백그라운드에서 게시판/상세 페이지를 수집해 저장하고,
+ *   /api/tukorea/extracurriculars 는 이 테이블(메모리 사본)만 조회합니다.
+ * - 같은 공지는 link 로 구분합니다.
+ * - contentHash / etag / lastModified 는 다음 수집 때 바뀌지 않은 상세 페이지를 다시 받거나 저장하지 않기 위한 값입니다.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "tukorea_notice", indexes = {
+        @Index(name = "uk_tukorea_notice_link", columnList = "link", unique = true),
+        @Index(name = "idx_tukorea_notice_posted_on", columnList = "postedOn")
+})
+public class TukoreaNotice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 500)
+    private String title;
+
+    @Column(length = 500)
+    private String link;
+
+    // 게시판의 등록일 문자열 (예: 2025.03.02, 없으면 "날짜 정보 없음") - 화면 표시용
+    @Column(length = 50)
+    private String postedDate;
+
+    // postedDate 를 읽은 날짜 (정렬용, 읽을 수 없으면 null -> 목록 맨 뒤)
+    private LocalDate postedOn;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String content;
+
+    @Column(length = 1000)
+    private String imageUrl;
+
+    // SHA-256(제목, 등록일, 본문, 이미지) - 다시 받은 내용이 같으면 저장하지 않음
+    @Column(length = 64)
+    private String contentHash;
+
+    // 상세 페이지 응답의 ETag / Last-Modified (조건부 요청용, 서버가 주지 않으면 null)
+    @Column(length = 200)
+    private String etag;
+
+    @Column(length = 100)
+    private String lastModified;
+
+    private LocalDateTime firstSeenAt;   // 처음 수집한 시각
+    private LocalDateTime lastSeenAt;    // 마지막으로 게시판에서 확인한 시각
+    private LocalDateTime lastFetchedAt; // 마지막으로 상세 페이지를 확인한 시각 (304 포함)
+
+    @PrePersist
+    public void prePersist() {
+        if (this.firstSeenAt == null) this.firstSeenAt = LocalDateTime.now();
+        if (this.lastSeenAt == null) this.lastSeenAt = this.firstSeenAt;
+    }
+}
@@ -0,0 +1,44 @@
+package org.tukorea.com.grad.backend.llm;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Chat Completions 응답 봉투 (필요한 필드만)
+ * - 일반 응답: choices[].message.content, 스트리밍 조각: choices[].delta.content
+ * - JsonNode 트리를 만들지 않고 바이트에서 바로 읽습니다.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+record ChatCompletion(String model, List<Choice> choices, Usage usage) {
+
+    String content() {
+        if (choices == null || choices.isEmpty()) return null;
+        Choice first = choices.get(0);
+        if (first.message() != null) return first.message().content();
+        return first.delta() == null ? null : first.delta().content();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Choice(Message message, Message delta) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Message(String content) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Usage(@JsonProperty("prompt_tokens") int promptTokens,
+                 @JsonProperty("completion_tokens") int completionTokens,
+                 @JsonProperty("prompt_tokens_details") PromptTokensDetails promptTokensDetails) {
+
+        int cachedTokens() {
+            return promptTokensDetails == null ? 0 : promptTokensDetails.cachedTokens();
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record PromptTokensDetails(@JsonProperty("cached_tokens") int cachedTokens) {
+    }
+}
@@ -0,0 +1,39 @@
+package org.tukorea.com.grad.backend.llm;
+
+import java.util.Arrays;
+
+/**
+ * 모델별 최근 응답 시간(ms)을 보관하고 백분위수를 계산하는 고정 크기 링 버퍼
+ */
+class LatencyTracker {
+
+    private final long[] samples;
+    private int index;
+    private int count;
+
+    LatencyTracker(int capacity) {
+        this.samples = new long[Math.max(1, capacity)];
+    }
+
+    synchronized void record(long latencyMillis) {
+        samples[index] = latencyMillis;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    /**
+     * @param percentile 0.0 ~ 1.0 (예: 0.95)
+     * @return 샘플이 없으면 -1
+     */
+    synchronized long percentile(double percentile) {
+        if (count == 0) return -1;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(rank, count - 1))];
+    }
+}
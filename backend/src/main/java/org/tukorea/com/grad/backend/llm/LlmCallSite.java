@@ -0,0 +1,32 @@
+package org.tukorea.com.grad.backend.llm;
+
+/**
+ * LLM 을 호출하는 위치(기능) 구분
+ * - 호출 위치별 설정(캐시 사용 여부 등)은 llm.sites.{속성명}.* 으로 덮어쓸 수 있습니다.
+ */
+public enum LlmCallSite {
+    MAJOR_ANALYZE("major-analyze", true),       // 로드맵 생성 (MajorService.analyze)
+    ROADMAP_TEMPLATE("roadmap-template", false), // 코호트 공통 로드맵 (RoadmapTemplateService, 결과는 roadmap_template 에 저장)
+    MAJOR_PERSONALIZE("major-personalize", true), // 공통 로드맵 개인화 + 분석 (MajorService.analyze)
+    MAJOR_FEEDBACK("major-feedback", true),     // 학기 결산 피드백 (MajorService.refreshFeedback)
+    ACTIVITY_RECOMMEND("activity-recommend", true), // 카탈로그용 새 활동 생성 (ActivityService, 후보가 부족할 때만)
+    ACTIVITY_RERANK("activity-rerank", true),   // 카탈로그 후보 재정렬 + 추천 이유 (ActivityService)
+    PORTFOLIO_GUIDE("portfolio-guide", false),  // 포트폴리오 가이드 (temperature 0.7 -> 매번 새로 생성)
+    NOTE_TUTOR("note-tutor", true);             // 학습 노트 AI 튜터 (StudyNoteService)
+
+    private final String propertyName;
+    private final boolean cacheableByDefault;
+
+    LlmCallSite(String propertyName, boolean cacheableByDefault) {
+        this.propertyName = propertyName;
+        this.cacheableByDefault = cacheableByDefault;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public boolean isCacheableByDefault() {
+        return cacheableByDefault;
+    }
+}
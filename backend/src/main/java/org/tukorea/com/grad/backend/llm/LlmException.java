@@ -0,0 +1,30 @@
+package org.tukorea.com.grad.backend.llm;
+
+/**
+ * LLM 호출 실패 (타임아웃, HTTP 오류, 응답 파싱 실패 등)
+ * - HTTP 오류 응답이면 statusCode 에 상태 코드 (그 외 0) - 서킷 브레이커가 4xx 를 실패로 세지 않도록
+ */
+public class LlmException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public LlmException(String message) {
+        this(message, 0);
+    }
+
+    public LlmException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public LlmException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,367 @@
+package org.tukorea.com.grad.backend.llm;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.resilience.DependencyUnavailableException;
+import org.tukorea.com.grad.backend.resilience.OutboundDependency;
+import org.tukorea.com.grad.backend.resilience.OutboundGuard;
+import org.tukorea.com.grad.backend.resilience.RequestDeadline;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * OpenAI Chat Completions 호출을 담당하는 공용 게이트웨이
+ * - HttpClient 하나를 애플리케이션 전체에서 재사용 (커넥션 풀 + keep-alive, HTTP/2 우선)
+ * - connect / read(응답 헤더까지) / total(본문 수신까지) 타임아웃 설정 가능
+ * - 모델별 설정은 openai.models.{모델명}.* 속성으로 덮어쓸 수 있습니다.
+ * - 호출 위치별로 허용된 경우 LlmResponseCache(L1 메모리 / L2 MySQL)를 먼저 조회합니다.
+ * - stream: true 응답은 전용 스레드 풀(동시 스트림 수 제한)에서 토큰 단위로 전달합니다.
+ * - 실제 HTTP 호출은 OutboundGuard(동시 호출 한도 / 서킷 브레이커 / 요청 마감 시간)를 거칩니다.
+ */
+@Slf4j
+@Component
+public class LlmGateway {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(JsonParser.Feature.ALLOW_COMMENTS, true)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // 응답 봉투 / 스트리밍 조각 공용 리더 (JsonNode 트리 없이 바로 레코드로)
+    private static final ObjectReader COMPLETION_READER = OBJECT_MAPPER.readerFor(ChatCompletion.class);
+
+    private final Environment environment;
+    private final LlmResponseCache responseCache;
+    private final LlmJson llmJson;
+    private final OutboundGuard outboundGuard;
+    private final HttpClient httpClient;
+    private final URI completionsUri;
+    private final String apiKey;
+    private final long defaultReadTimeoutMs;
+    private final long defaultTotalTimeoutMs;
+    private final ExecutorService streamExecutor;
+
+    public LlmGateway(Environment environment,
+                      LlmResponseCache responseCache,
+                      LlmJson llmJson,
+                      OutboundGuard outboundGuard,
+                      @Value("${openai.api.key}") String apiKey,
+                      @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}") String completionsUrl,
+                      @Value("${openai.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                      @Value("${openai.http.read-timeout-ms:30000}") long readTimeoutMs,
+                      @Value("${openai.http.total-timeout-ms:60000}") long totalTimeoutMs,
+                      @Value("${openai.stream.max-concurrency:32}") int maxConcurrentStreams) {
+        this.environment = environment;
+        this.responseCache = responseCache;
+        this.llmJson = llmJson;
+        this.outboundGuard = outboundGuard;
+        this.apiKey = apiKey;
+        this.completionsUri = URI.create(completionsUrl);
+        this.defaultReadTimeoutMs = readTimeoutMs;
+        this.defaultTotalTimeoutMs = totalTimeoutMs;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2) // 서버가 지원하지 않으면 HTTP/1.1 로 자동 전환
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.streamExecutor = new ThreadPoolExecutor(
+                maxConcurrentStreams, maxConcurrentStreams, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxConcurrentStreams),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "llm-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    /**
+     * 게이트웨이가 사용하는 공용 ObjectMapper (매 호출마다 새로 만들지 않도록 공유)
+     */
+    public ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    /**
+     * 1. 채팅 완성 요청 (응답 전체를 받을 때까지 대기)
+     * - 캐시 가능한 호출이면 동일 프롬프트의 이전 응답을 재사용합니다.
+     */
+    public LlmResponse complete(LlmRequest request) {
+        if (!responseCache.isCacheable(request)) {
+            return guardedSend(request);
+        }
+
+        String cacheKey = responseCache.keyFor(request);
+        Optional<LlmResponse> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.debug("LLM 캐시 적중 - callSite: {}", request.getCallSite());
+            return cached.get();
+        }
+
+        LlmResponse response = guardedSend(request);
+        if (isCacheableContent(request, response.getContent())) {
+            responseCache.put(cacheKey, response);
+        } else {
+            log.warn("LLM 응답이 요청 형식과 맞지 않아 캐시하지 않음 - callSite: {}", request.getCallSite());
+        }
+        return response;
+    }
+
+    // 호출한 쪽이 읽을 형식으로 읽히는 응답만 캐시 (깨진 응답을 TTL 동안 재사용하지 않도록)
+    private boolean isCacheableContent(LlmRequest request, String content) {
+        if (content == null) return false;
+        if (request.getResponseType() != null) return llmJson.isValid(content, request.getResponseType());
+        return !request.isJsonMode() || llmJson.isValid(content, Object.class);
+    }
+
+    private LlmResponse guardedSend(LlmRequest request) {
+        try {
+            return outboundGuard.call(OutboundDependency.LLM, () -> send(request));
+        } catch (DependencyUnavailableException e) {
+            throw new LlmException(e.getMessage(), e);
+        }
+    }
+
+    private LlmResponse send(LlmRequest request) {
+        long startedAt = System.nanoTime();
+        HttpRequest httpRequest = buildHttpRequest(request, false);
+
+        CompletableFuture<HttpResponse<byte[]>> future =
+                httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> response;
+        try {
+            // 요청 마감 시간이 더 가까우면 그만큼만 기다립니다.
+            response = future.get(RequestDeadline.cap(totalTimeoutMs(request.getModel())), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LlmException("LLM 응답 시간 초과 (model=" + request.getModel() + ")", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LlmException("LLM 호출이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new LlmException("LLM 호출 실패 (model=" + request.getModel() + ")", e.getCause());
+        }
+
+        if (response.statusCode() / 100 != 2) {
+            throw new LlmException("LLM HTTP 오류 " + response.statusCode() + ": " + abbreviate(new String(response.body(), StandardCharsets.UTF_8)),
+                    response.statusCode());
+        }
+
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        LlmResponse result = parseResponse(response.body(), request.getModel(), latencyMillis);
+        log.debug("LLM 호출 완료 - model: {}, {}ms, prompt {} / completion {} tokens",
+                result.getModel(), latencyMillis, result.getPromptTokens(), result.getCompletionTokens());
+        return result;
+    }
+
+    /**
+     * 2. 스트리밍 채팅 완성 요청 (stream: true)
+     * - 토큰(delta)이 도착할 때마다 onDelta 로 전달하고, 완료되면 전체 본문을 돌려줍니다.
+     * - cancelled 가 true 가 되거나 onDelta 가 예외를 던지면 업스트림 연결을 즉시 끊어
+     *   아무도 읽지 않는 토큰 생성을 중단시킵니다.
+     * - 호출 스레드를 점유하지 않도록 전용 스트림 풀에서 실행됩니다.
+     */
+    public CompletableFuture<String> streamAsync(LlmRequest request, Consumer<String> onDelta, BooleanSupplier cancelled) {
+        try {
+            return CompletableFuture.supplyAsync(() -> guardedStream(request, onDelta, cancelled), streamExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new LlmException("동시 스트리밍 요청이 너무 많습니다.", e));
+        }
+    }
+
+    private String guardedStream(LlmRequest request, Consumer<String> onDelta, BooleanSupplier cancelled) {
+        try {
+            return outboundGuard.call(OutboundDependency.LLM, () -> stream(request, onDelta, cancelled));
+        } catch (DependencyUnavailableException e) {
+            throw new LlmException(e.getMessage(), e);
+        }
+    }
+
+    private String stream(LlmRequest request, Consumer<String> onDelta, BooleanSupplier cancelled) {
+        long startedAt = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(buildHttpRequest(request, true), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new LlmException("LLM 스트리밍 연결 실패 (model=" + request.getModel() + ")", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmException("LLM 스트리밍이 중단되었습니다.", e);
+        }
+
+        InputStream body = response.body();
+        if (response.statusCode() / 100 != 2) {
+            String error;
+            try (body) {
+                error = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+            throw new LlmException("LLM HTTP 오류 " + response.statusCode() + ": " + abbreviate(error), response.statusCode());
+        }
+
+        // 전체 제한 시간이 지나면 본문 스트림을 닫아 멈춰 있는 readLine 을 깨웁니다.
+        CompletableFuture<Void> watchdog = CompletableFuture.runAsync(() -> closeQuietly(body),
+                CompletableFuture.delayedExecutor(totalTimeoutMs(request.getModel()), TimeUnit.MILLISECONDS));
+
+        StringBuilder content = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (cancelled.getAsBoolean()) {
+                    log.info("LLM 스트리밍 취소 - model: {}, {}자 수신 후 중단", request.getModel(), content.length());
+                    break;
+                }
+                if (!line.startsWith("data:")) continue;
+
+                String data = line.substring(5).trim();
+                if ("[DONE]".equals(data)) break;
+
+                String delta = COMPLETION_READER.<ChatCompletion>readValue(data).content();
+                if (delta != null && !delta.isEmpty()) {
+                    content.append(delta);
+                    onDelta.accept(delta);
+                }
+            }
+        } catch (IOException e) {
+            if (watchdog.isDone()) {
+                throw new LlmException("LLM 스트리밍 시간 초과 (model=" + request.getModel() + ")", e);
+            }
+            throw new LlmException("LLM 스트리밍 수신 실패", e);
+        } finally {
+            watchdog.cancel(false);
+        }
+
+        log.debug("LLM 스트리밍 완료 - model: {}, {}ms, {}자",
+                request.getModel(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), content.length());
+        return content.toString();
+    }
+
+    private HttpRequest buildHttpRequest(LlmRequest request, boolean stream) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", request.getModel());
+
+        List<Map<String, String>> messages = new ArrayList<>();
+        if (request.getSystemPrompt() != null) {
+            messages.add(Map.of("role", "system", "content", request.getSystemPrompt()));
+        }
+        messages.add(Map.of("role", "user", "content", request.getUserPrompt()));
+        body.put("messages", messages);
+
+        if (request.getTemperature() != null) {
+            body.put("temperature", request.getTemperature());
+        }
+        if (request.isJsonMode()) {
+            body.put("response_format", Map.of("type", "json_object"));
+        }
+        Integer maxTokens = environment.getProperty(modelKey(request.getModel(), "max-tokens"), Integer.class);
+        if (maxTokens != null) {
+            body.put("max_tokens", maxTokens);
+        }
+        if (stream) {
+            body.put("stream", true);
+        }
+
+        byte[] payload;
+        try {
+            payload = OBJECT_MAPPER.writeValueAsBytes(body);
+        } catch (Exception e) {
+            throw new LlmException("LLM 요청 직렬화 실패", e);
+        }
+
+        // HttpRequest.timeout 은 응답 헤더가 올 때까지의 시간입니다.
+        // 일반 호출은 생성이 모두 끝나야 헤더가 오므로 전체 제한 시간, 스트리밍은 첫 응답까지의 읽기 제한 시간을 적용합니다.
+        long headerTimeoutMs = stream ? readTimeoutMs(request.getModel()) : totalTimeoutMs(request.getModel());
+        return HttpRequest.newBuilder(completionsUri)
+                .timeout(Duration.ofMillis(RequestDeadline.cap(headerTimeoutMs)))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+    }
+
+    private LlmResponse parseResponse(byte[] body, String requestedModel, long latencyMillis) {
+        try {
+            ChatCompletion completion = COMPLETION_READER.readValue(body);
+            if (completion.choices() == null || completion.choices().isEmpty()) {
+                throw new LlmException("LLM 응답에 choices 가 없습니다: "
+                        + abbreviate(new String(body, StandardCharsets.UTF_8)));
+            }
+            ChatCompletion.Usage usage = completion.usage();
+            return LlmResponse.builder()
+                    .content(completion.content())
+                    .model(completion.model() != null ? completion.model() : requestedModel)
+                    .promptTokens(usage == null ? 0 : usage.promptTokens())
+                    .cachedPromptTokens(usage == null ? 0 : usage.cachedTokens())
+                    .completionTokens(usage == null ? 0 : usage.completionTokens())
+                    .latencyMillis(latencyMillis)
+                    .build();
+        } catch (LlmException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LlmException("LLM 응답 파싱 실패", e);
+        }
+    }
+
+    private long readTimeoutMs(String model) {
+        return environment.getProperty(modelKey(model, "read-timeout-ms"), Long.class, defaultReadTimeoutMs);
+    }
+
+    private long totalTimeoutMs(String model) {
+        return environment.getProperty(modelKey(model, "total-timeout-ms"), Long.class, defaultTotalTimeoutMs);
+    }
+
+    private static String modelKey(String model, String key) {
+        return "openai.models." + model + "." + key;
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // 이미 닫힌 스트림
+        }
+    }
+
+    private static String abbreviate(String text) {
+        if (text == null) return "";
+        return text.length() > 300 ? text.substring(0, 300) + "..." : text;
+    }
+}
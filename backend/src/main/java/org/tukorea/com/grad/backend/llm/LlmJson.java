@@ -0,0 +1,189 @@
+package org.tukorea.com.grad.backend.llm;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.llm.schema.LlmSchema;
+import org.tukorea.com.grad.backend.llm.schema.LlmSchemaException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GPT 응답(JSON) -> 타입 레코드 변환 (llm.schema 패키지)
+ * - 형식마다 미리 만든 ObjectReader 하나를 공유합니다. (Map 으로 읽었다가 다시 직렬화하지 않음)
+ * - 처음 읽기에 실패하면 흔한 깨짐(코드 블록 ```json, 앞뒤 설명 문장, 잘린 끝 괄호)을 고쳐서 한 번 더 읽습니다.
+ *   복구로도 안 되거나 필수 값이 없으면 LlmSchemaException -> 호출한 쪽에서 재시도/대체 경로
+ *
+ * 메트릭: llm.json.parse{type, outcome=ok|repaired|invalid}
+ */
+@Slf4j
+@Component
+public class LlmJson {
+
+    // 모델이 자주 틀리는 부분은 읽을 때 허용 (주석, 끝 쉼표, 배열 대신 값 하나)
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+            .enable(JsonParser.Feature.ALLOW_COMMENTS)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> listReaders = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public LlmJson(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * GPT 응답 본문을 type 으로 읽고 검증 (LlmSchema 이면 problem() 확인)
+     */
+    public <T> T parse(String content, Class<T> type) {
+        return parse(content, type, true);
+    }
+
+    /**
+     * 응답을 type 으로 읽을 수 있는지만 확인 (캐시 저장 전 검증용, 메트릭 없음)
+     */
+    public boolean isValid(String content, Class<?> type) {
+        try {
+            parse(content, type, false);
+            return true;
+        } catch (LlmSchemaException e) {
+            return false;
+        }
+    }
+
+    private <T> T parse(String content, Class<T> type, boolean metered) {
+        if (content == null || content.isBlank()) {
+            if (metered) count(type, "invalid");
+            throw new LlmSchemaException(type.getSimpleName() + ": 빈 응답");
+        }
+
+        ObjectReader reader = readers.computeIfAbsent(type, MAPPER::readerFor);
+        T value;
+        String outcome = "ok";
+        try {
+            value = reader.readValue(content);
+        } catch (JsonProcessingException first) {
+            String repaired = repair(content);
+            try {
+                value = reader.readValue(repaired);
+                outcome = "repaired";
+            } catch (JsonProcessingException second) {
+                if (metered) count(type, "invalid");
+                throw new LlmSchemaException(type.getSimpleName() + " JSON 파싱 실패: " + first.getOriginalMessage(), second);
+            }
+        }
+
+        String problem = value instanceof LlmSchema schema ? schema.problem() : null;
+        if (value == null || problem != null) {
+            if (metered) count(type, "invalid");
+            throw new LlmSchemaException(type.getSimpleName() + " 형식 오류: " + (value == null ? "null" : problem));
+        }
+        if (metered) count(type, outcome);
+        return value;
+    }
+
+    /**
+     * 저장해 둔 JSON 배열 읽기 (예: roadmap_template.semesterPlans)
+     */
+    public <T> List<T> parseList(String json, Class<T> elementType) {
+        try {
+            return listReaders.computeIfAbsent(elementType, MAPPER::readerForListOf).readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new LlmSchemaException(elementType.getSimpleName() + " 목록 JSON 파싱 실패", e);
+        }
+    }
+
+    public String write(Object value) {
+        try {
+            return WRITER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new LlmSchemaException("JSON 변환 실패", e);
+        }
+    }
+
+    /**
+     * 값싼 복구: 코드 블록/앞뒤 문장 제거, 잘려서 닫히지 않은 문자열/괄호 닫기
+     * - 닫는 괄호 종류가 틀리면 ([1,2} 처럼) 빠진 괄호를 채워 넣고, 짝이 없는 닫는 괄호는 버립니다.
+     */
+    static String repair(String content) {
+        String text = content.strip();
+        if (text.startsWith("```")) {
+            int firstLine = text.indexOf('\n');
+            text = firstLine < 0 ? "" : text.substring(firstLine + 1);
+            int fence = text.lastIndexOf("```");
+            if (fence >= 0) text = text.substring(0, fence);
+        }
+
+        int start = text.indexOf('{');
+        if (start < 0) return text;
+        text = text.substring(start);
+
+        // 문자열 밖의 괄호 짝을 따라가며, 최상위 객체가 끝나면 뒤는 버림
+        StringBuilder out = new StringBuilder(text.length() + 8);
+        Deque<Character> open = new ArrayDeque<>();
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                out.append(c);
+                if (escaped) escaped = false;
+                else if (c == '\\') escaped = true;
+                else if (c == '"') inString = false;
+                continue;
+            }
+            if (c == '}' || c == ']') {
+                char opener = c == '}' ? '{' : '[';
+                if (!open.contains(opener)) continue; // 짝이 없는 닫는 괄호
+                while (open.peek() != opener) {
+                    out.append(closerOf(open.pop())); // 빠진 닫는 괄호 채움
+                }
+                open.pop();
+                out.append(c);
+                if (open.isEmpty()) return out.toString();
+                continue;
+            }
+            out.append(c);
+            if (c == '"') inString = true;
+            else if (c == '{' || c == '[') open.push(c);
+        }
+
+        // 응답이 중간에 잘림 -> 열린 것들을 순서대로 닫음
+        String body = out.toString().stripTrailing();
+        StringBuilder closed = new StringBuilder(body);
+        if (inString) closed.append('"');
+        while (closed.length() > 0 && closed.charAt(closed.length() - 1) == ',') {
+            closed.setLength(closed.length() - 1);
+        }
+        if (closed.length() > 0 && closed.charAt(closed.length() - 1) == ':') closed.append("null");
+        while (!open.isEmpty()) {
+            closed.append(closerOf(open.pop()));
+        }
+        return closed.toString();
+    }
+
+    private static char closerOf(char opener) {
+        return opener == '{' ? '}' : ']';
+    }
+
+    private void count(Class<?> type, String outcome) {
+        meterRegistry.counter("llm.json.parse", "type", type.getSimpleName(), "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,24 @@
+package org.tukorea.com.grad.backend.llm;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * LLM 호출 한 건에 대한 요청 정보
+ * - systemPrompt 가 null 이면 user 메시지만 전송합니다.
+ * - temperature 가 null 이면 모델 기본값을 사용합니다.
+ * - callSite 는 호출 위치별 정책(캐시 opt-out 등)을 고르는 데 사용됩니다.
+ * - responseType 을 주면 응답이 그 형식으로 읽힐 때만 캐시합니다. (깨진 응답이 같은 프롬프트에 계속 재사용되지 않도록)
+ */
+@Getter
+@Builder(toBuilder = true)
+public class LlmRequest {
+    private LlmCallSite callSite;  // 호출 위치 (null 이면 캐시 등 부가 정책 미적용)
+    private String model;          // 예: gpt-4o, gpt-4o-mini
+    private String systemPrompt;   // system 역할 메시지
+    private String userPrompt;     // user 역할 메시지
+    private Double temperature;    // 생성 온도
+    private boolean jsonMode;      // response_format: json_object 강제 여부
+    private String promptTemplate; // 사용한 프롬프트 템플릿 (예: major-analyze:v1, 메트릭용)
+    private Class<?> responseType; // 응답을 읽을 형식 (null 이면 JSON 모드일 때 JSON 인지만 확인)
+}
@@ -0,0 +1,19 @@
+package org.tukorea.com.grad.backend.llm;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * LLM 응답 (본문 + 사용량 정보)
+ */
+@Getter
+@Builder(toBuilder = true)
+public class LlmResponse {
+    private String content;        // choices[0].message.content
+    private String model;          // 실제로 응답한 모델
+    private int promptTokens;      // usage.prompt_tokens
+    private int cachedPromptTokens; // usage.prompt_tokens_details.cached_tokens (프롬프트 앞부분 캐시 적중분)
+    private int completionTokens;  // usage.completion_tokens
+    private long latencyMillis;    // 요청 ~ 응답 수신까지 걸린 시간
+    private boolean cached;        // 응답 캐시에서 가져온 결과인지
+}
@@ -0,0 +1,198 @@
+package org.tukorea.com.grad.backend.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.entity.LlmCacheEntry;
+import org.tukorea.com.grad.backend.repository.LlmCacheRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LLM 응답 2단 캐시
+ * - L1: 서버 메모리의 LRU + TTL 맵 (최대 개수 제한)
+ * - L2: MySQL llm_cache_entry 테이블 (재시작 후에도 유지, 여러 서버가 공유)
+ * - 키: SHA-256(모델, temperature, JSON 모드, 정규화된 system/user 프롬프트)
+ * - 호출 위치별 사용 여부: llm.sites.{속성명}.cache-enabled (기본값은 LlmCallSite 참고)
+ */
+@Slf4j
+@Component
+public class LlmResponseCache {
+
+    private final LlmCacheRepository cacheRepository;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int l1MaxEntries;
+    private final long ttlSeconds;
+
+    private final Map<String, CachedResponse> l1;
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public LlmResponseCache(LlmCacheRepository cacheRepository,
+                            Environment environment,
+                            MeterRegistry meterRegistry,
+                            @Value("${llm.cache.enabled:true}") boolean enabled,
+                            @Value("${llm.cache.l1-max-entries:1000}") int l1MaxEntries,
+                            @Value("${llm.cache.ttl-seconds:86400}") long ttlSeconds) {
+        this.cacheRepository = cacheRepository;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.l1MaxEntries = l1MaxEntries;
+        this.ttlSeconds = ttlSeconds;
+
+        this.l1Hits = meterRegistry.counter("llm.cache.requests", "result", "hit-l1");
+        this.l2Hits = meterRegistry.counter("llm.cache.requests", "result", "hit-l2");
+        this.misses = meterRegistry.counter("llm.cache.requests", "result", "miss");
+        this.sizeEvictions = meterRegistry.counter("llm.cache.evictions", "reason", "size");
+        this.expiredEvictions = meterRegistry.counter("llm.cache.evictions", "reason", "expired");
+
+        // accessOrder = true -> 가장 오래 사용하지 않은 항목부터 제거 (LRU)
+        this.l1 = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                if (size() > LlmResponseCache.this.l1MaxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 이 요청을 캐시해도 되는지 (전체 스위치 + 호출 위치별 opt-out)
+     */
+    public boolean isCacheable(LlmRequest request) {
+        if (!enabled || request.getCallSite() == null) return false;
+        LlmCallSite site = request.getCallSite();
+        return environment.getProperty("llm.sites." + site.getPropertyName() + ".cache-enabled",
+                Boolean.class, site.isCacheableByDefault());
+    }
+
+    public Optional<LlmResponse> get(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (l1) {
+            CachedResponse cached = l1.get(key);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > now) {
+                    l1Hits.increment();
+                    return Optional.of(cached.response());
+                }
+                l1.remove(key);
+                expiredEvictions.increment();
+            }
+        }
+
+        try {
+            Optional<LlmCacheEntry> entry = cacheRepository.findById(key)
+                    .filter(e -> e.getExpiresAt().isAfter(LocalDateTime.now()));
+            if (entry.isPresent()) {
+                l2Hits.increment();
+                LlmResponse response = toResponse(entry.get());
+                putL1(key, response);
+                return Optional.of(response);
+            }
+        } catch (Exception e) {
+            // DB 장애가 LLM 호출 자체를 막지 않도록 L2 오류는 miss 로 처리
+            log.warn("LLM 캐시(L2) 조회 실패: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, LlmResponse response) {
+        if (response.getContent() == null) return;
+        putL1(key, response);
+        try {
+            cacheRepository.save(LlmCacheEntry.builder()
+                    .cacheKey(key)
+                    .model(response.getModel())
+                    .content(response.getContent())
+                    .promptTokens(response.getPromptTokens())
+                    .completionTokens(response.getCompletionTokens())
+                    .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                    .build());
+        } catch (Exception e) {
+            log.warn("LLM 캐시(L2) 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 캐시 키 = SHA-256(모델 | temperature | JSON 모드 | 정규화된 system | 정규화된 user)
+     */
+    public String keyFor(LlmRequest request) {
+        String material = request.getModel()
+                + '\u0000' + request.getTemperature()
+                + '\u0000' + request.isJsonMode()
+                + '\u0000' + canonicalize(request.getSystemPrompt())
+                + '\u0000' + canonicalize(request.getUserPrompt());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 프롬프트 정규화: 유니코드 NFC + 앞뒤 공백 제거 + 연속 공백을 하나로
+     */
+    static String canonicalize(String prompt) {
+        if (prompt == null) return "";
+        String normalized = Normalizer.normalize(prompt, Normalizer.Form.NFC);
+        return normalized.strip().replaceAll("\\s+", " ");
+    }
+
+    // 1시간마다 만료된 L2 캐시 정리
+    @Scheduled(fixedDelayString = "${llm.cache.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = cacheRepository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                expiredEvictions.increment(deleted);
+                log.info("만료된 LLM 캐시 {}건 삭제", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("LLM 캐시 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    private void putL1(String key, LlmResponse response) {
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        LlmResponse cached = response.isCached() ? response : response.toBuilder().cached(true).build();
+        synchronized (l1) {
+            l1.put(key, new CachedResponse(cached, expiresAt));
+        }
+    }
+
+    private LlmResponse toResponse(LlmCacheEntry entry) {
+        return LlmResponse.builder()
+                .content(entry.getContent())
+                .model(entry.getModel())
+                .promptTokens(entry.getPromptTokens())
+                .completionTokens(entry.getCompletionTokens())
+                .cached(true)
+                .build();
+    }
+
+    private record CachedResponse(LlmResponse response, long expiresAtMillis) {
+    }
+}
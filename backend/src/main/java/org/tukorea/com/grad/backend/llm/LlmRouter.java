@@ -0,0 +1,254 @@
+package org.tukorea.com.grad.backend.llm;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.resilience.RequestDeadline;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * 호출 위치별 모델 선택 + 지연 시간 기반 헤징(hedging) 정책
+ * - 기본 모델(primary)로 먼저 요청하고, 같은 호출 위치 + 모델의 최근 p95 응답 시간 안에 답이 없으면
+ *   더 빠른 대체 모델(fallback)로 같은 요청을 한 번 더 보내 먼저 도착한 답을 사용합니다.
+ * - 기본 모델이 바로 실패하면 기다리지 않고 대체 모델로 넘어갑니다.
+ * - 진 쪽 요청은 취소(스레드 인터럽트 -> HTTP 요청 취소)합니다. 취소된 요청은 서킷 브레이커 실패로 세지 않습니다. (OutboundGuard)
+ * - 응답 시간은 호출 위치별로 따로 모읍니다. (같은 gpt-4o 라도 로드맵 분석과 튜터 답변은 길이가 전혀 다름)
+ *
+ * 설정 (llm.sites.{호출위치}.*)
+ * - primary-model     : 기본 모델 (없으면 서비스가 지정한 모델)
+ * - fallback-model    : 헤징/실패 대체 모델 (없으면 헤징하지 않음)
+ * - latency-budget-ms : 헤징 대기 시간의 상한 (p95 가 이보다 길거나 샘플이 부족하면 이 값 사용)
+ * - hedge-min-delay-ms: 헤징 대기 시간의 하한
+ *
+ * 메트릭: llm.route.decisions{callSite, decision}, llm.route.wins{callSite, model, role}
+ *        llm.prompt.cache.tokens{template, kind=cached|total}, llm.prompt.cache.ratio{template}
+ */
+@Slf4j
+@Component
+public class LlmRouter {
+
+    private final LlmGateway llmGateway;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final int minSamples;
+    private final int windowSize;
+
+    // "호출위치|모델" -> 최근 응답 시간
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final ExecutorService hedgeExecutor;
+
+    public LlmRouter(LlmGateway llmGateway,
+                     Environment environment,
+                     MeterRegistry meterRegistry,
+                     @Value("${llm.routing.min-samples:20}") int minSamples,
+                     @Value("${llm.routing.latency-window:200}") int windowSize) {
+        this.llmGateway = llmGateway;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.minSamples = minSamples;
+        this.windowSize = windowSize;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hedgeExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "llm-route-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * 1. 일반 호출 (정책에 따라 헤징 / 대체 모델 사용)
+     */
+    public LlmResponse complete(LlmRequest request) {
+        LlmRequest primary = withModel(request, primaryModel(request));
+        String fallbackModel = fallbackModel(request);
+
+        if (fallbackModel == null || fallbackModel.equals(primary.getModel())) {
+            decision(request, "single");
+            LlmResponse response = llmGateway.complete(primary);
+            recordLatency(primary, response);
+            recordPromptCache(primary, response);
+            win(request, response, "primary");
+            return response;
+        }
+
+        long remainingBudget = RequestDeadline.remainingMillis();
+        CompletableFuture<LlmResponse> primaryResult = new CompletableFuture<>();
+        Future<?> primaryTask = launch(primary, primaryResult, remainingBudget);
+        Future<?> fallbackTask = null;
+
+        try {
+            long hedgeDelay = RequestDeadline.cap(hedgeDelayMillis(request, primary.getModel()));
+            CompletableFuture<LlmResponse> fallbackResult = new CompletableFuture<>();
+            CompletableFuture<LlmResponse> winner;
+            try {
+                LlmResponse response = primaryResult.get(hedgeDelay, TimeUnit.MILLISECONDS);
+                decision(request, "primary");
+                win(request, response, "primary");
+                return response;
+            } catch (TimeoutException e) {
+                decision(request, "hedged");
+                log.info("LLM 헤징 - callSite: {}, {} 가 {}ms 안에 응답하지 않아 {} 로 추가 요청",
+                        request.getCallSite(), primary.getModel(), hedgeDelay, fallbackModel);
+                fallbackTask = launch(withModel(request, fallbackModel), fallbackResult, RequestDeadline.remainingMillis());
+                winner = firstSuccess(primaryResult, fallbackResult);
+            } catch (ExecutionException e) {
+                decision(request, "fallback-on-error");
+                log.warn("LLM 기본 모델 실패 - callSite: {}, {} -> {} 로 대체: {}",
+                        request.getCallSite(), primary.getModel(), fallbackModel, e.getCause().getMessage());
+                fallbackTask = launch(withModel(request, fallbackModel), fallbackResult, RequestDeadline.remainingMillis());
+                winner = fallbackResult;
+            }
+
+            LlmResponse response = winner.get(RequestDeadline.cap(Long.MAX_VALUE), TimeUnit.MILLISECONDS);
+            win(request, response, normalize(response.getModel()).equals(primary.getModel()) ? "primary" : "hedge");
+            return response;
+        } catch (TimeoutException e) {
+            throw new LlmException("LLM 응답 시간 초과 (callSite=" + request.getCallSite() + ")", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmException("LLM 호출이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof LlmException llmException) throw llmException;
+            throw new LlmException("LLM 호출 실패 (callSite=" + request.getCallSite() + ")", cause);
+        } finally {
+            // 이미 끝난 쪽은 영향 없음, 진 쪽 요청만 중단됩니다.
+            primaryTask.cancel(true);
+            if (fallbackTask != null) fallbackTask.cancel(true);
+        }
+    }
+
+    /**
+     * 2. 스트리밍 호출 (토큰이 이미 사용자에게 전달되므로 헤징하지 않고 기본 모델만 적용)
+     */
+    public CompletableFuture<String> streamAsync(LlmRequest request, Consumer<String> onDelta, BooleanSupplier cancelled) {
+        return llmGateway.streamAsync(withModel(request, primaryModel(request)), onDelta, cancelled);
+    }
+
+    private Future<?> launch(LlmRequest request, CompletableFuture<LlmResponse> result, long deadlineMillis) {
+        return hedgeExecutor.submit(() -> {
+            // 요청 스레드의 마감 시간을 작업 스레드에도 이어서 적용
+            if (deadlineMillis != Long.MAX_VALUE) RequestDeadline.start(deadlineMillis);
+            try {
+                LlmResponse response = llmGateway.complete(request);
+                recordLatency(request, response);
+                recordPromptCache(request, response);
+                result.complete(response);
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                RequestDeadline.clear();
+            }
+        });
+    }
+
+    // 둘 중 먼저 "성공"한 결과 (둘 다 실패하면 마지막 실패)
+    private static CompletableFuture<LlmResponse> firstSuccess(CompletableFuture<LlmResponse> a,
+                                                               CompletableFuture<LlmResponse> b) {
+        CompletableFuture<LlmResponse> first = new CompletableFuture<>();
+        a.thenAccept(first::complete);
+        b.thenAccept(first::complete);
+        CompletableFuture.allOf(a, b).whenComplete((ignored, error) -> {
+            if (error != null) first.completeExceptionally(error instanceof CompletionException
+                    ? error.getCause() : error);
+        });
+        return first;
+    }
+
+    private long hedgeDelayMillis(LlmRequest request, String model) {
+        long budget = siteProperty(request, "latency-budget-ms", Long.class, 20000L);
+        long minDelay = siteProperty(request, "hedge-min-delay-ms", Long.class, 1000L);
+
+        LatencyTracker tracker = latencies.get(latencyKey(request, model));
+        if (tracker == null || tracker.size() < minSamples) return budget;
+        return Math.max(minDelay, Math.min(budget, tracker.percentile(0.95)));
+    }
+
+    private void recordLatency(LlmRequest request, LlmResponse response) {
+        if (response.isCached()) return;
+        latencies.computeIfAbsent(latencyKey(request, response.getModel()), key -> new LatencyTracker(windowSize))
+                .record(response.getLatencyMillis());
+    }
+
+    private static String latencyKey(LlmRequest request, String model) {
+        return siteTag(request) + "|" + normalize(model);
+    }
+
+    // 템플릿별 OpenAI 프롬프트 앞부분 캐시 적중 비율 (cached_tokens / prompt_tokens)
+    private void recordPromptCache(LlmRequest request, LlmResponse response) {
+        if (response.isCached() || request.getPromptTemplate() == null || response.getPromptTokens() <= 0) return;
+        String template = request.getPromptTemplate();
+        meterRegistry.counter("llm.prompt.cache.tokens", "template", template, "kind", "cached")
+                .increment(response.getCachedPromptTokens());
+        meterRegistry.counter("llm.prompt.cache.tokens", "template", template, "kind", "total")
+                .increment(response.getPromptTokens());
+        meterRegistry.summary("llm.prompt.cache.ratio", "template", template)
+                .record((double) response.getCachedPromptTokens() / response.getPromptTokens());
+    }
+
+    /**
+     * 호출 위치에서 실제로 쓰는 기본 모델 (토큰 수 계산처럼 요청 전에 모델이 필요할 때)
+     */
+    public String modelFor(LlmCallSite callSite, String defaultModel) {
+        return environment.getProperty("llm.sites." + callSite.getPropertyName() + ".primary-model", String.class, defaultModel);
+    }
+
+    private String primaryModel(LlmRequest request) {
+        return siteProperty(request, "primary-model", String.class, request.getModel());
+    }
+
+    private String fallbackModel(LlmRequest request) {
+        return siteProperty(request, "fallback-model", String.class, null);
+    }
+
+    private <T> T siteProperty(LlmRequest request, String key, Class<T> type, T defaultValue) {
+        if (request.getCallSite() == null) return defaultValue;
+        String name = "llm.sites." + request.getCallSite().getPropertyName() + "." + key;
+        return environment.getProperty(name, type, defaultValue);
+    }
+
+    private static LlmRequest withModel(LlmRequest request, String model) {
+        return model.equals(request.getModel()) ? request : request.toBuilder().model(model).build();
+    }
+
+    // 응답의 model 은 "gpt-4o-2024-08-06" 처럼 날짜가 붙어 오므로 설정 이름과 맞추기 위해 잘라냄
+    private static String normalize(String model) {
+        return model == null ? "unknown" : model.replaceAll("-\\d{4}-\\d{2}-\\d{2}$", "");
+    }
+
+    private void decision(LlmRequest request, String decision) {
+        meterRegistry.counter("llm.route.decisions",
+                "callSite", siteTag(request), "decision", decision).increment();
+    }
+
+    private void win(LlmRequest request, LlmResponse response, String role) {
+        meterRegistry.counter("llm.route.wins",
+                "callSite", siteTag(request), "model", normalize(response.getModel()), "role", role).increment();
+    }
+
+    private static String siteTag(LlmRequest request) {
+        return request.getCallSite() == null ? "none" : request.getCallSite().getPropertyName();
+    }
+}
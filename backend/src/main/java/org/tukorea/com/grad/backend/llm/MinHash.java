@@ -0,0 +1,120 @@
+package org.tukorea.com.grad.backend.llm;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * MinHash 지문 (두 문장의 글자 n-gram 집합 Jaccard 유사도를 빠르게 추정)
+ * - 정규화(소문자, NFKC, 문장부호/공백 제거) 후 글자 n-gram 을 특징으로 사용합니다.
+ *   한글은 조사/어미만 달라도 대부분의 n-gram 이 겹치므로 비슷한 질문이 높은 유사도를 갖습니다.
+ * - 같은 MinHash 인스턴스(해시 개수/시드)로 만든 서명끼리만 비교할 수 있습니다.
+ */
+public final class MinHash {
+
+    private final int numHashes;
+    private final long[] seeds;
+
+    public MinHash(int numHashes) {
+        this.numHashes = numHashes;
+        this.seeds = new long[numHashes];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < numHashes; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            seeds[i] = seed;
+        }
+    }
+
+    public int[] signature(String text, int shingleSize) {
+        int[] signature = new int[numHashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (long shingle : shingles(normalize(text), shingleSize)) {
+            for (int i = 0; i < numHashes; i++) {
+                int hash = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (hash < signature[i]) signature[i] = hash;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * 추정 Jaccard 유사도 (0.0 ~ 1.0)
+     */
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return (double) same / a.length;
+    }
+
+    /**
+     * 정확한 Jaccard 유사도 (오탐 검증용 샘플링에서만 사용)
+     */
+    public static double exactJaccard(String a, String b, int shingleSize) {
+        Set<Long> left = shingles(normalize(a), shingleSize);
+        Set<Long> right = shingles(normalize(b), shingleSize);
+        if (left.isEmpty() && right.isEmpty()) return 1.0;
+        Set<Long> union = new HashSet<>(left);
+        union.addAll(right);
+        left.retainAll(right);
+        return (double) left.size() / union.size();
+    }
+
+    /**
+     * 한쪽 문장에만 있는 n-gram 개수 (대칭 차집합 크기)
+     * - "차이점" / "공통점" 처럼 몇 글자만 바뀌어 뜻이 뒤집힌 문장은 Jaccard 가 높아도 이 값이 큼
+     */
+    static int differingShingles(Set<Long> a, Set<Long> b) {
+        int differing = 0;
+        for (Long shingle : a) {
+            if (!b.contains(shingle)) differing++;
+        }
+        for (Long shingle : b) {
+            if (!a.contains(shingle)) differing++;
+        }
+        return differing;
+    }
+
+    static Set<Long> shingleSet(String text, int shingleSize) {
+        return shingles(normalize(text), shingleSize);
+    }
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase()
+                .replaceAll("[^\\p{L}\\p{N}]+", "");
+    }
+
+    private static Set<Long> shingles(String normalized, int size) {
+        Set<Long> shingles = new HashSet<>();
+        if (normalized.isEmpty()) return shingles;
+        if (normalized.length() < size) {
+            shingles.add(hash64(normalized));
+            return shingles;
+        }
+        for (int i = 0; i + size <= normalized.length(); i++) {
+            shingles.add(hash64(normalized.substring(i, i + size)));
+        }
+        return shingles;
+    }
+
+    // FNV-1a 64
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // splitmix64 마무리 단계
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
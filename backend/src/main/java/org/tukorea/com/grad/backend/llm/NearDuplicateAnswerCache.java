@@ -0,0 +1,221 @@
+package org.tukorea.com.grad.backend.llm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 노트 튜터용 "거의 같은 질문" 답변 캐시 (메모리, MinHash + LSH)
+ * - (질문, 노트 내용) 쌍을 MinHash 서명으로 만들고, 질문 서명을 밴드로 나눠 후보를 빠르게 찾습니다.
+ * - 후보 중 질문 유사도 >= question-threshold 이고 노트 유사도 >= context-threshold 인 항목의 답변을 재사용합니다.
+ * - 질문은 한쪽에만 있는 글자 n-gram 이 max-differing-shingles 개 이하일 때만 같은 질문으로 봅니다.
+ *   (조사/문장부호 차이는 허용하고, "차이점" / "공통점" 처럼 단어가 바뀐 질문은 유사도가 높아도 재사용하지 않음)
+ * - 최대 max-entries 개, 오래 사용하지 않은 항목부터 제거 (LRU)
+ * - 적중 중 sample-rate 비율은 정확한 Jaccard 로 다시 비교해 오탐 의심(suspect-jaccard 미만)을 집계합니다.
+ *
+ * 메트릭: ai.tutor.similar-cache.requests{result=hit|miss}, ai.tutor.similar-cache.sampled{verdict=ok|suspect}
+ */
+@Slf4j
+@Component
+public class NearDuplicateAnswerCache {
+
+    private static final int NUM_HASHES = 128;
+    private static final int ROWS_PER_BAND = 4;
+    private static final int QUESTION_SHINGLE = 2;
+    private static final int CONTEXT_SHINGLE = 3;
+
+    private final MinHash minHash = new MinHash(NUM_HASHES);
+
+    private final boolean enabled;
+    private final double questionThreshold;
+    private final int maxDifferingShingles;
+    private final double contextThreshold;
+    private final int maxEntries;
+    private final double sampleRate;
+    private final double suspectJaccard;
+
+    private final Map<Long, Entry> entries;                 // LRU (accessOrder)
+    private final Map<Long, Set<Long>> buckets = new HashMap<>(); // 밴드 키 -> 항목 id
+    private long nextId;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sampledOk;
+    private final Counter sampledSuspect;
+
+    public NearDuplicateAnswerCache(MeterRegistry meterRegistry,
+                                    @Value("${ai.tutor.similar-cache.enabled:true}") boolean enabled,
+                                    @Value("${ai.tutor.similar-cache.question-threshold:0.8}") double questionThreshold,
+                                    @Value("${ai.tutor.similar-cache.max-differing-shingles:2}") int maxDifferingShingles,
+                                    @Value("${ai.tutor.similar-cache.context-threshold:0.8}") double contextThreshold,
+                                    @Value("${ai.tutor.similar-cache.max-entries:2000}") int maxEntries,
+                                    @Value("${ai.tutor.similar-cache.sample-rate:0.05}") double sampleRate,
+                                    @Value("${ai.tutor.similar-cache.suspect-jaccard:0.8}") double suspectJaccard) {
+        this.enabled = enabled;
+        this.questionThreshold = questionThreshold;
+        this.maxDifferingShingles = maxDifferingShingles;
+        this.contextThreshold = contextThreshold;
+        this.maxEntries = maxEntries;
+        this.sampleRate = sampleRate;
+        this.suspectJaccard = suspectJaccard;
+
+        this.hits = meterRegistry.counter("ai.tutor.similar-cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("ai.tutor.similar-cache.requests", "result", "miss");
+        this.sampledOk = meterRegistry.counter("ai.tutor.similar-cache.sampled", "verdict", "ok");
+        this.sampledSuspect = meterRegistry.counter("ai.tutor.similar-cache.sampled", "verdict", "suspect");
+
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > NearDuplicateAnswerCache.this.maxEntries) {
+                    unindex(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 질문/노트 지문 계산 (조회와 저장에 같은 지문을 쓰도록 한 번만 계산)
+     */
+    public Fingerprint fingerprint(String question, String context) {
+        return new Fingerprint(question, context, MinHash.shingleSet(question, QUESTION_SHINGLE),
+                minHash.signature(question, QUESTION_SHINGLE), minHash.signature(context, CONTEXT_SHINGLE));
+    }
+
+    public Optional<String> get(Fingerprint fingerprint) {
+        if (!enabled) return Optional.empty();
+
+        Entry best = null;
+        double bestScore = -1;
+        synchronized (this) {
+            Set<Long> candidates = new HashSet<>();
+            for (long key : bandKeys(fingerprint.questionSignature)) {
+                Set<Long> bucket = buckets.get(key);
+                if (bucket != null) candidates.addAll(bucket);
+            }
+
+            for (Long id : candidates) {
+                Entry entry = entries.get(id); // LRU 순서 갱신은 최종 선택된 항목만
+                if (entry == null) continue;
+                double questionSimilarity = MinHash.similarity(fingerprint.questionSignature, entry.fingerprint.questionSignature);
+                if (questionSimilarity < questionThreshold) continue;
+                double contextSimilarity = MinHash.similarity(fingerprint.contextSignature, entry.fingerprint.contextSignature);
+                if (contextSimilarity < contextThreshold) continue;
+                if (MinHash.differingShingles(fingerprint.questionShingles, entry.fingerprint.questionShingles)
+                        > maxDifferingShingles) continue;
+                if (questionSimilarity + contextSimilarity > bestScore) {
+                    bestScore = questionSimilarity + contextSimilarity;
+                    best = entry;
+                }
+            }
+        }
+
+        if (best == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sample(fingerprint, best);
+        }
+        return Optional.of(best.answer);
+    }
+
+    public void put(Fingerprint fingerprint, String answer) {
+        if (!enabled || answer == null || answer.isBlank()) return;
+        synchronized (this) {
+            Entry entry = new Entry(nextId++, fingerprint, answer, bandKeys(fingerprint.questionSignature));
+            entries.put(entry.id, entry);
+            for (long key : entry.bandKeys) {
+                buckets.computeIfAbsent(key, k -> new HashSet<>()).add(entry.id);
+            }
+        }
+    }
+
+    // 적중 샘플을 정확한 Jaccard 로 다시 비교 (임계값 조정용)
+    private void sample(Fingerprint fingerprint, Entry entry) {
+        double question = MinHash.exactJaccard(fingerprint.question, entry.fingerprint.question, QUESTION_SHINGLE);
+        if (question < suspectJaccard) {
+            sampledSuspect.increment();
+            log.info("유사 질문 캐시 오탐 의심 (Jaccard {}) - 요청: '{}' / 저장: '{}'",
+                    String.format("%.2f", question), abbreviate(fingerprint.question), abbreviate(entry.fingerprint.question));
+        } else {
+            sampledOk.increment();
+        }
+    }
+
+    // LSH 버킷에 남아 있는 항목 수 (LRU 제거 시 인덱스도 함께 지워지는지 점검용)
+    synchronized int indexedEntries() {
+        Set<Long> ids = new HashSet<>();
+        buckets.values().forEach(ids::addAll);
+        return ids.size();
+    }
+
+    private void unindex(Entry entry) {
+        for (long key : entry.bandKeys) {
+            Set<Long> bucket = buckets.get(key);
+            if (bucket == null) continue;
+            bucket.remove(entry.id);
+            if (bucket.isEmpty()) buckets.remove(key);
+        }
+    }
+
+    static long[] bandKeys(int[] signature) {
+        int bands = signature.length / ROWS_PER_BAND;
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            int[] rows = Arrays.copyOfRange(signature, band * ROWS_PER_BAND, (band + 1) * ROWS_PER_BAND);
+            keys[band] = ((long) band << 32) ^ (Arrays.hashCode(rows) & 0xFFFFFFFFL);
+        }
+        return keys;
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() > 80 ? text.substring(0, 80) + "..." : text;
+    }
+
+    public static final class Fingerprint {
+        private final String question;
+        private final String context;
+        private final Set<Long> questionShingles;
+        private final int[] questionSignature;
+        private final int[] contextSignature;
+
+        private Fingerprint(String question, String context, Set<Long> questionShingles,
+                            int[] questionSignature, int[] contextSignature) {
+            this.question = question;
+            this.context = context;
+            this.questionShingles = questionShingles;
+            this.questionSignature = questionSignature;
+            this.contextSignature = contextSignature;
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final Fingerprint fingerprint;
+        private final String answer;
+        private final long[] bandKeys;
+
+        private Entry(long id, Fingerprint fingerprint, String answer, long[] bandKeys) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+            this.answer = answer;
+            this.bandKeys = bandKeys;
+        }
+    }
+}
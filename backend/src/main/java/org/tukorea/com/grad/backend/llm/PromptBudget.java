@@ -0,0 +1,133 @@
+package org.tukorea.com.grad.backend.llm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 프롬프트 토큰 예산 분배 (TokenCounter.budget 으로 생성)
+ * - fixed(...) : 항상 들어가는 부분 (system 프롬프트, 고정 템플릿) -> 예산에서 먼저 차감
+ * - section(...) : 가변 부분. priority 가 작을수록 먼저 자리를 받습니다.
+ *   자리가 모자라면 truncatable 섹션은 앞부분만 남기고, 아니면 통째로 제외합니다.
+ * - 같은 입력이면 항상 같은 결과가 나오므로 응답 캐시 키도 안정적입니다.
+ */
+@Slf4j
+public class PromptBudget {
+
+    private static final String TRUNCATED_MARKER = "\n...(이하 생략)";
+    private static final int MIN_TRUNCATED_TOKENS = 32;
+
+    private final TokenCounter tokenCounter;
+    private final LlmCallSite callSite;
+    private final String model;
+    private final int maxTokens;
+
+    private int fixedTokens;
+    private final List<Section> sections = new ArrayList<>();
+
+    PromptBudget(TokenCounter tokenCounter, LlmCallSite callSite, String model, int maxTokens) {
+        this.tokenCounter = tokenCounter;
+        this.callSite = callSite;
+        this.model = model;
+        this.maxTokens = maxTokens;
+    }
+
+    public PromptBudget fixed(String text) {
+        fixedTokens += tokenCounter.count(model, text);
+        return this;
+    }
+
+    public PromptBudget section(String name, String text, int priority, boolean truncatable) {
+        sections.add(new Section(name, text == null ? "" : text, priority, truncatable, sections.size()));
+        return this;
+    }
+
+    public Result fit() {
+        List<Section> ordered = new ArrayList<>(sections);
+        ordered.sort(Comparator.comparingInt((Section s) -> s.priority).thenComparingInt(s -> s.order));
+
+        Map<String, String> fitted = new HashMap<>();
+        int remaining = maxTokens - fixedTokens;
+        int preTokens = fixedTokens;
+        int postTokens = fixedTokens;
+
+        for (Section section : ordered) {
+            int tokens = tokenCounter.count(model, section.text);
+            preTokens += tokens;
+
+            if (tokens <= remaining) {
+                fitted.put(section.name, section.text);
+                remaining -= tokens;
+                postTokens += tokens;
+            } else if (section.truncatable && remaining >= MIN_TRUNCATED_TOKENS) {
+                int markerTokens = tokenCounter.count(model, TRUNCATED_MARKER);
+                String truncated = tokenCounter.truncate(model, section.text, remaining - markerTokens) + TRUNCATED_MARKER;
+                int used = tokenCounter.count(model, truncated);
+                fitted.put(section.name, truncated);
+                remaining -= used;
+                postTokens += used;
+            }
+            // 그 외: 예산 초과로 제외 (get 시 null)
+        }
+
+        tokenCounter.record(callSite, preTokens, postTokens);
+        if (postTokens < preTokens) {
+            log.info("프롬프트 예산 적용 - callSite: {}, {} -> {} tokens (한도 {})",
+                    callSite, preTokens, postTokens, maxTokens);
+        }
+        return new Result(fitted, preTokens, postTokens);
+    }
+
+    public static class Result {
+        private final Map<String, String> sections;
+        private final int preTokens;
+        private final int postTokens;
+
+        Result(Map<String, String> sections, int preTokens, int postTokens) {
+            this.sections = sections;
+            this.preTokens = preTokens;
+            this.postTokens = postTokens;
+        }
+
+        // 예산 때문에 제외된 섹션이면 null
+        public String get(String name) {
+            return sections.get(name);
+        }
+
+        public String getOrEmpty(String name) {
+            return sections.getOrDefault(name, "");
+        }
+
+        public int getPreTokens() {
+            return preTokens;
+        }
+
+        public int getPostTokens() {
+            return postTokens;
+        }
+
+        public boolean isTruncated() {
+            return postTokens < preTokens;
+        }
+    }
+
+    private static class Section {
+        private final String name;
+        private final String text;
+        private final int priority;
+        private final boolean truncatable;
+        private final int order;
+
+        Section(String name, String text, int priority, boolean truncatable, int order) {
+            this.name = name;
+            this.text = text;
+            this.priority = priority;
+            this.truncatable = truncatable;
+            this.order = order;
+        }
+    }
+}
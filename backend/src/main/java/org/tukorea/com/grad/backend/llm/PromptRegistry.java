@@ -0,0 +1,95 @@
+package org.tukorea.com.grad.backend.llm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 버전별 프롬프트 템플릿 저장소
+ * - 시작 시 classpath:prompts/{호출위치}.v{버전}.txt 를 모두 읽어 파싱/검증합니다. (오류가 있으면 시작 실패)
+ * - 호출 위치별로 가장 높은 버전을 사용하고, llm.sites.{호출위치}.prompt-version 으로 고정할 수 있습니다.
+ */
+@Slf4j
+@Component
+public class PromptRegistry {
+
+    private static final Pattern FILE_NAME = Pattern.compile("([a-z0-9-]+)\\.v(\\d+)\\.txt");
+
+    private final Map<LlmCallSite, PromptTemplate> active = new EnumMap<>(LlmCallSite.class);
+
+    public PromptRegistry(Environment environment) throws IOException {
+        Map<String, TreeMap<Integer, PromptTemplate>> loaded = new HashMap<>();
+
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath*:prompts/*.txt");
+        for (Resource resource : resources) {
+            Matcher matcher = FILE_NAME.matcher(String.valueOf(resource.getFilename()));
+            if (!matcher.matches()) {
+                throw new IllegalStateException("프롬프트 파일 이름은 {이름}.v{버전}.txt 형식이어야 합니다: " + resource.getFilename());
+            }
+            String name = matcher.group(1);
+            int version = Integer.parseInt(matcher.group(2));
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            loaded.computeIfAbsent(name, key -> new TreeMap<>()).put(version, PromptTemplate.parse(name, version, source));
+        }
+
+        for (LlmCallSite callSite : LlmCallSite.values()) {
+            TreeMap<Integer, PromptTemplate> versions = loaded.get(callSite.getPropertyName());
+            if (versions == null) continue; // 템플릿을 쓰지 않는 호출 위치
+
+            Integer pinned = environment.getProperty(
+                    "llm.sites." + callSite.getPropertyName() + ".prompt-version", Integer.class);
+            PromptTemplate template = pinned != null ? versions.get(pinned) : versions.lastEntry().getValue();
+            if (template == null) {
+                throw new IllegalStateException("프롬프트 " + callSite.getPropertyName() + " v" + pinned + " 가 없습니다.");
+            }
+            active.put(callSite, template);
+            log.info("프롬프트 템플릿 로드 - {} (변수: {})", template.getId(), template.getVariableNames());
+        }
+    }
+
+    public PromptTemplate get(LlmCallSite callSite) {
+        PromptTemplate template = active.get(callSite);
+        if (template == null) {
+            throw new IllegalArgumentException("등록된 프롬프트 템플릿이 없습니다: " + callSite);
+        }
+        return template;
+    }
+
+    /**
+     * 템플릿 변수 맵 ("이름", 값, "이름", 값, ...) - 값이 null 이어도 됩니다. (빈 문자열로 렌더링)
+     */
+    public static Map<String, Object> values(Object... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("이름과 값은 짝으로 전달해야 합니다.");
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            values.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return values;
+    }
+
+    /**
+     * 템플릿으로 요청 생성 (system = 고정 부분, user = 사용자 값)
+     * - 모델/temperature 등은 호출하는 쪽에서 이어서 지정합니다.
+     */
+    public LlmRequest.LlmRequestBuilder request(LlmCallSite callSite, Map<String, ?> values) {
+        PromptTemplate template = get(callSite);
+        return LlmRequest.builder()
+                .callSite(callSite)
+                .promptTemplate(template.getId())
+                .systemPrompt(template.getSystemPrompt())
+                .userPrompt(template.renderUser(values));
+    }
+}
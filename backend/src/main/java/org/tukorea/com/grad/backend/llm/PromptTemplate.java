@@ -0,0 +1,153 @@
+package org.tukorea.com.grad.backend.llm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 시작 시 한 번 파싱해 두는 프롬프트 템플릿 (resources/prompts/{이름}.v{버전}.txt)
+ *
+ * 파일 형식
+ * - "#!" 로 시작하는 줄은 주석
+ * - "### system" 아래: 사용자와 무관한 고정 지시문/응답 스키마 (변수 사용 불가)
+ * - "### user" 아래: 사용자별 값 {{변수}} 가 들어가는 부분
+ *
+ * 고정 부분을 system 메시지(맨 앞)에 두고 사용자 값은 맨 뒤에 두어야
+ * OpenAI 의 프롬프트 앞부분(prefix) 캐시가 사용자와 관계없이 적중합니다.
+ */
+public class PromptTemplate {
+
+    // 렌더링 버퍼 재사용 (스레드별), 너무 커진 버퍼는 버림
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final String name;
+    private final int version;
+    private final String systemPrompt;
+    private final List<String> literals;   // literals.size() == variables.size() + 1
+    private final List<String> variables;
+    private final Set<String> variableNames;
+
+    private PromptTemplate(String name, int version, String systemPrompt, List<String> literals, List<String> variables) {
+        this.name = name;
+        this.version = version;
+        this.systemPrompt = systemPrompt;
+        this.literals = literals;
+        this.variables = variables;
+        this.variableNames = Collections.unmodifiableSet(new LinkedHashSet<>(variables));
+    }
+
+    /**
+     * 템플릿 파싱 + 검증 (잘못된 템플릿이면 IllegalStateException -> 애플리케이션 시작 실패)
+     */
+    public static PromptTemplate parse(String name, int version, String source) {
+        StringBuilder system = null;
+        StringBuilder user = null;
+        StringBuilder current = null;
+
+        for (String line : source.replace("\r\n", "\n").split("\n", -1)) {
+            if (line.startsWith("#!")) continue;
+            if (line.trim().equals("### system")) {
+                if (system != null) throw invalid(name, version, "### system 섹션이 두 번 나옵니다.");
+                current = system = new StringBuilder();
+                continue;
+            }
+            if (line.trim().equals("### user")) {
+                if (user != null) throw invalid(name, version, "### user 섹션이 두 번 나옵니다.");
+                if (system == null) throw invalid(name, version, "### system 섹션이 ### user 보다 먼저 와야 합니다.");
+                current = user = new StringBuilder();
+                continue;
+            }
+            if (current == null) {
+                if (!line.isBlank()) throw invalid(name, version, "섹션 헤더(### system) 앞에 내용이 있습니다.");
+                continue;
+            }
+            current.append(line).append('\n');
+        }
+
+        if (system == null || user == null) throw invalid(name, version, "### system 과 ### user 섹션이 모두 필요합니다.");
+
+        String systemText = system.toString().strip();
+        if (systemText.contains("{{")) {
+            throw invalid(name, version, "system 섹션에는 변수를 쓸 수 없습니다. (프롬프트 캐시 적중을 위해 고정 내용만)");
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        String userText = user.toString().strip();
+        int position = 0;
+        while (true) {
+            int open = userText.indexOf("{{", position);
+            if (open < 0) {
+                if (userText.indexOf("}}", position) >= 0) throw invalid(name, version, "짝이 맞지 않는 }} 가 있습니다.");
+                literals.add(userText.substring(position));
+                break;
+            }
+            int close = userText.indexOf("}}", open + 2);
+            if (close < 0) throw invalid(name, version, "닫히지 않은 {{ 가 있습니다.");
+            String variable = userText.substring(open + 2, close).trim();
+            if (!variable.matches("[A-Za-z][A-Za-z0-9]*")) {
+                throw invalid(name, version, "잘못된 변수 이름: " + variable);
+            }
+            literals.add(userText.substring(position, open));
+            variables.add(variable);
+            position = close + 2;
+        }
+
+        return new PromptTemplate(name, version, systemText, List.copyOf(literals), List.copyOf(variables));
+    }
+
+    /**
+     * user 메시지 렌더링 (템플릿의 모든 변수가 values 에 있어야 함, null 값은 빈 문자열)
+     */
+    public String renderUser(Map<String, ?> values) {
+        for (String variable : variableNames) {
+            if (!values.containsKey(variable)) {
+                throw new IllegalArgumentException("프롬프트 '" + getId() + "' 변수 누락: " + variable);
+            }
+        }
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        for (int i = 0; i < variables.size(); i++) {
+            buffer.append(literals.get(i));
+            Object value = values.get(variables.get(i));
+            buffer.append(value == null ? "" : value);
+        }
+        buffer.append(literals.get(literals.size() - 1));
+
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    // 메트릭 태그용 (예: major-analyze:v1)
+    public String getId() {
+        return name + ":v" + version;
+    }
+
+    public String getSystemPrompt() {
+        return systemPrompt;
+    }
+
+    public Set<String> getVariableNames() {
+        return variableNames;
+    }
+
+    private static IllegalStateException invalid(String name, int version, String reason) {
+        return new IllegalStateException("프롬프트 템플릿 오류 (" + name + ".v" + version + "): " + reason);
+    }
+}
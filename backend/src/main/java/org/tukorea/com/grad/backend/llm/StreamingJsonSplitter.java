@@ -0,0 +1,123 @@
+package org.tukorea.com.grad.backend.llm;
+
+/**
+ * 스트리밍으로 조금씩 도착하는 JSON 객체를 문자 단위로 따라가며,
+ * 최상위 필드 값이 "완성되는 즉시" 잘라서 전달하는 증분 파서
+ * - 최상위 필드가 배열이면: 배열 원소(객체/배열) 하나가 닫힐 때마다 onArrayElement
+ * - 최상위 필드가 객체이면: 그 객체가 닫히는 순간 onValue
+ * - 문자열 내부의 괄호/따옴표 이스케이프는 무시하고, 최상위 스칼라 값은 전달하지 않습니다.
+ *
+ * 예) {"semesterPlans":[{...},{...}],"analysis":{...}}
+ *     -> onArrayElement("semesterPlans", "{...}") x2, onValue("analysis", "{...}")
+ */
+public class StreamingJsonSplitter {
+
+    public interface Listener {
+        void onArrayElement(String field, String elementJson);
+
+        void onValue(String field, String valueJson);
+    }
+
+    private final Listener listener;
+    private final StringBuilder buffer = new StringBuilder();
+    private final StringBuilder key = new StringBuilder();
+
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean expectKey;
+    private boolean readingKey;
+
+    private String field;          // 현재 값을 읽고 있는 최상위 필드명
+    private boolean fieldIsArray;  // 현재 필드 값이 배열인지
+    private int valueStart = -1;   // 잘라낼 값(원소)의 시작 위치
+
+    public StreamingJsonSplitter(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 새로 도착한 조각을 이어 붙이며 처리합니다.
+     */
+    public void feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            int position = buffer.length();
+            buffer.append(c);
+            process(c, position);
+        }
+    }
+
+    /**
+     * 지금까지 받은 전체 본문
+     */
+    public String getText() {
+        return buffer.toString();
+    }
+
+    private void process(char c, int position) {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                readingKey = false;
+                return;
+            }
+            if (readingKey) key.append(c);
+            return;
+        }
+
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                if (depth == 1 && expectKey) {
+                    readingKey = true;
+                    key.setLength(0);
+                }
+            }
+            case ':' -> {
+                if (depth == 1 && expectKey) {
+                    field = key.toString();
+                    expectKey = false;
+                }
+            }
+            case ',' -> {
+                if (depth == 1) {
+                    expectKey = true;
+                    field = null;
+                    fieldIsArray = false;
+                    valueStart = -1;
+                }
+            }
+            case '{', '[' -> {
+                if (depth == 1 && field != null) {
+                    if (c == '[') {
+                        fieldIsArray = true;
+                    } else {
+                        valueStart = position;
+                    }
+                } else if (depth == 2 && fieldIsArray) {
+                    valueStart = position;
+                }
+                depth++;
+                if (depth == 1) expectKey = true;
+            }
+            case '}', ']' -> {
+                depth--;
+                if (depth == 2 && fieldIsArray && valueStart >= 0) {
+                    listener.onArrayElement(field, buffer.substring(valueStart, position + 1));
+                    valueStart = -1;
+                } else if (depth == 1 && !fieldIsArray && field != null && valueStart >= 0) {
+                    listener.onValue(field, buffer.substring(valueStart, position + 1));
+                    valueStart = -1;
+                }
+            }
+            default -> {
+                // 공백, 숫자, true/false/null 등은 구조에 영향 없음
+            }
+        }
+    }
+}
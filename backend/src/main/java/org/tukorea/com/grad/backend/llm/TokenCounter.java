@@ -0,0 +1,82 @@
+package org.tukorea.com.grad.backend.llm;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프롬프트 토큰 수 계산기 (jtokkit, OpenAI 와 같은 BPE 인코딩을 JVM 안에서 사용)
+ * - gpt-4o 계열은 o200k_base, 그 외 알 수 없는 모델은 cl100k_base 로 계산합니다.
+ * - budget(...) 으로 호출 위치별 최대 프롬프트 토큰(llm.sites.{호출위치}.max-prompt-tokens)에 맞춰 자를 수 있습니다.
+ *
+ * 메트릭: llm.prompt.tokens{callSite, stage=pre|post}, llm.prompt.truncations{callSite}
+ */
+@Component
+public class TokenCounter {
+
+    private final EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+    private final Map<String, Encoding> encodings = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public TokenCounter(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public int count(String model, String text) {
+        if (text == null || text.isEmpty()) return 0;
+        return encoding(model).countTokens(text);
+    }
+
+    /**
+     * 앞에서부터 maxTokens 개까지만 남기기 (토큰 경계에서 잘려 깨진 한글 바이트는 제거)
+     */
+    public String truncate(String model, String text, int maxTokens) {
+        if (text == null || maxTokens <= 0) return "";
+        Encoding encoding = encoding(model);
+        EncodingResult result = encoding.encode(text, maxTokens);
+        if (!result.isTruncated()) return text;
+
+        String decoded = encoding.decode(result.getTokens());
+        int end = decoded.length();
+        while (end > 0 && decoded.charAt(end - 1) == '\uFFFD') end--;
+        return decoded.substring(0, end);
+    }
+
+    /**
+     * 호출 위치별 프롬프트 예산 시작 (max-prompt-tokens 가 없으면 defaultMaxTokens)
+     */
+    public PromptBudget budget(LlmCallSite callSite, String model, int defaultMaxTokens) {
+        int maxTokens = environment.getProperty(
+                "llm.sites." + callSite.getPropertyName() + ".max-prompt-tokens", Integer.class, defaultMaxTokens);
+        return new PromptBudget(this, callSite, model, maxTokens);
+    }
+
+    void record(LlmCallSite callSite, int preTokens, int postTokens) {
+        String site = callSite.getPropertyName();
+        DistributionSummary.builder("llm.prompt.tokens").tag("callSite", site).tag("stage", "pre")
+                .register(meterRegistry).record(preTokens);
+        DistributionSummary.builder("llm.prompt.tokens").tag("callSite", site).tag("stage", "post")
+                .register(meterRegistry).record(postTokens);
+        if (postTokens < preTokens) {
+            meterRegistry.counter("llm.prompt.truncations", "callSite", site).increment();
+        }
+    }
+
+    private Encoding encoding(String model) {
+        String key = model == null ? "" : model;
+        return encodings.computeIfAbsent(key, name -> registry.getEncodingForModel(name)
+                .orElseGet(() -> registry.getEncoding(name.startsWith("gpt-4o") || name.matches("o\\d.*")
+                        ? EncodingType.O200K_BASE : EncodingType.CL100K_BASE)));
+    }
+}
@@ -0,0 +1,24 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * 새 대외활동 생성 응답 (prompts/activity-recommend)
+ */
+public record ActivityList(List<Item> activities) implements LlmSchema {
+
+    public ActivityList {
+        activities = activities == null ? List.of() : activities;
+    }
+
+    @Override
+    public String problem() {
+        return activities.isEmpty() ? "activities 가 비어 있습니다." : null;
+    }
+
+    public record Item(String category, String title, String description, String dday, List<String> tags, String link) {
+        public Item {
+            tags = tags == null ? List.of() : tags;
+        }
+    }
+}
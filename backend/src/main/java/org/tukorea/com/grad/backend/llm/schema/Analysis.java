@@ -0,0 +1,37 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * 로드맵/결산 분석 결과 (피드백 탭 - 총평, 강점, Gap, 미션, 추천 리소스)
+ */
+public record Analysis(String overallReview,
+                       List<String> strengths,
+                       Gaps gaps,
+                       List<String> topMissions,
+                       List<Resource> recommendedResources) implements LlmSchema {
+
+    public Analysis {
+        strengths = strengths == null ? List.of() : strengths;
+        topMissions = topMissions == null ? List.of() : topMissions;
+        recommendedResources = recommendedResources == null ? List.of() : recommendedResources;
+    }
+
+    @Override
+    public String problem() {
+        return overallReview == null || overallReview.isBlank() ? "analysis.overallReview 가 없습니다." : null;
+    }
+
+    public record Gaps(List<String> owned, List<MissingSkill> missing, String aiFeedback) {
+        public Gaps {
+            owned = owned == null ? List.of() : owned;
+            missing = missing == null ? List.of() : missing;
+        }
+    }
+
+    public record MissingSkill(String name, String method) {
+    }
+
+    public record Resource(String type, String title, String reason) {
+    }
+}
@@ -0,0 +1,12 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+/**
+ * 학기 결산 피드백 응답 (prompts/major-feedback)
+ */
+public record FeedbackResult(Analysis analysis) implements LlmSchema {
+
+    @Override
+    public String problem() {
+        return analysis == null ? "analysis 가 없습니다." : analysis.problem();
+    }
+}
@@ -0,0 +1,12 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+/**
+ * GPT 가 JSON 으로 돌려주는 응답 형식 (LlmJson.parse 후 검증)
+ */
+public interface LlmSchema {
+
+    /**
+     * @return 형식에 문제가 없으면 null, 있으면 이유 (재시도/대체 경로 판단용)
+     */
+    String problem();
+}
@@ -0,0 +1,17 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+/**
+ * GPT 응답이 JSON 이 아니거나 (복구 후에도) 기대한 형식과 다를 때
+ */
+public class LlmSchemaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LlmSchemaException(String message) {
+        super(message);
+    }
+
+    public LlmSchemaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,22 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * 공통 로드맵 개인화 응답 (prompts/major-personalize)
+ */
+public record PersonalizeResult(List<Swap> swaps, Analysis analysis) implements LlmSchema {
+
+    public PersonalizeResult {
+        swaps = swaps == null ? List.of() : swaps;
+    }
+
+    @Override
+    public String problem() {
+        return analysis == null ? "analysis 가 없습니다." : analysis.problem();
+    }
+
+    // remove 가 비어 있으면 추가만
+    public record Swap(String grade, String remove, String add) {
+    }
+}
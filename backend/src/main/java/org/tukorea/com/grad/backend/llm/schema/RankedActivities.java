@@ -0,0 +1,21 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * 카탈로그 후보 재정렬 응답 (prompts/activity-rerank) - 맞는 후보가 없으면 비어 있을 수 있음
+ */
+public record RankedActivities(List<Item> ranked) implements LlmSchema {
+
+    public RankedActivities {
+        ranked = ranked == null ? List.of() : ranked;
+    }
+
+    @Override
+    public String problem() {
+        return null;
+    }
+
+    public record Item(Long id, String reason) {
+    }
+}
@@ -0,0 +1,22 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * 로드맵 생성 응답 (prompts/major-analyze)
+ */
+public record RoadmapResult(List<SemesterPlan> semesterPlans, Analysis analysis) implements LlmSchema {
+
+    public RoadmapResult {
+        semesterPlans = semesterPlans == null ? List.of() : semesterPlans;
+    }
+
+    @Override
+    public String problem() {
+        if (semesterPlans.isEmpty()) return "semesterPlans 가 비어 있습니다.";
+        for (SemesterPlan plan : semesterPlans) {
+            if (plan.problem() != null) return plan.problem();
+        }
+        return analysis == null ? "analysis 가 없습니다." : analysis.problem();
+    }
+}
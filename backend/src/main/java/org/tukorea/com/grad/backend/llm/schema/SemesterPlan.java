@@ -0,0 +1,25 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * 로드맵의 한 시기 (예: "2학년 여름방학")
+ */
+public record SemesterPlan(String grade, List<String> goal, List<String> courses, List<String> activities)
+        implements LlmSchema {
+
+    public SemesterPlan {
+        goal = goal == null ? List.of() : goal;
+        courses = courses == null ? List.of() : courses;
+        activities = activities == null ? List.of() : activities;
+    }
+
+    public SemesterPlan withActivities(List<String> activities) {
+        return new SemesterPlan(grade, goal, courses, activities);
+    }
+
+    @Override
+    public String problem() {
+        return grade == null || grade.isBlank() ? "grade 가 없습니다." : null;
+    }
+}
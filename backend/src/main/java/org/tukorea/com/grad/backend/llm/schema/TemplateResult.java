@@ -0,0 +1,22 @@
+package org.tukorea.com.grad.backend.llm.schema;
+
+import java.util.List;
+
+/**
+ * 코호트 공통 로드맵 응답 (prompts/roadmap-template)
+ */
+public record TemplateResult(List<SemesterPlan> semesterPlans) implements LlmSchema {
+
+    public TemplateResult {
+        semesterPlans = semesterPlans == null ? List.of() : semesterPlans;
+    }
+
+    @Override
+    public String problem() {
+        if (semesterPlans.isEmpty()) return "semesterPlans 가 비어 있습니다.";
+        for (SemesterPlan plan : semesterPlans) {
+            if (plan.problem() != null) return plan.problem();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package org.tukorea.com.grad.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.tukorea.com.grad.backend.entity.ActivityCatalog;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ActivityCatalogRepository extends JpaRepository<ActivityCatalog, Long> {
+
+    Optional<ActivityCatalog> findByTitleKey(String titleKey);
+
+    Optional<ActivityCatalog> findFirstByLinkKey(String linkKey);
+
+    // 마감일을 아직 계산하지 않은 활동 (deadline 컬럼이 생기기 전에 등록된 활동)
+    List<ActivityCatalog> findByDeadlineIsNullAndDdayIsNotNull();
+
+    // 마감이 지난 지 오래됐고 어떤 사용자 추천에서도 참조하지 않는 활동 삭제
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ActivityCatalog c WHERE c.deadline < :before "
+            + "AND NOT EXISTS (SELECT r.id FROM ActivityRecommendation r WHERE r.catalog = c)")
+    int deleteExpiredUnused(LocalDate before);
+}
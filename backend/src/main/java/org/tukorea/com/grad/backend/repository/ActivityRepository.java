@@ -1,6 +1,9 @@
 package org.tukorea.com.grad.backend.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.tukorea.com.grad.backend.entity.ActivityRecommendation;
 import org.tukorea.com.grad.backend.entity.User;
 import java.util.List;
@@ -8,8 +11,15 @@ import java.util.List;
 public interface ActivityRepository extends JpaRepository<ActivityRecommendation, Long> {
     
     // 이 줄을 추가하세요! (사용자별로 찾아서 최신순으로 정렬)
-    List<ActivityRecommendation> findByUserOrderByCreatedAtDesc(User user);
+    // 카탈로그도 함께 조회 (추천 개수만큼 추가 쿼리가 나가지 않도록)
+    @EntityGraph(attributePaths = "catalog")
+    List<ActivityRecommendation> findByUserOrderByCreatedAtDescRankOrderAsc(User user);
+
+    // 카탈로그로 옮기지 않은 예전 추천 기록 (id 순서로 afterId 다음부터)
+    @Query("SELECT r FROM ActivityRecommendation r WHERE r.catalog IS NULL AND r.legacyTitle IS NOT NULL "
+            + "AND r.id > :afterId ORDER BY r.id")
+    List<ActivityRecommendation> findLegacy(Long afterId, Pageable pageable);
     
     // 회원 탈퇴 시 삭제 메소드
     void deleteByUser(org.tukorea.com.grad.backend.entity.User user);
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package org.tukorea.com.grad.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.tukorea.com.grad.backend.entity.AiJob;
+import org.tukorea.com.grad.backend.entity.AiJobStatus;
+import org.tukorea.com.grad.backend.entity.AiJobType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AiJobRepository extends JpaRepository<AiJob, Long> {
+
+    // 실행 가능한 대기 작업을 잠그면서 가져오기 (다른 서버가 잠근 행은 건너뜀, MySQL 8+)
+    // - 일괄 작업(SEMESTER_FEEDBACK_BATCH)은 별도 속도로 처리하므로 제외
+    @Query(value = "SELECT * FROM ai_job WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "AND type <> 'SEMESTER_FEEDBACK_BATCH' " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<AiJob> lockClaimable(LocalDateTime now, int limit);
+
+    // 특정 종류의 대기 작업만 잠그면서 가져오기 (일괄 작업용)
+    @Query(value = "SELECT * FROM ai_job WHERE status = 'PENDING' AND next_attempt_at <= :now AND type = :type " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<AiJob> lockClaimableOfType(String type, LocalDateTime now, int limit);
+
+    boolean existsByDedupKey(String dedupKey);
+
+    @Query("SELECT COUNT(j) > 0 FROM AiJob j WHERE j.type = :type " +
+            "AND j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.PENDING AND j.nextAttemptAt <= :now")
+    boolean existsClaimable(AiJobType type, LocalDateTime now);
+
+    // 워커가 죽어서 RUNNING 상태로 남은 작업을 다시 대기열로 되돌리기 (시도 횟수가 남은 작업만)
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.PENDING, " +
+            "j.lockedBy = null, j.nextAttemptAt = :now, j.updatedAt = :now " +
+            "WHERE j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.RUNNING AND j.lockedAt < :staleBefore " +
+            "AND j.attempts < j.maxAttempts")
+    int releaseStale(LocalDateTime staleBefore, LocalDateTime now);
+
+    // 시도 횟수를 다 쓴 채 응답이 없는 작업은 실패 처리 (워커를 죽이는 작업이 무한히 재시도되지 않도록)
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.FAILED, " +
+            "j.lockedBy = null, j.errorMessage = :errorMessage, j.updatedAt = :now " +
+            "WHERE j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.RUNNING AND j.lockedAt < :staleBefore " +
+            "AND j.attempts >= j.maxAttempts")
+    int failStale(LocalDateTime staleBefore, String errorMessage, LocalDateTime now);
+
+    // 결과 기록은 작업을 가져간 워커가 아직 잡고 있을 때만 (복구된 뒤 다른 워커가 다시 실행 중이면 0)
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.SUCCEEDED, " +
+            "j.result = :result, j.errorMessage = null, j.lockedBy = null, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.lockedBy = :workerId " +
+            "AND j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.RUNNING")
+    int succeedIfOwned(Long id, String workerId, String result, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = :status, j.nextAttemptAt = :nextAttemptAt, " +
+            "j.errorMessage = :errorMessage, j.lockedBy = null, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.lockedBy = :workerId " +
+            "AND j.status = org.tukorea.com.grad.backend.entity.AiJobStatus.RUNNING")
+    int failIfOwned(Long id, String workerId, AiJobStatus status, LocalDateTime nextAttemptAt,
+                    String errorMessage, LocalDateTime now);
+}
@@ -0,0 +1,18 @@
+package org.tukorea.com.grad.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.tukorea.com.grad.backend.entity.LlmCacheEntry;
+
+import java.time.LocalDateTime;
+
+public interface LlmCacheRepository extends JpaRepository<LlmCacheEntry, String> {
+
+    // 만료된 캐시 일괄 삭제 (삭제된 행 수 반환)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmCacheEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,31 @@
+package org.tukorea.com.grad.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.tukorea.com.grad.backend.entity.RateLimitBucket;
+
+import java.util.Optional;
+
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    // 버킷이 없으면 가득 찬 상태로 생성 (동시에 여러 서버가 만들어도 한 행만 남음)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO rate_limit_bucket (bucket_key, tokens, updated_at_millis) " +
+            "VALUES (:bucketKey, :tokens, :now)", nativeQuery = true)
+    void insertIfAbsent(String bucketKey, double tokens, long now);
+
+    // 버킷 행 잠금 (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM RateLimitBucket b WHERE b.bucketKey = :bucketKey")
+    Optional<RateLimitBucket> findForUpdate(String bucketKey);
+
+    // 오래 사용하지 않은 버킷 정리 (IP 버킷이 계속 쌓이지 않도록)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RateLimitBucket b WHERE b.updatedAtMillis < :before")
+    int deleteIdle(long before);
+}
@@ -1,8 +1,14 @@
 package org.tukorea.com.grad.backend.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import org.tukorea.com.grad.backend.entity.Roadmap;
 import org.tukorea.com.grad.backend.entity.User;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 // JpaRepository를 상속받으면 저장(save), 삭제(delete) 기능을 공짜로 얻습니다.
@@ -12,6 +18,27 @@ public interface RoadmapRepository extends JpaRepository<Roadmap, Long> {
     // 이 함수 이름만 보고 스프링이 "SELECT * FROM roadmap WHERE user_id = ?" 쿼리를 자동으로 만듭니다.
     Optional<Roadmap> findByUser(User user);
 
+    // 학기 종료(endedAt) 이후 아직 결산 피드백을 받지 않은 로드맵 (id 순서로 afterId 다음부터)
+    @Query("SELECT r FROM Roadmap r JOIN FETCH r.user WHERE r.id > :afterId AND r.analysisResult IS NOT NULL " +
+            "AND (r.feedbackRefreshedAt IS NULL OR r.feedbackRefreshedAt < :endedAt) ORDER BY r.id")
+    List<Roadmap> findFeedbackDue(LocalDateTime endedAt, Long afterId, Pageable pageable);
+
+    // 활동 추천이 없거나 프로필이 바뀐 로드맵 (id 순서로 afterId 다음부터)
+    @Query("SELECT r FROM Roadmap r JOIN FETCH r.user WHERE r.id > :afterId AND r.targetJob IS NOT NULL " +
+            "AND (r.activityProfileHash IS NULL OR r.profileHash IS NULL OR r.profileHash <> r.activityProfileHash) ORDER BY r.id")
+    List<Roadmap> findActivityStale(Long afterId, Pageable pageable);
+
+    // 미리 계산할 로드맵 하나를 이 서버가 가져감 (다른 서버가 최근에 가져갔으면 0)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Roadmap r SET r.activityPrecomputeClaimedAt = :now WHERE r.id = :id " +
+            "AND (r.activityPrecomputeClaimedAt IS NULL OR r.activityPrecomputeClaimedAt < :staleBefore)")
+    int claimActivityPrecompute(Long id, LocalDateTime now, LocalDateTime staleBefore);
+
+    // 로드맵에 등록된 학과 (비교과 공지 학과 키워드)
+    @Query("SELECT DISTINCT r.major FROM Roadmap r WHERE r.major IS NOT NULL")
+    List<String> findDistinctMajors();
+
     // 회원 탈퇴 시 삭제 메소드
     void deleteByUser(org.tukorea.com.grad.backend.entity.User user);
 }
\ No newline at end of file
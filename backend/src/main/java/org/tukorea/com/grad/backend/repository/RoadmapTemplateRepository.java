@@ -0,0 +1,30 @@
+package org.tukorea.com.grad.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.tukorea.com.grad.backend.entity.RoadmapTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RoadmapTemplateRepository extends JpaRepository<RoadmapTemplate, String> {
+
+    // 사용 기록 갱신 (조회 시마다 엔티티를 읽고 쓰지 않도록 UPDATE 한 번)
+    @Transactional
+    @Modifying
+    @Query("UPDATE RoadmapTemplate t SET t.useCount = t.useCount + 1, t.lastUsedAt = :now WHERE t.cohortKey = :cohortKey")
+    int touch(String cohortKey, LocalDateTime now);
+
+    // 만료됐지만 최근에도 쓰인 템플릿 (다시 생성할 대상, 오래된 것부터)
+    @Query("SELECT t FROM RoadmapTemplate t WHERE t.expiresAt < :now AND t.lastUsedAt >= :usedSince ORDER BY t.expiresAt")
+    List<RoadmapTemplate> findExpiredInUse(LocalDateTime now, LocalDateTime usedSince, Pageable pageable);
+
+    // 오랫동안 쓰이지 않은 만료 템플릿 삭제
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RoadmapTemplate t WHERE t.expiresAt < :now AND t.lastUsedAt < :usedSince")
+    int deleteExpiredUnused(LocalDateTime now, LocalDateTime usedSince);
+}
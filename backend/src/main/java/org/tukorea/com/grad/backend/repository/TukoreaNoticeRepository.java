@@ -0,0 +1,51 @@
+package org.tukorea.com.grad.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.tukorea.com.grad.backend.entity.TukoreaNotice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TukoreaNoticeRepository extends JpaRepository<TukoreaNotice, Long> {
+
+    Optional<TukoreaNotice> findByLink(String link);
+
+    // 최신 등록일 순 (같은 날은 게시판에서 먼저 본 순서, 등록일을 모르는 공지는 맨 뒤)
+    @Query("SELECT n FROM TukoreaNotice n ORDER BY n.postedOn DESC NULLS LAST, n.id ASC")
+    List<TukoreaNotice> findLatest(Pageable pageable);
+
+    // 등록일(postedOn)을 아직 읽지 않은 공지
+    List<TukoreaNotice> findByPostedOnIsNullAndPostedDateIsNotNull();
+
+    // 이미 수집한 공지 (수집 시작 시 한 번 읽어서 새 공지 / 다시 확인할 공지 판단)
+    @Query("SELECT n.link AS link, n.contentHash AS contentHash, n.etag AS etag, "
+            + "n.lastModified AS lastModified, n.lastFetchedAt AS lastFetchedAt FROM TukoreaNotice n")
+    List<SeenNotice> findAllSeen();
+
+    // 게시판에서 다시 본 공지 (상세 페이지를 받지 않았거나 바뀌지 않은 경우)
+    @Transactional
+    @Modifying
+    @Query("UPDATE TukoreaNotice n SET n.lastSeenAt = :now WHERE n.link IN :links")
+    int touchSeen(Collection<String> links, LocalDateTime now);
+
+    // 상세 페이지를 확인했지만 바뀌지 않음 (304 또는 같은 내용)
+    @Transactional
+    @Modifying
+    @Query("UPDATE TukoreaNotice n SET n.lastSeenAt = :now, n.lastFetchedAt = :now, "
+            + "n.etag = COALESCE(:etag, n.etag), n.lastModified = COALESCE(:lastModified, n.lastModified) WHERE n.link = :link")
+    int touchFetched(String link, String etag, String lastModified, LocalDateTime now);
+
+    interface SeenNotice {
+        String getLink();
+        String getContentHash();
+        String getEtag();
+        String getLastModified();
+        LocalDateTime getLastFetchedAt();
+    }
+}
@@ -0,0 +1,153 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AI 엔드포인트 요청 수 제한 (토큰 버킷)
+ * - 사용자별(로그인) 또는 IP별(비로그인) 버킷 + OpenAI 분당 토큰 한도에 맞춘 전역 버킷
+ * - 한도를 넘으면 max-queue-ms 이내에서 잠깐 기다렸다 재시도하고, 그래도 안 되면 거절(429)합니다.
+ * - 저장소 장애 시에는 서비스를 막지 않도록 통과시킵니다. (fail-open)
+ *
+ * 메트릭: admission.decisions{endpoint, outcome=admitted|queued|rejected|store-error}
+ */
+@Slf4j
+@Component
+public class AdmissionControlService {
+
+    private final TokenBucketStore bucketStore;
+    private final MeterRegistry meterRegistry;
+    private final List<AdmissionRule> rules = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final boolean enabled;
+    private final double globalTokensPerMinute;
+    private final boolean trustForwardedFor;
+
+    public AdmissionControlService(TokenBucketStore bucketStore,
+                                   MeterRegistry meterRegistry,
+                                   Environment environment,
+                                   @Value("${admission.enabled:true}") boolean enabled,
+                                   @Value("${admission.global.tokens-per-minute:30000}") double globalTokensPerMinute,
+                                   @Value("${admission.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.bucketStore = bucketStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.globalTokensPerMinute = globalTokensPerMinute;
+        this.trustForwardedFor = trustForwardedFor;
+
+        // admission.endpoints=ai-ask,major-analyze,... 순서대로 먼저 맞는 규칙 하나만 적용
+        for (String name : environment.getProperty("admission.endpoints", String[].class, new String[0])) {
+            String prefix = "admission.endpoints." + name.trim() + ".";
+            String pattern = environment.getProperty(prefix + "pattern");
+            if (pattern == null) {
+                log.warn("admission 규칙 '{}' 에 pattern 이 없어 무시합니다.", name);
+                continue;
+            }
+            rules.add(AdmissionRule.builder()
+                    .name(name.trim())
+                    .pattern(pattern)
+                    .userCapacity(environment.getProperty(prefix + "user-capacity", Double.class, 10d))
+                    .userRefillPerMinute(environment.getProperty(prefix + "user-refill-per-minute", Double.class, 10d))
+                    .ipCapacity(environment.getProperty(prefix + "ip-capacity", Double.class, 5d))
+                    .ipRefillPerMinute(environment.getProperty(prefix + "ip-refill-per-minute", Double.class, 5d))
+                    .estimatedTokens(environment.getProperty(prefix + "estimated-tokens", Double.class, 1000d))
+                    .maxQueueMillis(environment.getProperty(prefix + "max-queue-ms", Long.class, 0L))
+                    .build());
+        }
+    }
+
+    /**
+     * @return 0 이면 통과, 양수면 거절 + 재시도까지 기다려야 하는 시간(ms)
+     */
+    public long admit(HttpServletRequest request) {
+        if (!enabled || "OPTIONS".equalsIgnoreCase(request.getMethod())) return 0;
+
+        AdmissionRule rule = findRule(request.getRequestURI());
+        if (rule == null) return 0;
+
+        List<TokenBucketStore.Bucket> buckets = bucketsFor(rule, request);
+        long queueDeadline = System.currentTimeMillis() + RequestDeadline.cap(rule.getMaxQueueMillis());
+        boolean queued = false;
+
+        try {
+            while (true) {
+                long waitMillis = bucketStore.tryConsume(buckets);
+                if (waitMillis == 0) {
+                    count(rule, queued ? "queued" : "admitted");
+                    return 0;
+                }
+
+                long remaining = queueDeadline - System.currentTimeMillis();
+                if (rule.getMaxQueueMillis() <= 0 || waitMillis > remaining) {
+                    count(rule, "rejected");
+                    return waitMillis;
+                }
+
+                queued = true;
+                Thread.sleep(waitMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            count(rule, "rejected");
+            return 1000;
+        } catch (Exception e) {
+            log.warn("요청 제한 저장소 오류로 제한 없이 통과시킵니다: {}", e.getMessage());
+            count(rule, "store-error");
+            return 0;
+        }
+    }
+
+    private AdmissionRule findRule(String path) {
+        for (AdmissionRule rule : rules) {
+            if (pathMatcher.match(rule.getPattern(), path)) return rule;
+        }
+        return null;
+    }
+
+    private List<TokenBucketStore.Bucket> bucketsFor(AdmissionRule rule, HttpServletRequest request) {
+        List<TokenBucketStore.Bucket> buckets = new ArrayList<>(2);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            buckets.add(new TokenBucketStore.Bucket("user:" + authentication.getName() + ":" + rule.getName(),
+                    rule.getUserCapacity(), rule.getUserRefillPerMinute(), 1));
+        } else {
+            buckets.add(new TokenBucketStore.Bucket("ip:" + clientIp(request) + ":" + rule.getName(),
+                    rule.getIpCapacity(), rule.getIpRefillPerMinute(), 1));
+        }
+
+        if (globalTokensPerMinute > 0 && rule.getEstimatedTokens() > 0) {
+            // 전역 버킷은 1분치 한도만큼 버스트 허용
+            buckets.add(new TokenBucketStore.Bucket("global:llm",
+                    globalTokensPerMinute, globalTokensPerMinute, rule.getEstimatedTokens()));
+        }
+        return buckets;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void count(AdmissionRule rule, String outcome) {
+        meterRegistry.counter("admission.decisions", "endpoint", rule.getName(), "outcome", outcome).increment();
+    }
+}
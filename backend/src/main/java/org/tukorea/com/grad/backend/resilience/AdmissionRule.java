@@ -0,0 +1,20 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 엔드포인트별 요청 제한 규칙 (admission.endpoints.{name}.*)
+ */
+@Getter
+@Builder
+public class AdmissionRule {
+    private String name;                 // 메트릭/버킷 키에 쓰는 이름 (예: ai-ask)
+    private String pattern;              // 경로 패턴 (예: /api/ai/**)
+    private double userCapacity;         // 로그인 사용자별 버스트 허용량
+    private double userRefillPerMinute;  // 로그인 사용자별 분당 허용량
+    private double ipCapacity;           // 비로그인(IP)별 버스트 허용량
+    private double ipRefillPerMinute;    // 비로그인(IP)별 분당 허용량
+    private double estimatedTokens;      // 요청 1건이 쓰는 예상 LLM 토큰 (전역 버킷 차감량)
+    private long maxQueueMillis;         // 한도 초과 시 최대 대기 시간 (0 = 바로 429)
+}
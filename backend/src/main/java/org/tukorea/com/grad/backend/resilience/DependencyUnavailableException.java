@@ -0,0 +1,20 @@
+package org.tukorea.com.grad.backend.resilience;
+
+/**
+ * 외부 호출을 시도하지 않고 바로 거절한 경우 (동시 호출 한도 초과 / 서킷 열림 / 요청 마감 시간 초과)
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final OutboundDependency dependency;
+
+    public DependencyUnavailableException(OutboundDependency dependency, String message) {
+        super(message);
+        this.dependency = dependency;
+    }
+
+    public OutboundDependency getDependency() {
+        return dependency;
+    }
+}
@@ -0,0 +1,36 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 서버 한 대용 메모리 토큰 버킷 (admission.store=memory, 로컬 개발용)
+ */
+@Component
+@ConditionalOnProperty(name = "admission.store", havingValue = "memory")
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private final Map<String, double[]> buckets = new HashMap<>(); // key -> {tokens, updatedAtMillis}
+
+    @Override
+    public synchronized long tryConsume(List<Bucket> requested) {
+        long now = System.currentTimeMillis();
+        long waitMillis = 0;
+        for (Bucket bucket : requested) {
+            double[] state = buckets.computeIfAbsent(bucket.getKey(), key -> new double[]{bucket.getCapacity(), now});
+            state[0] = bucket.refill(state[0], now - (long) state[1]);
+            state[1] = now;
+            waitMillis = Math.max(waitMillis, bucket.waitMillis(state[0]));
+        }
+        if (waitMillis == 0) {
+            for (Bucket bucket : requested) {
+                buckets.get(bucket.getKey())[0] -= bucket.effectiveCost();
+            }
+        }
+        return waitMillis;
+    }
+}
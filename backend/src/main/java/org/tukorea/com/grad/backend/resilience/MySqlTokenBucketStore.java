@@ -0,0 +1,60 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.tukorea.com.grad.backend.entity.RateLimitBucket;
+import org.tukorea.com.grad.backend.repository.RateLimitBucketRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * MySQL 기반 토큰 버킷 (여러 서버가 같은 한도를 공유)
+ * - 교착 상태를 피하기 위해 항상 bucketKey 순서로 행을 잠급니다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "admission.store", havingValue = "mysql", matchIfMissing = true)
+public class MySqlTokenBucketStore implements TokenBucketStore {
+
+    private static final long IDLE_BUCKET_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final RateLimitBucketRepository bucketRepository;
+
+    @Override
+    @Transactional
+    public long tryConsume(List<Bucket> buckets) {
+        long now = System.currentTimeMillis();
+
+        List<Bucket> ordered = new ArrayList<>(buckets);
+        ordered.sort(Comparator.comparing(Bucket::getKey));
+
+        List<RateLimitBucket> rows = new ArrayList<>();
+        long waitMillis = 0;
+        for (Bucket bucket : ordered) {
+            bucketRepository.insertIfAbsent(bucket.getKey(), bucket.getCapacity(), now);
+            RateLimitBucket row = bucketRepository.findForUpdate(bucket.getKey()).orElseThrow();
+            row.setTokens(bucket.refill(row.getTokens(), now - row.getUpdatedAtMillis()));
+            row.setUpdatedAtMillis(now);
+            rows.add(row);
+            waitMillis = Math.max(waitMillis, bucket.waitMillis(row.getTokens()));
+        }
+
+        // 하나라도 부족하면 아무것도 차감하지 않음 (충전된 값만 저장)
+        if (waitMillis == 0) {
+            for (int i = 0; i < ordered.size(); i++) {
+                rows.get(i).setTokens(rows.get(i).getTokens() - ordered.get(i).effectiveCost());
+            }
+        }
+        return waitMillis;
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000L)
+    public void purgeIdle() {
+        bucketRepository.deleteIdle(System.currentTimeMillis() - IDLE_BUCKET_MILLIS);
+    }
+}
@@ -0,0 +1,13 @@
+package org.tukorea.com.grad.backend.resilience;
+
+/**
+ * 외부 호출 중 발생한 checked 예외(IOException 등)를 감싸는 예외
+ */
+public class OutboundCallException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OutboundCallException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
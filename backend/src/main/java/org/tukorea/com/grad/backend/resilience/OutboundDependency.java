@@ -0,0 +1,21 @@
+package org.tukorea.com.grad.backend.resilience;
+
+/**
+ * 외부 호출 대상 (의존성별로 동시 호출 수 / 서킷 브레이커를 따로 관리)
+ * - 설정 키: resilience.dependencies.{propertyName}.*
+ */
+public enum OutboundDependency {
+    LLM("llm"),                 // OpenAI Chat Completions
+    NEWS_RSS("news-rss"),       // Google News RSS
+    TUKOREA("tukorea");         // tukorea.ac.kr 공지 게시판
+
+    private final String propertyName;
+
+    OutboundDependency(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+}
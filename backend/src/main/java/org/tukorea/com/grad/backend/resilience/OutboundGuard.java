@@ -0,0 +1,196 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.llm.LlmException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 모든 외부 호출(LLM / 뉴스 RSS / 학교 홈페이지)이 거쳐가는 보호 계층
+ * - 의존성별 동시 호출 한도(bulkhead): 한 곳이 느려져도 다른 기능의 요청 스레드까지 묶이지 않도록
+ * - 요청 마감 시간(RequestDeadline) 전파: 남은 시간이 없으면 호출하지 않고, 타임아웃도 남은 시간으로 줄임
+ * - 서킷 브레이커: 실패율이 높으면 일정 시간 동안 바로 실패 처리
+ *   (호출한 쪽이 취소한 호출 - 헤징에서 진 요청 등 - 은 실패로 세지 않음)
+ *   실패로 세는 것은 시간 초과, I/O 오류, 408/429/5xx 응답뿐입니다. 삭제된 게시글 404, 잘못된 요청 400 같은 4xx 는
+ *   상대 서버가 정상 응답한 것이므로 성공으로, 응답 파싱 실패 등 그 밖의 예외는 세지 않습니다.
+ * - 메트릭: resilience.calls{dependency, outcome=success|failure|client-error|ignored|cancelled|rejected-*}, resilience.circuit.state{dependency}
+ *
+ * 설정
+ * resilience.dependencies.{llm|news-rss|tukorea}.max-concurrent-calls / max-wait-ms
+ *   / failure-rate-threshold / sliding-window-size / minimum-calls / open-duration-ms
+ */
+@Slf4j
+@Component
+public class OutboundGuard {
+
+    private final Map<OutboundDependency, Semaphore> bulkheads = new EnumMap<>(OutboundDependency.class);
+    private final Map<OutboundDependency, CircuitBreaker> breakers = new EnumMap<>(OutboundDependency.class);
+    private final Map<OutboundDependency, Long> maxWaitMillis = new EnumMap<>(OutboundDependency.class);
+    private final MeterRegistry meterRegistry;
+
+    public OutboundGuard(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        for (OutboundDependency dependency : OutboundDependency.values()) {
+            String prefix = "resilience.dependencies." + dependency.getPropertyName() + ".";
+            int defaultConcurrency = dependency == OutboundDependency.LLM ? 32 : 8;
+
+            int maxConcurrent = environment.getProperty(prefix + "max-concurrent-calls", Integer.class, defaultConcurrency);
+            bulkheads.put(dependency, new Semaphore(maxConcurrent));
+            maxWaitMillis.put(dependency, environment.getProperty(prefix + "max-wait-ms", Long.class, 200L));
+
+            CircuitBreaker breaker = new CircuitBreaker(
+                    environment.getProperty(prefix + "sliding-window-size", Integer.class, 20),
+                    environment.getProperty(prefix + "minimum-calls", Integer.class, 10),
+                    environment.getProperty(prefix + "failure-rate-threshold", Double.class, 0.5),
+                    environment.getProperty(prefix + "open-duration-ms", Long.class, 30000L));
+            breakers.put(dependency, breaker);
+
+            // 0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN
+            meterRegistry.gauge("resilience.circuit.state",
+                    Tags.of("dependency", dependency.getPropertyName()),
+                    breaker, b -> b.getState().ordinal());
+            meterRegistry.gauge("resilience.bulkhead.available",
+                    Tags.of("dependency", dependency.getPropertyName()),
+                    bulkheads.get(dependency), Semaphore::availablePermits);
+        }
+    }
+
+    /**
+     * 외부 호출 실행
+     * - 거절되면 DependencyUnavailableException, 호출 중 checked 예외는 OutboundCallException 으로 감쌉니다.
+     */
+    public <T> T call(OutboundDependency dependency, Callable<T> call) {
+        if (RequestDeadline.isExpired()) {
+            count(dependency, "deadline-exceeded");
+            throw new DependencyUnavailableException(dependency, "요청 처리 시간이 초과되어 " + dependency + " 호출을 생략합니다.");
+        }
+
+        Semaphore bulkhead = bulkheads.get(dependency);
+        if (!acquire(bulkhead, RequestDeadline.cap(maxWaitMillis.get(dependency)))) {
+            count(dependency, "rejected-bulkhead");
+            throw new DependencyUnavailableException(dependency, dependency + " 동시 호출 한도를 초과했습니다.");
+        }
+
+        try {
+            CircuitBreaker breaker = breakers.get(dependency);
+            if (!breaker.tryAcquire()) {
+                count(dependency, "rejected-circuit");
+                throw new DependencyUnavailableException(dependency, dependency + " 서킷이 열려 있어 호출하지 않습니다.");
+            }
+
+            try {
+                T result = call.call();
+                breaker.onSuccess();
+                count(dependency, "success");
+                return result;
+            } catch (Exception e) {
+                if (isCancellation(e)) {
+                    breaker.onIgnored();
+                    count(dependency, "cancelled");
+                    if (e instanceof RuntimeException runtime) throw runtime;
+                    throw new OutboundCallException(dependency + " 호출 취소", e);
+                }
+                int status = statusOf(e);
+                if (status > 0 && !isRetryableStatus(status)) {
+                    breaker.onSuccess(); // 상대 서버는 정상 응답 (요청 쪽 문제)
+                    count(dependency, "client-error");
+                } else if (status == 0 && !isTransientFailure(e)) {
+                    breaker.onIgnored();
+                    count(dependency, "ignored");
+                } else {
+                    CircuitBreaker.State before = breaker.getState();
+                    breaker.onFailure();
+                    count(dependency, "failure");
+                    if (before != CircuitBreaker.State.OPEN && breaker.getState() == CircuitBreaker.State.OPEN) {
+                        log.warn("{} 서킷 OPEN - 최근 호출 실패율이 기준을 넘었습니다: {}", dependency, e.getMessage());
+                    }
+                }
+                if (e instanceof RuntimeException runtime) throw runtime;
+                throw new OutboundCallException(dependency + " 호출 실패", e);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 외부 호출 타임아웃을 현재 요청의 남은 시간으로 제한 (Jsoup timeout 등 int 용)
+     */
+    public int timeoutMillis(int configuredMillis) {
+        return (int) RequestDeadline.cap(configuredMillis);
+    }
+
+    public CircuitBreaker.State circuitState(OutboundDependency dependency) {
+        return breakers.get(dependency).getState();
+    }
+
+    private static boolean acquire(Semaphore bulkhead, long waitMillis) {
+        try {
+            return bulkhead.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // 호출 스레드가 인터럽트됐거나 원인이 인터럽트 / 취소인 경우 (소켓 읽기 시간 초과는 취소가 아니라 실패)
+    private static boolean isCancellation(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) return true;
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                    || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))
+                    || cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 원인 중 HTTP 오류 응답의 상태 코드 (없으면 0)
+    static int statusOf(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusException http) return http.getStatusCode();
+            if (cause instanceof LlmException llm && llm.getStatusCode() > 0) return llm.getStatusCode();
+        }
+        return 0;
+    }
+
+    // 다시 시도하면 성공할 수 있는 응답 (상대 서버 상태 문제)
+    static boolean isRetryableStatus(int status) {
+        return status == 408 || status == 429 || status >= 500;
+    }
+
+    // 응답을 받지 못한 실패 (시간 초과, 연결/읽기 오류)
+    static boolean isTransientFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) return true;
+            if (cause instanceof IOException && !(cause instanceof UnsupportedMimeTypeException)) return true;
+        }
+        return false;
+    }
+
+    private void count(OutboundDependency dependency, String outcome) {
+        Counter.builder("resilience.calls")
+                .tag("dependency", dependency.getPropertyName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
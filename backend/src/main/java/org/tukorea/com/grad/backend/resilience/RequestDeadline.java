@@ -0,0 +1,48 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 현재 요청 스레드의 마감 시각 (RequestDeadlineFilter 가 설정)
+ * - 외부 호출 타임아웃은 설정값과 "남은 시간" 중 작은 값으로 줄여서 사용합니다.
+ * - 마감이 없는 스레드(스케줄러, 작업 워커 등)에서는 설정값을 그대로 씁니다.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(long budgetMillis) {
+        DEADLINE_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /**
+     * 남은 시간(ms). 마감이 없으면 Long.MAX_VALUE, 이미 지났으면 0 이하
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE_NANOS.get();
+        if (deadline == null) return Long.MAX_VALUE;
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    public static boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    /**
+     * 설정된 타임아웃을 남은 시간으로 제한 (최소 1ms)
+     */
+    public static long cap(long timeoutMillis) {
+        return Math.max(1, Math.min(timeoutMillis, remainingMillis()));
+    }
+}
@@ -0,0 +1,72 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 들어온 요청마다 처리 마감 시각을 정해 RequestDeadline 에 등록하는 필터
+ * - 기본값: resilience.request-deadline-ms
+ * - 오래 걸리는 동기 AI 요청(resilience.long-request-paths)은 resilience.long-request-deadline-ms
+ *   (예: /api/major/analyze 는 ai.analyze.deadline-ms 동안 GPT 응답을 기다림)
+ * - 클라이언트가 X-Request-Timeout-Ms 헤더를 보내면 더 짧은 쪽을 사용합니다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final long defaultBudgetMillis;
+    private final List<String> longRequestPaths;
+    private final long longBudgetMillis;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RequestDeadlineFilter(@Value("${resilience.request-deadline-ms:45000}") long defaultBudgetMillis,
+                                 @Value("${resilience.long-request-paths:/api/major/analyze}") List<String> longRequestPaths,
+                                 @Value("${resilience.long-request-deadline-ms:95000}") long longBudgetMillis) {
+        this.defaultBudgetMillis = defaultBudgetMillis;
+        this.longRequestPaths = longRequestPaths.stream().map(String::strip).filter(path -> !path.isEmpty()).toList();
+        this.longBudgetMillis = longBudgetMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestDeadline.start(budgetFor(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private long budgetFor(HttpServletRequest request) {
+        long budget = isLongRequest(request.getRequestURI()) ? longBudgetMillis : defaultBudgetMillis;
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header == null || header.isBlank()) return budget;
+        try {
+            long requested = Long.parseLong(header.trim());
+            return requested > 0 ? Math.min(requested, budget) : budget;
+        } catch (NumberFormatException e) {
+            return budget;
+        }
+    }
+
+    private boolean isLongRequest(String path) {
+        for (String pattern : longRequestPaths) {
+            if (pathMatcher.match(pattern, path)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 토큰 버킷 저장소
+ * - 여러 버킷(사용자 + 전역 등)을 한 번에 확인해서, 전부 여유가 있을 때만 함께 차감합니다.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * @return 0 이면 허용(차감 완료), 양수면 다시 시도할 수 있을 때까지 기다려야 하는 시간(ms)
+     */
+    long tryConsume(List<Bucket> buckets);
+
+    @Getter
+    @RequiredArgsConstructor
+    class Bucket {
+        private final String key;
+        private final double capacity;        // 최대 토큰 수 (버스트 허용량)
+        private final double refillPerMinute; // 분당 충전량
+        private final double cost;            // 이번 요청이 쓰는 토큰 수
+
+        double refillPerMilli() {
+            return refillPerMinute / 60_000d;
+        }
+
+        // 버킷 용량보다 큰 요청은 영원히 통과할 수 없으므로 용량으로 제한
+        double effectiveCost() {
+            return Math.min(cost, capacity);
+        }
+
+        double refill(double tokens, long elapsedMillis) {
+            return Math.min(capacity, tokens + Math.max(0, elapsedMillis) * refillPerMilli());
+        }
+
+        long waitMillis(double tokens) {
+            double missing = effectiveCost() - tokens;
+            if (missing <= 0) return 0;
+            if (refillPerMinute <= 0) return Long.MAX_VALUE;
+            return Math.max(1, (long) Math.ceil(missing / refillPerMilli()));
+        }
+    }
+}
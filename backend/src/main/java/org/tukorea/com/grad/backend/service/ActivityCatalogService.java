@@ -0,0 +1,337 @@
+package org.tukorea.com.grad.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tukorea.com.grad.backend.dto.RoadmapRequestDto;
+import org.tukorea.com.grad.backend.entity.ActivityCatalog;
+import org.tukorea.com.grad.backend.llm.schema.ActivityList;
+import org.tukorea.com.grad.backend.repository.ActivityCatalogRepository;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 공용 대외활동 카탈로그 검색/등록
+ * - 카탈로그 전체를 메모리 BM25 인덱스(NoteChunkIndex 재사용, 활동 하나 = 조각 하나)로 들고 있다가
+ *   사용자의 전공/직무/기술 스택으로 후보를 찾습니다. (GPT 호출 없음)
+ * - 새 활동은 활동명/링크로 중복을 확인한 뒤에만 추가합니다.
+ * - 다른 서버가 추가한 활동은 reload-interval-ms 마다 다시 읽어 반영합니다.
+ * - 마감일(deadline)이 지난 활동은 후보에서 빼고, 마감 후 retain-expired-days 가 지나면 (추천에서 참조하지 않을 때) 삭제합니다.
+ */
+@Slf4j
+@Service
+public class ActivityCatalogService {
+
+    private static final int DOCUMENT_CHARS = 4000;
+
+    // "D-14", "D-day", "D - 3"
+    private static final Pattern RELATIVE_DDAY = Pattern.compile("(?i)d\\s*-\\s*(day|\\d{1,3})");
+    // "2025-05-31", "2025.5.31", "2025년 5월 31일"
+    private static final Pattern FULL_DATE = Pattern.compile("(\\d{4})\\s*[.\\-/년]\\s*(\\d{1,2})\\s*[.\\-/월]\\s*(\\d{1,2})");
+    // "5월 31일", "3월 중순", "3월 말", "3월"
+    private static final Pattern MONTH_DATE = Pattern.compile("(\\d{1,2})\\s*월\\s*(?:(\\d{1,2})\\s*일|(초|중순|말))?");
+
+    private final ActivityCatalogRepository catalogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long retainExpiredDays;
+
+    private final Map<Long, ActivityCatalog> catalog = new ConcurrentHashMap<>();
+    private volatile NoteChunkIndex index = new NoteChunkIndex(DOCUMENT_CHARS);
+    private volatile boolean loaded;
+
+    public ActivityCatalogService(ActivityCatalogRepository catalogRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${ai.activity-catalog.retain-expired-days:30}") long retainExpiredDays) {
+        this.catalogRepository = catalogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retainExpiredDays = retainExpiredDays;
+    }
+
+    /**
+     * 1. 사용자 프로필과 관련 있는 카탈로그 후보 (관련도 순, 최대 limit 개, 마감이 지난 활동 제외)
+     */
+    public List<ActivityCatalog> candidates(RoadmapRequestDto request, int limit) {
+        ensureLoaded();
+
+        String query = String.join(" ", nullToEmpty(request.getMajor()), nullToEmpty(request.getTargetJob()),
+                nullToEmpty(request.getTechStacks()), nullToEmpty(request.getTargetCompany()));
+
+        Set<Long> ids = new LinkedHashSet<>();
+        for (NoteChunkIndex.Chunk chunk : index.search(query, limit, null, 1.0)) {
+            ids.add(chunk.noteId);
+        }
+        LocalDate today = LocalDate.now();
+        List<ActivityCatalog> result = new ArrayList<>();
+        for (Long id : ids) {
+            ActivityCatalog activity = catalog.get(id);
+            // 인덱스는 reload 때 만들어지므로 그 사이에 마감된 활동은 여기서 거름
+            if (activity != null && !expired(activity, today)) result.add(activity);
+        }
+        return result;
+    }
+
+    /**
+     * 화면에 보여줄 마감 기한 - "D-n" 형식이면 오늘 기준으로 다시 계산, 마감이 지났으면 "마감"
+     */
+    public String dday(ActivityCatalog activity) {
+        return ddayOf(activity, LocalDate.now());
+    }
+
+    public ActivityCatalog get(Long id) {
+        ensureLoaded();
+        return catalog.get(id);
+    }
+
+    /**
+     * 2. GPT 가 만든 활동들을 카탈로그에 등록 (이미 있으면 기존 행 사용)
+     * - keywords: 검색용 키워드 (이 활동을 요청한 사용자의 전공/직무/기술)
+     */
+    public List<ActivityCatalog> register(Collection<ActivityList.Item> activities, String keywords) {
+        List<ActivityCatalog> registered = new ArrayList<>();
+        for (ActivityList.Item activity : activities) {
+            String title = nullToEmpty(activity.title()).strip();
+            if (title.isEmpty()) continue;
+            try {
+                ActivityCatalog saved = upsert(activity, title, keywords);
+                catalog.put(saved.getId(), saved);
+                index.upsert(saved.getId(), saved.getTitle(), searchText(saved));
+                if (!expired(saved, LocalDate.now())) registered.add(saved); // 마감이 지난 기존 활동은 추천하지 않음
+            } catch (Exception e) {
+                log.warn("활동 카탈로그 등록 실패 ({}): {}", title, e.getMessage());
+            }
+        }
+        return registered;
+    }
+
+    // 카탈로그 전체 다시 읽기 (다른 서버에서 추가된 활동 반영)
+    @Scheduled(fixedDelayString = "${ai.activity-catalog.reload-interval-ms:600000}")
+    public void reload() {
+        try {
+            NoteChunkIndex fresh = new NoteChunkIndex(DOCUMENT_CHARS);
+            Map<Long, ActivityCatalog> all = new LinkedHashMap<>();
+            LocalDate today = LocalDate.now();
+            for (ActivityCatalog activity : catalogRepository.findAll()) {
+                if (expired(activity, today)) continue; // 마감된 활동은 검색 대상에서 제외
+                all.put(activity.getId(), activity);
+                fresh.upsert(activity.getId(), activity.getTitle(), searchText(activity));
+            }
+            catalog.putAll(all);
+            catalog.keySet().retainAll(all.keySet());
+            index = fresh;
+            loaded = true;
+            log.debug("활동 카탈로그 {}건 로드", all.size());
+        } catch (Exception e) {
+            log.warn("활동 카탈로그 로드 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 3. 마감 정리 (기본: 매일 새벽 3시 30분)
+     * - 마감일이 없던 예전 활동은 등록일 기준으로 계산해 채우고,
+     *   마감 후 retain-expired-days 가 지났고 어떤 추천에서도 쓰지 않는 활동은 삭제합니다.
+     */
+    @Scheduled(cron = "${ai.activity-catalog.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        try {
+            Integer filled = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (ActivityCatalog activity : catalogRepository.findByDeadlineIsNullAndDdayIsNotNull()) {
+                    LocalDate deadline = deadlineOf(activity.getDday(), registeredOn(activity));
+                    if (deadline == null) continue;
+                    activity.setDeadline(deadline);
+                    count++;
+                }
+                return count;
+            });
+            int deleted = catalogRepository.deleteExpiredUnused(LocalDate.now().minusDays(retainExpiredDays));
+            if ((filled != null && filled > 0) || deleted > 0) {
+                log.info("활동 카탈로그 마감 정리 - 마감일 계산 {}건, 삭제 {}건", filled, deleted);
+            }
+        } catch (Exception e) {
+            log.warn("활동 카탈로그 마감 정리 실패: {}", e.getMessage());
+        }
+        reload();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (!loaded) reload();
+        }
+    }
+
+    private ActivityCatalog upsert(ActivityList.Item activity, String title, String keywords) {
+        String titleKey = keyOf(normalizeTitle(title));
+        String linkKey = linkKey(activity.link());
+        LocalDate today = LocalDate.now();
+        LocalDate deadline = deadlineOf(activity.dday(), today);
+
+        try {
+            return transactionTemplate.execute(status -> {
+                ActivityCatalog existing = catalogRepository.findByTitleKey(titleKey)
+                        .or(() -> linkKey == null ? Optional.<ActivityCatalog>empty() : catalogRepository.findFirstByLinkKey(linkKey))
+                        .orElse(null);
+                if (existing != null) {
+                    // 비어 있던 정보만 채우고(마감이 지난 기한은 새 기한으로 교체), 검색 키워드는 누적
+                    if (existing.getDday() == null || (expired(existing, today) && deadline != null)) {
+                        existing.setDday(activity.dday());
+                        existing.setDeadline(deadline);
+                    }
+                    if (existing.getLinkKey() == null && linkKey != null) {
+                        existing.setLink(activity.link());
+                        existing.setLinkKey(linkKey);
+                    }
+                    existing.setKeywords(mergeKeywords(existing.getKeywords(), keywords));
+                    return existing;
+                }
+                return catalogRepository.save(ActivityCatalog.builder()
+                        .category(activity.category())
+                        .title(title)
+                        .titleKey(titleKey)
+                        .link(activity.link())
+                        .linkKey(linkKey)
+                        .description(activity.description())
+                        .dday(activity.dday())
+                        .deadline(deadline)
+                        .tags(activity.tags().isEmpty() ? null : String.join(",", activity.tags()))
+                        .keywords(keywords)
+                        .build());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 다른 요청/서버가 같은 활동을 먼저 등록함 -> 그 행 사용
+            return catalogRepository.findByTitleKey(titleKey).orElseThrow(() -> e);
+        }
+    }
+
+    static boolean expired(ActivityCatalog activity, LocalDate today) {
+        LocalDate deadline = deadlineOf(activity);
+        return deadline != null && deadline.isBefore(today);
+    }
+
+    static String ddayOf(ActivityCatalog activity, LocalDate today) {
+        String dday = activity.getDday();
+        LocalDate deadline = deadlineOf(activity);
+        if (deadline == null) return dday;
+        if (deadline.isBefore(today)) return "마감";
+        if (dday != null && !RELATIVE_DDAY.matcher(dday).find()) return dday; // "3월 중순" 같은 절대 기한은 원문 그대로
+        long days = ChronoUnit.DAYS.between(today, deadline);
+        return days == 0 ? "D-day" : "D-" + days;
+    }
+
+    // 저장된 마감일, 없으면(예전 활동) 등록일 기준으로 계산
+    private static LocalDate deadlineOf(ActivityCatalog activity) {
+        if (activity.getDeadline() != null) return activity.getDeadline();
+        return deadlineOf(activity.getDday(), registeredOn(activity));
+    }
+
+    private static LocalDate registeredOn(ActivityCatalog activity) {
+        return activity.getCreatedAt() != null ? activity.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+
+    /**
+     * 마감 기한 원문 -> 마감일 (registeredOn 은 GPT 가 기한을 적은 날)
+     * - "D-14" -> registeredOn + 14일, "2025.05.31" -> 그 날짜
+     * - "5월 31일", "3월 중순"(20일), "3월 초"(10일), "3월 말"/"3월"(말일) -> 등록일 이후 가장 가까운 그 날짜
+     * - "상시" 등 날짜가 아니면 null
+     */
+    static LocalDate deadlineOf(String dday, LocalDate registeredOn) {
+        if (dday == null || dday.isBlank()) return null;
+        try {
+            Matcher relative = RELATIVE_DDAY.matcher(dday);
+            if (relative.find()) {
+                String days = relative.group(1);
+                return registeredOn.plusDays(days.equalsIgnoreCase("day") ? 0 : Integer.parseInt(days));
+            }
+            Matcher full = FULL_DATE.matcher(dday);
+            if (full.find()) {
+                return LocalDate.of(Integer.parseInt(full.group(1)), Integer.parseInt(full.group(2)), Integer.parseInt(full.group(3)));
+            }
+            Matcher month = MONTH_DATE.matcher(dday);
+            if (month.find()) {
+                int monthValue = Integer.parseInt(month.group(1));
+                LocalDate date = dayOfMonth(registeredOn.withDayOfMonth(1).withMonth(monthValue), month.group(2), month.group(3));
+                return date.isBefore(registeredOn) ? dayOfMonth(date.withDayOfMonth(1).plusYears(1), month.group(2), month.group(3)) : date;
+            }
+        } catch (DateTimeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static LocalDate dayOfMonth(LocalDate firstDay, String day, String part) {
+        if (day != null) return firstDay.withDayOfMonth(Integer.parseInt(day));
+        if ("초".equals(part)) return firstDay.withDayOfMonth(10);
+        if ("중순".equals(part)) return firstDay.withDayOfMonth(20);
+        return firstDay.withDayOfMonth(firstDay.lengthOfMonth());
+    }
+
+    private static String searchText(ActivityCatalog activity) {
+        return String.join(" ", nullToEmpty(activity.getCategory()), nullToEmpty(activity.getTags()),
+                nullToEmpty(activity.getKeywords()), nullToEmpty(activity.getDescription()));
+    }
+
+    // 활동명 정규화: NFKC + 소문자 + 공백/기호 제거 ("제 10회 OO 공모전" == "제10회 OO공모전")
+    static String normalizeTitle(String title) {
+        return Normalizer.normalize(title, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", "");
+    }
+
+    // 링크 정규화 (검색 결과 링크는 활동을 구분하지 못하므로 null)
+    static String linkKey(String link) {
+        if (link == null || link.isBlank()) return null;
+        try {
+            URI uri = URI.create(link.strip());
+            String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT).replaceFirst("^www\\.", "");
+            if (host.isEmpty() || host.startsWith("google.") || host.endsWith(".google.com") || "/search".equals(uri.getPath())) {
+                return null;
+            }
+            String path = uri.getPath() == null ? "" : uri.getPath().replaceAll("/+$", "");
+            String query = uri.getQuery() == null ? "" : "?" + uri.getQuery();
+            return keyOf(host + path + query);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String keyOf(String material) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String mergeKeywords(String existing, String added) {
+        if (existing == null || existing.isBlank()) return added;
+        if (added == null || added.isBlank() || existing.contains(added)) return existing;
+        String merged = existing + ", " + added;
+        return merged.length() > 4000 ? existing : merged;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
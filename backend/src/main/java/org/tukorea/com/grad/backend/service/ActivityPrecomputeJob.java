@@ -0,0 +1,154 @@
+package org.tukorea.com.grad.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.dto.RoadmapRequestDto;
+import org.tukorea.com.grad.backend.entity.Roadmap;
+import org.tukorea.com.grad.backend.repository.RoadmapRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 활동 추천 야간 미리 계산
+ * - 로드맵의 프로필(전공, 목표 직무, 기술 스택, 목표 기업)이 마지막 추천 이후 바뀐 사용자만 다시 추천합니다.
+ *   (Roadmap.profileHash != activityProfileHash)
+ * - batch-size 명씩 가져와 parallelism 개 스레드로 처리하고, max-runtime-minutes 가 지나면 다음 날로 넘깁니다.
+ * - 여러 서버가 동시에 돌아도 사용자마다 한 서버만 처리합니다. (claimActivityPrecompute)
+ * - 추천 페이지는 저장된 추천을 읽기만 하고, 아직 추천이 없는 사용자만 실시간으로 생성합니다. (ActivityService)
+ */
+@Slf4j
+@Component
+public class ActivityPrecomputeJob {
+
+    private final RoadmapRepository roadmapRepository;
+    private final ActivityService activityService;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxRuntimeMinutes;
+    private final long claimTimeoutMinutes;
+
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public ActivityPrecomputeJob(RoadmapRepository roadmapRepository,
+                                 ActivityService activityService,
+                                 @Value("${ai.activity-precompute.enabled:true}") boolean enabled,
+                                 @Value("${ai.activity-precompute.parallelism:4}") int parallelism,
+                                 @Value("${ai.activity-precompute.batch-size:50}") int batchSize,
+                                 @Value("${ai.activity-precompute.max-runtime-minutes:240}") long maxRuntimeMinutes,
+                                 @Value("${ai.activity-precompute.claim-timeout-minutes:30}") long claimTimeoutMinutes) {
+        this.roadmapRepository = roadmapRepository;
+        this.activityService = activityService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxRuntimeMinutes = maxRuntimeMinutes;
+        this.claimTimeoutMinutes = claimTimeoutMinutes;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "activity-precompute-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 기본: 매일 새벽 2시 (스케줄러 스레드는 바로 반환하고, 별도 스레드에서 실행)
+    @Scheduled(cron = "${ai.activity-precompute.cron:0 0 2 * * *}", zone = "${ai.feedback-batch.zone:Asia/Seoul}")
+    public void schedule() {
+        if (!enabled || !running.compareAndSet(false, true)) return;
+        Thread thread = new Thread(() -> {
+            try {
+                precompute();
+            } finally {
+                running.set(false);
+            }
+        }, "activity-precompute-main");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void precompute() {
+        LocalDateTime deadline = LocalDateTime.now().plusMinutes(maxRuntimeMinutes);
+        int refreshed = 0;
+        int failed = 0;
+        long afterId = 0;
+
+        while (LocalDateTime.now().isBefore(deadline)) {
+            List<Roadmap> stale;
+            try {
+                stale = roadmapRepository.findActivityStale(afterId, PageRequest.of(0, batchSize));
+            } catch (Exception e) {
+                log.warn("활동 추천 미리 계산 대상 조회 실패: {}", e.getMessage());
+                break;
+            }
+            if (stale.isEmpty()) break;
+
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (Roadmap roadmap : stale) {
+                afterId = roadmap.getId();
+                RoadmapRequestDto request = toRequest(roadmap);
+                String email = roadmap.getUser().getEmail();
+                Long roadmapId = roadmap.getId();
+                tasks.add(() -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    if (roadmapRepository.claimActivityPrecompute(roadmapId, now,
+                            now.minus(Duration.ofMinutes(claimTimeoutMinutes))) == 0) {
+                        return null; // 다른 서버가 처리 중
+                    }
+                    Object activities = activityService.recommendActivities(request, email).get("activities");
+                    return activities instanceof List<?> list && !list.isEmpty();
+                });
+            }
+
+            try {
+                for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                    try {
+                        Boolean ok = future.get();
+                        if (ok == null) continue;
+                        if (ok) refreshed++; else failed++;
+                    } catch (Exception e) {
+                        failed++;
+                        log.warn("활동 추천 미리 계산 실패: {}", e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (refreshed > 0 || failed > 0) {
+            log.info("활동 추천 미리 계산 완료 - 성공 {}명, 실패 {}명", refreshed, failed);
+        }
+    }
+
+    private static RoadmapRequestDto toRequest(Roadmap roadmap) {
+        return RoadmapRequestDto.builder()
+                .major(roadmap.getMajor())
+                .grade(roadmap.getGrade())
+                .semester(roadmap.getSemester())
+                .targetJob(roadmap.getTargetJob())
+                .targetCompany(roadmap.getTargetCompany())
+                .techStacks(roadmap.getTechStacks())
+                .build();
+    }
+}
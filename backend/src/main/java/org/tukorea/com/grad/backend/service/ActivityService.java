@@ -1,21 +1,34 @@
 package org.tukorea.com.grad.backend.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // [추가]
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tukorea.com.grad.backend.dto.ActivityRecommendationDto;
 import org.tukorea.com.grad.backend.dto.RoadmapRequestDto;
+import org.tukorea.com.grad.backend.entity.ActivityCatalog;
 import org.tukorea.com.grad.backend.entity.ActivityRecommendation; // [추가]
+import org.tukorea.com.grad.backend.entity.Roadmap;
 import org.tukorea.com.grad.backend.entity.User;                   // [추가]
+import org.tukorea.com.grad.backend.llm.LlmCallSite;
+import org.tukorea.com.grad.backend.llm.LlmJson;
+import org.tukorea.com.grad.backend.llm.LlmRouter;
+import org.tukorea.com.grad.backend.llm.LlmRequest;
+import org.tukorea.com.grad.backend.llm.LlmResponse;
+import org.tukorea.com.grad.backend.llm.PromptRegistry;
+import org.tukorea.com.grad.backend.llm.schema.ActivityList;
+import org.tukorea.com.grad.backend.llm.schema.RankedActivities;
+import org.tukorea.com.grad.backend.repository.ActivityCatalogRepository;
 import org.tukorea.com.grad.backend.repository.ActivityRepository; // [추가]
+import org.tukorea.com.grad.backend.repository.RoadmapRepository;
 import org.tukorea.com.grad.backend.repository.UserRepository;     // [추가]
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Slf4j
@@ -23,115 +36,282 @@ import java.util.*;
 @RequiredArgsConstructor
 public class ActivityService {
 
-    @Value("${openai.api.key}")
-    private String apiKey;
-
     // DB 접근을 위한 리포지토리 추가
     private final UserRepository userRepository;
     private final ActivityRepository activityRepository;
+    private final ActivityCatalogRepository activityCatalogRepository;
+    private final ActivityCatalogService activityCatalogService;
+    private final RoadmapRepository roadmapRepository;
+    private final LlmRouter llmRouter;
+    private final PromptRegistry promptRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final LlmJson llmJson;
+
+    // 카탈로그에서 가져올 후보 수 / 재정렬 후 이보다 적게 남으면 새 활동 생성
+    @Value("${ai.activity-catalog.candidates:20}")
+    private int candidateCount;
+
+    @Value("${ai.activity-catalog.min-suitable:3}")
+    private int minSuitable;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Value("${ai.activity-catalog.max-recommendations:6}")
+    private int maxRecommendations;
 
-    // [변경] 이메일을 파라미터로 받아서 저장까지 수행
-    @Transactional
+    private static final int LEGACY_PAGE_SIZE = 200;
+
+    /**
+     * [변경] 이메일을 파라미터로 받아서 저장까지 수행
+     * 1) 공용 카탈로그에서 후보 검색 (GPT 없음)
+     * 2) 작은 GPT 호출로 후보 순서 + 추천 이유만 작성 (activity-rerank)
+     * 3) 맞는 후보가 부족할 때만 새 활동을 생성해 카탈로그에 추가한 뒤 다시 재정렬
+     * - 프로필이 바뀌지 않았고 저장된 추천(야간 미리 계산 포함)이 있으면 GPT 없이 그대로 반환
+     * - GPT 호출 중에는 DB 트랜잭션을 잡지 않고, 사용자별 추천 저장만 짧은 트랜잭션으로 처리합니다.
+     */
     public Map<String, Object> recommendActivities(RoadmapRequestDto request, String email) {
         
         // 1. 사용자 확인 (누구의 추천인지 알아야 저장하니까요)
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다: " + email));
 
-        String systemRole = "너는 대학생 커리어 컨설턴트야. 사용자의 정보를 바탕으로 도전할 만한 대외활동, 공모전, 인턴십, 자격증을 추천해줘. 반드시 JSON 형식으로만 답변해.";
-        
-        String userPrompt = String.format(
-            "나는 %s 전공 %s 학생이고, 목표는 %s야. 내가 가진 기술은 %s이고, 관심 기업은 %s야.\n" +
-            "나에게 도움될 만한 활동 6개를 추천해줘.\n" +
-            "[응답 규칙]\n" +
-            "1. category는 반드시 'CONTEST', 'INTERN', 'CLUB', 'LICENSE' 중 하나여야 해.\n" +
-            "2. dday는 'D-14' 또는 '3월 중순'처럼 마감 기한을 적어줘.\n" +
-            "3. tags는 활동의 핵심 키워드 2개를 배열로 넣어줘.\n\n" +
-            "[JSON 포맷]\n" +
-            "{\n" +
-            "  \"activities\": [\n" +
-            "    { \"category\": \"분류\", \"title\": \"활동명\", \"description\": \"추천 이유\", \"dday\": \"마감일\", \"tags\": [\"태그1\", \"태그2\"], \"link\": \"https://www.google.com/search?q=활동명\" }\n" +
-            "  ]\n" +
-            "}",
-            request.getMajor(), request.getGrade(), request.getTargetJob(),
-            request.getTechStacks(), request.getTargetCompany()
-        );
-
-        // 2. GPT에게 물어보기
-        Map<String, Object> result = fetchGptResponse(systemRole, userPrompt);
-
-        // 3. 받은 결과를 DB에 저장하기 (여기가 핵심!)
-        saveActivitiesToDb(user, result);
-
-        return result;
+        String profileHash = Roadmap.profileHashOf(request.getMajor(), request.getTargetJob(),
+                request.getTechStacks(), request.getTargetCompany());
+        boolean fresh = roadmapRepository.findByUser(user)
+                .map(roadmap -> profileHash.equals(roadmap.getActivityProfileHash()))
+                .orElse(false);
+        if (fresh) {
+            List<ActivityRecommendationDto> stored = getMyActivities(email);
+            if (!stored.isEmpty()) {
+                return Map.of("activities", stored);
+            }
+        }
+
+        // 2. 카탈로그 후보 검색 후 재정렬
+        List<ActivityCatalog> candidates = activityCatalogService.candidates(request, candidateCount);
+        List<Ranked> ranked = candidates.size() < minSuitable ? List.of() : rerank(request, candidates);
+
+        // 3. 맞는 활동이 부족하면 새로 생성해서 카탈로그에 추가 (이후 같은 조건의 사용자는 재사용)
+        if (ranked.size() < minSuitable) {
+            List<ActivityCatalog> generated = generateActivities(request);
+            if (!generated.isEmpty()) {
+                Map<Long, ActivityCatalog> merged = new LinkedHashMap<>();
+                generated.forEach(activity -> merged.put(activity.getId(), activity));
+                activityCatalogService.candidates(request, candidateCount).forEach(activity -> merged.putIfAbsent(activity.getId(), activity));
+                candidates = new ArrayList<>(merged.values());
+                ranked = rerank(request, candidates);
+                if (ranked.isEmpty()) ranked = unranked(generated);
+            }
+        }
+
+        // 4. 받은 결과를 DB에 저장하기 (여기가 핵심!)
+        saveActivitiesToDb(user, ranked, profileHash);
+
+        List<Map<String, Object>> activities = new ArrayList<>();
+        for (Ranked item : ranked) {
+            activities.add(toResponse(item.activity(), item.reason()));
+        }
+        return Map.of("activities", activities);
     }
 
     // [신규] 저장된 내 활동 리스트 불러오기
     @Transactional(readOnly = true)
-    public List<ActivityRecommendation> getMyActivities(String email) {
+    public List<ActivityRecommendationDto> getMyActivities(String email) {
         User user = userRepository.findByEmail(email).orElseThrow();
-        return activityRepository.findByUserOrderByCreatedAtDesc(user);
+        return activityRepository.findByUserOrderByCreatedAtDescRankOrderAsc(user).stream()
+                .filter(recommendation -> recommendation.getCatalog() != null || recommendation.getLegacyTitle() != null)
+                .map(recommendation -> {
+                    ActivityCatalog activity = recommendation.getCatalog();
+                    if (activity == null) {
+                        // 아직 카탈로그로 옮기지 않은 예전 기록
+                        return ActivityRecommendationDto.builder()
+                                .category(recommendation.getLegacyCategory())
+                                .title(recommendation.getLegacyTitle())
+                                .description(recommendation.getDescription())
+                                .tags(List.of())
+                                .link(recommendation.getLegacyLink())
+                                .createdAt(recommendation.getCreatedAt().toString())
+                                .build();
+                    }
+                    return ActivityRecommendationDto.builder()
+                            .catalogId(activity.getId())
+                            .category(activity.getCategory())
+                            .title(activity.getTitle())
+                            .description(recommendation.getDescription() != null ? recommendation.getDescription() : activity.getDescription())
+                            .dday(activityCatalogService.dday(activity))
+                            .tags(tagsOf(activity))
+                            .link(activity.getLink())
+                            .createdAt(recommendation.getCreatedAt().toString())
+                            .build();
+                })
+                .toList();
     }
 
-    // [신규] DB 저장 헬퍼 함수
-    private void saveActivitiesToDb(User user, Map<String, Object> result) {
+    /**
+     * 예전 추천 기록 이전 (서버 시작 후 한 번)
+     * - 카탈로그 도입 전에는 활동 정보를 추천 행마다 저장했습니다. 그 활동을 카탈로그에 등록(이미 있으면 기존 행)하고
+     *   추천 행이 카탈로그를 참조하도록 바꾼 뒤 예전 컬럼은 비웁니다.
+     * - 여러 서버가 동시에 실행해도 카탈로그 등록은 중복되지 않고, 같은 카탈로그로 연결될 뿐입니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyRecommendations() {
+        int migrated = 0;
+        long afterId = 0;
         try {
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> activities = (List<Map<String, Object>>) result.get("activities");
-            if (activities == null || activities.isEmpty()) return;
-
-            // 기존 추천 기록 삭제 (최신 것만 남기기 위함, 원치 않으면 이 줄 삭제)
-            activityRepository.deleteByUser(user);
-
-            for (Map<String, Object> act : activities) {
-                ActivityRecommendation entity = ActivityRecommendation.builder()
-                        .user(user)
-                        .category((String) act.get("category"))
-                        .title((String) act.get("title"))
-                        .description((String) act.get("description"))
-                        .link((String) act.get("link"))
-                        .build();
-                activityRepository.save(entity);
+            while (true) {
+                List<ActivityRecommendation> legacy = activityRepository.findLegacy(afterId, PageRequest.of(0, LEGACY_PAGE_SIZE));
+                for (ActivityRecommendation recommendation : legacy) {
+                    afterId = recommendation.getId();
+                    ActivityList.Item item = new ActivityList.Item(recommendation.getLegacyCategory(), recommendation.getLegacyTitle(),
+                            recommendation.getDescription(), null, List.of(), recommendation.getLegacyLink());
+                    List<ActivityCatalog> registered = activityCatalogService.register(List.of(item), null);
+                    if (registered.isEmpty()) continue; // 등록 실패 -> 다음 시작 때 다시 시도 (그동안은 예전 컬럼으로 표시)
+
+                    Long recommendationId = recommendation.getId();
+                    Long catalogId = registered.get(0).getId();
+                    transactionTemplate.executeWithoutResult(status -> activityRepository.findById(recommendationId).ifPresent(latest -> {
+                        latest.setCatalog(activityCatalogRepository.getReferenceById(catalogId));
+                        latest.setLegacyCategory(null);
+                        latest.setLegacyTitle(null);
+                        latest.setLegacyLink(null);
+                    }));
+                    migrated++;
+                }
+                if (legacy.size() < LEGACY_PAGE_SIZE) break;
             }
-            log.info("사용자 {}의 추천 활동 {}개가 DB에 저장되었습니다.", user.getEmail(), activities.size());
+        } catch (Exception e) {
+            log.warn("예전 추천 기록 이전 중단 ({}건 이전 후): {}", migrated, e.getMessage());
+            return;
+        }
+        if (migrated > 0) {
+            log.info("예전 추천 기록 {}건을 활동 카탈로그로 이전", migrated);
+        }
+    }
+
+    // [신규] DB 저장 헬퍼 함수 (사용자별로는 카탈로그 참조와 추천 이유만 저장)
+    private void saveActivitiesToDb(User user, List<Ranked> ranked, String profileHash) {
+        if (ranked.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 기존 추천 기록 삭제 (최신 것만 남기기 위함, 원치 않으면 이 줄 삭제)
+                activityRepository.deleteByUser(user);
+
+                int order = 0;
+                for (Ranked item : ranked) {
+                    activityRepository.save(ActivityRecommendation.builder()
+                            .user(user)
+                            .catalog(activityCatalogRepository.getReferenceById(item.activity().getId()))
+                            .description(item.reason())
+                            .rankOrder(order++)
+                            .build());
+                }
+
+                // 어떤 프로필 기준의 추천인지 기록 (야간 미리 계산 대상 판단용)
+                roadmapRepository.findByUser(user).ifPresent(roadmap -> {
+                    roadmap.setActivityProfileHash(profileHash);
+                    roadmap.setActivitiesRefreshedAt(LocalDateTime.now());
+                });
+            });
+            log.info("사용자 {}의 추천 활동 {}개가 DB에 저장되었습니다.", user.getEmail(), ranked.size());
 
         } catch (Exception e) {
             log.error("DB 저장 중 오류 발생: {}", e.getMessage());
         }
     }
 
-    private Map<String, Object> fetchGptResponse(String systemRole, String userPrompt) {
+    // 후보 재정렬 (후보 목록은 사용자 정보보다 앞 -> 같은 후보를 받는 사용자끼리 프롬프트 앞부분 공유)
+    private List<Ranked> rerank(RoadmapRequestDto request, List<ActivityCatalog> candidates) {
+        if (candidates.isEmpty()) return List.of();
+
+        Map<Long, ActivityCatalog> byId = new LinkedHashMap<>();
+        StringBuilder lines = new StringBuilder();
+        for (ActivityCatalog activity : candidates) {
+            byId.put(activity.getId(), activity);
+            lines.append(activity.getId()).append(" | ").append(activity.getCategory())
+                    .append(" | ").append(activity.getTitle())
+                    .append(" | ").append(activity.getTags() == null ? "" : activity.getTags()).append('\n');
+        }
+
+        LlmRequest llmRequest = promptRegistry.request(LlmCallSite.ACTIVITY_RERANK, PromptRegistry.values(
+                        "candidates", lines.toString().strip(),
+                        "major", request.getMajor(),
+                        "grade", request.getGrade(),
+                        "targetJob", request.getTargetJob(),
+                        "techStacks", request.getTechStacks(),
+                        "targetCompany", request.getTargetCompany()))
+                .model("gpt-4o-mini")
+                .jsonMode(true)
+                .build();
+
+        List<Ranked> ranked = new ArrayList<>();
+        RankedActivities result = fetchGptResponse(llmRequest, RankedActivities.class);
+        if (result == null) return ranked;
+
+        Set<Long> seen = new HashSet<>();
+        for (RankedActivities.Item item : result.ranked()) {
+            if (ranked.size() >= maxRecommendations) break;
+            ActivityCatalog activity = item.id() == null ? null : byId.get(item.id());
+            if (activity == null || !seen.add(activity.getId())) continue; // 후보에 없는 번호는 무시
+            ranked.add(new Ranked(activity, item.reason() == null ? activity.getDescription() : item.reason()));
+        }
+        return ranked;
+    }
+
+    // 카탈로그에 없는 새 활동 생성 (기존 전체 생성 프롬프트) 후 카탈로그에 등록
+    private List<ActivityCatalog> generateActivities(RoadmapRequestDto request) {
+        // 고정 지시문/JSON 포맷은 템플릿(prompts/activity-recommend.v*.txt) 앞부분, 사용자 정보는 맨 뒤
+        LlmRequest llmRequest = promptRegistry.request(LlmCallSite.ACTIVITY_RECOMMEND, PromptRegistry.values(
+                        "major", request.getMajor(),
+                        "grade", request.getGrade(),
+                        "targetJob", request.getTargetJob(),
+                        "techStacks", request.getTechStacks(),
+                        "targetCompany", request.getTargetCompany()))
+                .model("gpt-4o-mini")
+                .build();
+
+        ActivityList generated = fetchGptResponse(llmRequest, ActivityList.class);
+        if (generated == null) return List.of();
+
+        String keywords = String.join(", ", Objects.toString(request.getMajor(), ""),
+                Objects.toString(request.getTargetJob(), ""), Objects.toString(request.getTechStacks(), ""));
+        return activityCatalogService.register(generated.activities(), keywords);
+    }
+
+    // 재정렬 실패 시 생성된 순서 그대로 (카탈로그 설명을 추천 이유로)
+    private List<Ranked> unranked(List<ActivityCatalog> activities) {
+        return activities.stream()
+                .limit(maxRecommendations)
+                .map(activity -> new Ranked(activity, activity.getDescription()))
+                .toList();
+    }
+
+    // 기존 응답 형식 유지 { category, title, description, dday, tags, link } + catalogId
+    private Map<String, Object> toResponse(ActivityCatalog activity, String reason) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("catalogId", activity.getId());
+        response.put("category", activity.getCategory());
+        response.put("title", activity.getTitle());
+        response.put("description", reason);
+        response.put("dday", activityCatalogService.dday(activity));
+        response.put("tags", tagsOf(activity));
+        response.put("link", activity.getLink());
+        return response;
+    }
+
+    private static List<String> tagsOf(ActivityCatalog activity) {
+        if (activity.getTags() == null || activity.getTags().isBlank()) return List.of();
+        return Arrays.stream(activity.getTags().split(",")).map(String::strip).filter(tag -> !tag.isEmpty()).toList();
+    }
+
+    // 앞뒤 설명 문장/코드 블록은 LlmJson 복구 단계에서 제거 (실패 시 null)
+    private <T> T fetchGptResponse(LlmRequest llmRequest, Class<T> type) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("model", "gpt-4o-mini");
-            body.put("messages", Arrays.asList(
-                    Map.of("role", "system", "content", systemRole),
-                    Map.of("role", "user", "content", userPrompt)
-            ));
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                "https://api.openai.com/v1/chat/completions", entity, String.class
-            );
-
-            JsonNode rootNode = objectMapper.readTree(response.getBody());
-            String content = rootNode.path("choices").get(0).path("message").path("content").asText();
-            
-            if (content.contains("{")) {
-                content = content.substring(content.indexOf("{"), content.lastIndexOf("}") + 1);
-            }
-            
-            return objectMapper.readValue(content, new TypeReference<Map<String, Object>>() {});
+            LlmResponse response = llmRouter.complete(llmRequest.toBuilder().responseType(type).build());
+            return llmJson.parse(response.getContent(), type);
         } catch (Exception e) {
             log.error("활동 추천 GPT 요청 중 에러 발생: {}", e.getMessage());
-            return Map.of("activities", Collections.emptyList());
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    private record Ranked(ActivityCatalog activity, String reason) {
+    }
+}
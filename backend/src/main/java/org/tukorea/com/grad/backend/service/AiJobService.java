@@ -0,0 +1,188 @@
+package org.tukorea.com.grad.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tukorea.com.grad.backend.dto.AiJobResponseDto;
+import org.tukorea.com.grad.backend.entity.AiJob;
+import org.tukorea.com.grad.backend.entity.AiJobStatus;
+import org.tukorea.com.grad.backend.entity.AiJobType;
+import org.tukorea.com.grad.backend.repository.AiJobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 비동기 AI 작업 저장소 역할
+ * - 모든 메서드는 짧은 트랜잭션만 사용합니다. (GPT 호출은 트랜잭션 밖, AiJobWorker 에서)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiJobService {
+
+    private final AiJobRepository aiJobRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${ai.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${ai.jobs.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs;
+
+    // 1. 작업 등록 (202 Accepted 로 jobId 반환용)
+    @Transactional
+    public Long submit(AiJobType type, String email, Object payload) {
+        String payloadJson;
+        try {
+            payloadJson = objectMapper.writeValueAsString(payload);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("작업 입력을 JSON 으로 변환할 수 없습니다.", e);
+        }
+
+        AiJob job = AiJob.builder()
+                .type(type)
+                .status(AiJobStatus.PENDING)
+                .userEmail(email)
+                .payload(payloadJson)
+                .attempts(0)
+                .maxAttempts(maxAttempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        Long jobId = aiJobRepository.save(job).getId();
+        log.info("AI 작업 등록 - id: {}, type: {}, 사용자: {}", jobId, type, email);
+        return jobId;
+    }
+
+    // 1-1. 중복 없이 작업 등록 (같은 dedupKey 가 이미 있으면 등록하지 않고 false)
+    public boolean submitOnce(AiJobType type, String email, Object payload, String dedupKey) {
+        if (aiJobRepository.existsByDedupKey(dedupKey)) return false;
+        try {
+            AiJob job = AiJob.builder()
+                    .type(type)
+                    .status(AiJobStatus.PENDING)
+                    .userEmail(email)
+                    .dedupKey(dedupKey)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .attempts(0)
+                    .maxAttempts(maxAttempts)
+                    .nextAttemptAt(LocalDateTime.now())
+                    .build();
+            aiJobRepository.save(job);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // 다른 서버가 먼저 등록
+        } catch (Exception e) {
+            throw new IllegalArgumentException("작업 입력을 JSON 으로 변환할 수 없습니다.", e);
+        }
+    }
+
+    // 2. 작업 상태/결과 조회 (본인 작업만)
+    @Transactional(readOnly = true)
+    public AiJobResponseDto getJob(Long jobId, String email) {
+        AiJob job = aiJobRepository.findById(jobId)
+                .filter(j -> j.getUserEmail().equals(email))
+                .orElseThrow(() -> new IllegalArgumentException("작업을 찾을 수 없습니다. id=" + jobId));
+
+        Object result = null;
+        if (job.getResult() != null) {
+            try {
+                result = objectMapper.readValue(job.getResult(), Object.class);
+            } catch (Exception e) {
+                result = job.getResult();
+            }
+        }
+
+        return AiJobResponseDto.builder()
+                .jobId(job.getId())
+                .type(job.getType().name())
+                .status(job.getStatus().name())
+                .attempts(job.getAttempts())
+                .result(result)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt().toString())
+                .updatedAt(job.getUpdatedAt().toString())
+                .build();
+    }
+
+    // 3. 실행 가능한 작업을 limit 개까지 가져와 RUNNING 으로 표시 (다른 서버와 겹치지 않음)
+    @Transactional
+    public List<AiJob> claim(String workerId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AiJob> jobs = aiJobRepository.lockClaimable(now, limit);
+        for (AiJob job : jobs) {
+            job.setStatus(AiJobStatus.RUNNING);
+            job.setLockedBy(workerId);
+            job.setLockedAt(now);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        return jobs;
+    }
+
+    // 3-1. 특정 종류의 작업만 가져오기 (일괄 작업용)
+    @Transactional
+    public List<AiJob> claim(AiJobType type, String workerId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AiJob> jobs = aiJobRepository.lockClaimableOfType(type.name(), now, limit);
+        for (AiJob job : jobs) {
+            job.setStatus(AiJobStatus.RUNNING);
+            job.setLockedBy(workerId);
+            job.setLockedAt(now);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        return jobs;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasClaimable(AiJobType type) {
+        return aiJobRepository.existsClaimable(type, LocalDateTime.now());
+    }
+
+    // 4. 성공 결과 기록 (이 워커가 아직 작업을 잡고 있을 때만, 아니면 false)
+    @Transactional
+    public boolean markSucceeded(Long jobId, String workerId, String resultJson) {
+        boolean recorded = aiJobRepository.succeedIfOwned(jobId, workerId, resultJson, LocalDateTime.now()) > 0;
+        if (!recorded) {
+            log.warn("AI 작업 결과 버림 - id: {}, 다른 워커가 다시 가져간 작업입니다.", jobId);
+        }
+        return recorded;
+    }
+
+    // 5. 실패 기록 (남은 시도 횟수가 있으면 지수 백오프 후 재시도, 이 워커가 잡고 있을 때만)
+    @Transactional
+    public void markFailed(Long jobId, String workerId, String errorMessage) {
+        AiJob job = aiJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != AiJobStatus.RUNNING || !workerId.equals(job.getLockedBy())) {
+            log.warn("AI 작업 실패 기록 생략 - id: {}, 다른 워커가 다시 가져간 작업입니다.", jobId);
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (job.getAttempts() < job.getMaxAttempts()) {
+            long delay = retryBaseDelayMs * (1L << Math.min(job.getAttempts() - 1, 10));
+            aiJobRepository.failIfOwned(jobId, workerId, AiJobStatus.PENDING,
+                    now.plus(Duration.ofMillis(delay)), errorMessage, now);
+            log.warn("AI 작업 실패 - id: {}, {}회차, {}ms 후 재시도: {}", jobId, job.getAttempts(), delay, errorMessage);
+        } else {
+            aiJobRepository.failIfOwned(jobId, workerId, AiJobStatus.FAILED, job.getNextAttemptAt(), errorMessage, now);
+            log.error("AI 작업 최종 실패 - id: {}, {}회 시도: {}", jobId, job.getAttempts(), errorMessage);
+        }
+    }
+
+    // 6. 오래 RUNNING 상태로 남은 작업(워커 서버 다운 등)을 대기열로 복구 (시도 횟수를 다 쓴 작업은 실패 처리)
+    @Transactional
+    public int releaseStale(long leaseMillis) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(Duration.ofMillis(leaseMillis));
+        int failed = aiJobRepository.failStale(staleBefore, "작업 시간 초과 (" + leaseMillis + "ms 안에 끝나지 않음)", now);
+        if (failed > 0) {
+            log.error("시도 횟수를 모두 쓴 채 응답 없는 AI 작업 {}건을 실패 처리했습니다.", failed);
+        }
+        return aiJobRepository.releaseStale(staleBefore, now);
+    }
+}
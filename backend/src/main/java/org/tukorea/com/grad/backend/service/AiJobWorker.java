@@ -0,0 +1,196 @@
+package org.tukorea.com.grad.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.dto.RoadmapRequestDto;
+import org.tukorea.com.grad.backend.entity.AiJob;
+import org.tukorea.com.grad.backend.entity.AiJobType;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ai_job 대기열을 처리하는 워커 (서버마다 하나)
+ * - 주기적으로 빈 슬롯을 먼저 확보한 뒤 그 수만큼만 작업을 가져옵니다. (서버당 최대 동시 작업 수 = ai.jobs.workers)
+ * - GPT 호출은 트랜잭션 밖에서 실행하고, 결과만 짧은 트랜잭션으로 기록합니다.
+ * - 학기 결산 일괄 작업은 한가한 시간에만, 토큰 예산이 허락할 때 하나씩 가져옵니다. (SemesterFeedbackBatch)
+ */
+@Slf4j
+@Component
+public class AiJobWorker {
+
+    private final AiJobService aiJobService;
+    private final MajorService majorService;
+    private final SemesterFeedbackBatch feedbackBatch;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String workerId;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+    private final boolean enabled;
+    private final long leaseMillis;
+    private final int batchReservedSlots;
+
+    public AiJobWorker(AiJobService aiJobService,
+                       MajorService majorService,
+                       SemesterFeedbackBatch feedbackBatch,
+                       @Value("${ai.feedback-batch.reserved-slots:1}") int batchReservedSlots,
+                       @Value("${ai.jobs.enabled:true}") boolean enabled,
+                       @Value("${ai.jobs.workers:4}") int workers,
+                       @Value("${ai.jobs.lease-ms:600000}") long leaseMillis) {
+        this.aiJobService = aiJobService;
+        this.majorService = majorService;
+        this.feedbackBatch = feedbackBatch;
+        this.batchReservedSlots = batchReservedSlots;
+        this.enabled = enabled;
+        this.leaseMillis = leaseMillis;
+        this.workerId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.slots = new Semaphore(workers);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "ai-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 1. 대기열 폴링 - 빈 슬롯을 먼저 잡고, 잡은 수만큼만 작업을 가져와 실행 (남은 슬롯은 돌려줌)
+    @Scheduled(fixedDelayString = "${ai.jobs.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) return;
+
+        int held = slots.drainPermits();
+        if (held == 0) return;
+
+        List<AiJob> jobs;
+        try {
+            jobs = aiJobService.claim(workerId, held);
+        } catch (Exception e) {
+            slots.release(held);
+            log.warn("AI 작업 가져오기 실패: {}", e.getMessage());
+            return;
+        }
+
+        slots.release(held - jobs.size());
+        jobs.forEach(this::execute);
+    }
+
+    // 1-1. 학기 결산 일괄 작업 - 한가한 시간에만, 실시간 작업용 슬롯(reserved-slots)은 남겨두고 하나씩
+    @Scheduled(fixedDelayString = "${ai.feedback-batch.poll-interval-ms:2000}")
+    public void pollBatch() {
+        if (!enabled || !feedbackBatch.inWindow()) return;
+
+        // 슬롯 하나를 먼저 잡고, 그래도 실시간 작업용 슬롯이 남아 있을 때만 진행
+        if (!slots.tryAcquire()) return;
+        boolean started = false;
+        try {
+            if (slots.availablePermits() < batchReservedSlots) return;
+            if (!aiJobService.hasClaimable(AiJobType.SEMESTER_FEEDBACK_BATCH)) return;
+            if (!feedbackBatch.tryAcquireBudget()) return; // 분당 토큰 예산 소진 -> 다음 폴링에서 다시
+
+            for (AiJob job : aiJobService.claim(AiJobType.SEMESTER_FEEDBACK_BATCH, workerId, 1)) {
+                execute(job);
+                started = true;
+            }
+        } catch (Exception e) {
+            log.warn("학기 결산 일괄 작업 가져오기 실패: {}", e.getMessage());
+        } finally {
+            if (!started) slots.release();
+        }
+    }
+
+    // 이미 잡아 둔 슬롯 하나로 작업 실행 (끝나면 슬롯 반환)
+    private void execute(AiJob job) {
+        try {
+            executor.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            // 종료 중 - 작업은 lease 가 지나면 다른 서버가 다시 가져감
+            slots.release();
+            log.warn("AI 작업 실행 실패 - id: {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    // 2. 워커가 죽어서 RUNNING 으로 남은 작업 복구
+    @Scheduled(fixedDelayString = "${ai.jobs.stale-check-interval-ms:60000}")
+    public void recoverStale() {
+        if (!enabled) return;
+        int released = aiJobService.releaseStale(leaseMillis);
+        if (released > 0) {
+            log.warn("응답 없는 AI 작업 {}건을 대기열로 되돌렸습니다.", released);
+        }
+    }
+
+    private void run(AiJob job) {
+        log.info("AI 작업 시작 - id: {}, type: {}, {}회차", job.getId(), job.getType(), job.getAttempts());
+        try {
+            Object result = switch (job.getType()) {
+                case ROADMAP_ANALYZE -> runAnalyze(job);
+                case SEMESTER_FEEDBACK -> runFeedback(job);
+                case SEMESTER_FEEDBACK_BATCH -> runFeedbackBatch(job);
+            };
+            if (aiJobService.markSucceeded(job.getId(), workerId, objectMapper.writeValueAsString(result))) {
+                log.info("AI 작업 완료 - id: {}", job.getId());
+            }
+        } catch (Exception e) {
+            aiJobService.markFailed(job.getId(), workerId, e.getMessage());
+        }
+    }
+
+    private Object runAnalyze(AiJob job) throws Exception {
+        RoadmapRequestDto request = objectMapper.readValue(job.getPayload(), RoadmapRequestDto.class);
+        Map<String, Object> result = majorService.analyze(request, job.getUserEmail());
+        if (!result.containsKey("semesterPlans")) {
+            throw new IllegalStateException("GPT 응답에 semesterPlans 가 없습니다.");
+        }
+        return result;
+    }
+
+    private Object runFeedback(AiJob job) throws Exception {
+        Map<String, String> payload = objectMapper.readValue(job.getPayload(), new TypeReference<Map<String, String>>() {});
+        boolean refreshed = majorService.refreshFeedback(
+                job.getUserEmail(), payload.get("roadmapJson"), payload.get("finishedGrade"));
+        if (!refreshed) {
+            throw new IllegalStateException("AI 피드백 갱신에 실패했습니다.");
+        }
+        return majorService.getMyRoadmap(job.getUserEmail());
+    }
+
+    private Object runFeedbackBatch(AiJob job) throws Exception {
+        Map<String, String> payload = objectMapper.readValue(job.getPayload(), new TypeReference<Map<String, String>>() {});
+        if (!majorService.refreshFeedbackBatch(job.getUserEmail(), payload.get("finishedGrade"))) {
+            throw new IllegalStateException("AI 피드백 일괄 갱신에 실패했습니다.");
+        }
+        return Map.of("finishedGrade", payload.get("finishedGrade"));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "worker";
+        }
+    }
+}
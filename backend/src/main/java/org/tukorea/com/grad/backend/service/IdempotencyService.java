@@ -0,0 +1,144 @@
+package org.tukorea.com.grad.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 비싼 AI 엔드포인트의 중복 실행 방지
+ * 1. Single-flight: 같은 (사용자, 엔드포인트, 요청 본문 해시) 요청이 동시에 들어오면
+ *    먼저 들어온 요청의 결과(Future)를 함께 기다립니다. -> GPT 호출/DB 쓰기 1회
+ * 2. Idempotency-Key: 헤더가 있으면 완료된 결과를 일정 시간 동안 저장해 재시도 시 그대로 돌려줍니다.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, CompletedResult> completed;
+
+    private final long replayWindowMillis;
+
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter replayed;
+
+    public IdempotencyService(MeterRegistry meterRegistry,
+                              @Value("${ai.idempotency.replay-window-seconds:600}") long replayWindowSeconds,
+                              @Value("${ai.idempotency.max-entries:5000}") int maxEntries) {
+        this.replayWindowMillis = replayWindowSeconds * 1000;
+        this.completed = new LinkedHashMap<>(256, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletedResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.executed = meterRegistry.counter("ai.dedup.requests", "result", "executed");
+        this.coalesced = meterRegistry.counter("ai.dedup.requests", "result", "coalesced");
+        this.replayed = meterRegistry.counter("ai.dedup.requests", "result", "replayed");
+    }
+
+    /**
+     * 중복 제거를 적용해 action 을 실행합니다.
+     *
+     * @param email          요청 사용자
+     * @param endpoint       엔드포인트 구분 (예: "major/analyze")
+     * @param payload        요청 본문 (해시 계산용)
+     * @param idempotencyKey Idempotency-Key 헤더 값 (없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String email, String endpoint, Object payload, String idempotencyKey, Supplier<T> action) {
+        String flightKey = email + "|" + endpoint + "|" + hash(payload);
+        String replayKey = (idempotencyKey == null || idempotencyKey.isBlank())
+                ? null
+                : flightKey + "|" + idempotencyKey;
+
+        // 1. 이미 완료된 동일 Idempotency-Key 요청이면 저장된 결과 재사용
+        if (replayKey != null) {
+            CompletedResult previous = findCompleted(replayKey);
+            if (previous != null) {
+                replayed.increment();
+                log.info("Idempotency-Key 재요청 - 저장된 결과 반환: {} {}", email, endpoint);
+                return (T) previous.result();
+            }
+        }
+
+        // 2. 같은 요청이 처리 중이면 그 결과를 함께 기다림
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, mine);
+        if (running != null) {
+            coalesced.increment();
+            log.info("중복 요청 병합 - 진행 중인 요청 결과를 기다립니다: {} {}", email, endpoint);
+            return (T) await(running);
+        }
+
+        // 3. 최초 요청만 실제로 실행
+        try {
+            executed.increment();
+            T result = action.get();
+            mine.complete(result);
+            if (replayKey != null) {
+                synchronized (completed) {
+                    completed.put(replayKey, new CompletedResult(result, System.currentTimeMillis() + replayWindowMillis));
+                }
+            }
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    private CompletedResult findCompleted(String replayKey) {
+        synchronized (completed) {
+            CompletedResult previous = completed.get(replayKey);
+            if (previous == null) return null;
+            if (previous.expiresAtMillis() < System.currentTimeMillis()) {
+                completed.remove(replayKey);
+                return null;
+            }
+            return previous;
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private String hash(Object payload) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (Exception e) {
+            // 직렬화할 수 없는 본문은 문자열 표현으로 대체
+            byte[] text = String.valueOf(payload).getBytes(StandardCharsets.UTF_8);
+            return Integer.toHexString(Arrays.hashCode(text));
+        }
+    }
+
+    private record CompletedResult(Object result, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,100 @@
+package org.tukorea.com.grad.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 키워드를 한 번에 찾는 Aho–Corasick 오토마톤
+ * - 키워드 수와 상관없이 본문을 한 번만 훑어 포함된 키워드 번호(생성 시 순서)를 BitSet 으로 돌려줍니다.
+ * - 만든 뒤에는 읽기만 하므로 여러 스레드에서 함께 써도 됩니다.
+ */
+final class KeywordMatcher {
+
+    private final List<String> keywords;
+    private final List<Map<Character, Integer>> next = new ArrayList<>();
+    private final List<Integer> fail = new ArrayList<>();
+    private final List<BitSet> output = new ArrayList<>();
+
+    KeywordMatcher(List<String> keywords) {
+        this.keywords = List.copyOf(keywords);
+        newNode();
+        for (int i = 0; i < this.keywords.size(); i++) {
+            String keyword = this.keywords.get(i);
+            // 빈 키워드는 contains("") 처럼 어디에나 있는 것으로 봄 (match 에서 처리)
+            if (keyword.isEmpty()) continue;
+            int node = 0;
+            for (int c = 0; c < keyword.length(); c++) {
+                Integer child = next.get(node).get(keyword.charAt(c));
+                if (child == null) {
+                    child = newNode();
+                    next.get(node).put(keyword.charAt(c), child);
+                }
+                node = child;
+            }
+            output.get(node).set(i);
+        }
+        linkFailures();
+    }
+
+    List<String> keywords() {
+        return keywords;
+    }
+
+    /**
+     * text 에 들어 있는 키워드 번호
+     */
+    BitSet match(CharSequence text) {
+        BitSet found = new BitSet(keywords.size());
+        for (int i = 0; i < keywords.size(); i++) {
+            if (keywords.get(i).isEmpty()) found.set(i);
+        }
+        if (text == null) return found;
+
+        int node = 0;
+        for (int c = 0; c < text.length(); c++) {
+            node = step(node, text.charAt(c));
+            found.or(output.get(node));
+        }
+        return found;
+    }
+
+    private int step(int node, char ch) {
+        while (true) {
+            Integer child = next.get(node).get(ch);
+            if (child != null) return child;
+            if (node == 0) return 0;
+            node = fail.get(node);
+        }
+    }
+
+    // 실패 링크는 BFS 로 (얕은 노드부터) 연결하고, 실패 링크 쪽 출력도 합쳐 둠
+    private void linkFailures() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : next.get(0).values()) {
+            fail.set(child, 0);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : next.get(node).entrySet()) {
+                int child = edge.getValue();
+                int target = step(fail.get(node), edge.getKey());
+                fail.set(child, target);
+                output.get(child).or(output.get(target));
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newNode() {
+        next.add(new HashMap<>());
+        fail.add(0);
+        output.add(new BitSet());
+        return next.size() - 1;
+    }
+}
@@ -1,10 +1,6 @@
 package org.tukorea.com.grad.backend.service;
 
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
@@ -12,103 +8,358 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.tukorea.com.grad.backend.dto.RoadmapRequestDto;
 import org.tukorea.com.grad.backend.entity.Roadmap;
 import org.tukorea.com.grad.backend.entity.User;
+import org.tukorea.com.grad.backend.llm.LlmCallSite;
+import org.tukorea.com.grad.backend.llm.LlmJson;
+import org.tukorea.com.grad.backend.llm.LlmRouter;
+import org.tukorea.com.grad.backend.llm.LlmRequest;
+import org.tukorea.com.grad.backend.llm.LlmResponse;
+import org.tukorea.com.grad.backend.llm.PromptRegistry;
+import org.tukorea.com.grad.backend.llm.PromptTemplate;
+import org.tukorea.com.grad.backend.llm.StreamingJsonSplitter;
+import org.tukorea.com.grad.backend.llm.TokenCounter;
+import org.tukorea.com.grad.backend.llm.schema.Analysis;
+import org.tukorea.com.grad.backend.llm.schema.FeedbackResult;
+import org.tukorea.com.grad.backend.llm.schema.PersonalizeResult;
+import org.tukorea.com.grad.backend.llm.schema.RoadmapResult;
+import org.tukorea.com.grad.backend.llm.schema.SemesterPlan;
 import org.tukorea.com.grad.backend.repository.RoadmapRepository;
+import org.tukorea.com.grad.backend.resilience.OutboundDependency;
+import org.tukorea.com.grad.backend.resilience.OutboundGuard;
+import org.tukorea.com.grad.backend.resilience.RequestDeadline;
 import org.tukorea.com.grad.backend.repository.UserRepository;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MajorService {
 
-    @Value("${openai.api.key}")
-    private String apiKey;
-
     private final UserRepository userRepository;
     private final RoadmapRepository roadmapRepository;
+    private final LlmRouter llmRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboundGuard outboundGuard;
+    private final TokenCounter tokenCounter;
+    private final RoadmapDigester roadmapDigester;
+    private final PromptRegistry promptRegistry;
+    private final RoadmapTemplateService roadmapTemplateService;
+    private final LlmJson llmJson;
+
+    // SSE 연결 최대 유지 시간
+    @Value("${openai.stream.emitter-timeout-ms:120000}")
+    private long streamTimeoutMs;
+
+    // 개인화 시 공통 로드맵에서 바꿀 수 있는 최대 활동 수
+    @Value("${ai.roadmap-template.max-swaps:3}")
+    private int maxSwaps;
+
+    // 야간 일괄 결산으로 미리 만든 피드백을 사용자의 결산 요청에 재사용할지
+    @Value("${ai.feedback-batch.reuse-for-live:true}")
+    private boolean reuseBatchFeedback;
+
+    // 로드맵 분석 전체 마감 시간 (요청 마감 시간이 더 짧으면 그쪽을 따름)
+    @Value("${ai.analyze.deadline-ms:90000}")
+    private long analyzeDeadlineMs;
+
+    // 로드맵 생성과 뉴스 조회를 동시에 실행하는 스레드 (대부분 외부 응답 대기)
+    private final AtomicInteger fanOutThreads = new AtomicInteger();
+    private final ExecutorService fanOutExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "major-fanout-" + fanOutThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .configure(JsonParser.Feature.ALLOW_COMMENTS, true)
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final String FEEDBACK_LIVE = "LIVE";
+    private static final String FEEDBACK_BATCH = "BATCH";
 
     /**
      * 1. 로드맵 분석 및 저장
+     * - 코호트 공통 로드맵이 있으면 짧은 개인화 호출만, 없거나 실패하면 전체 로드맵을 생성합니다.
+     * - GPT 호출 중에는 DB 트랜잭션을 잡지 않고, 응답을 받은 뒤 짧은 트랜잭션으로만 저장합니다.
+     * - 로드맵 생성과 뉴스 조회는 서로 기다리지 않고 동시에 실행하며, 하나의 마감 시간(ai.analyze.deadline-ms)을 공유합니다.
+     *   마감까지 끝나지 않은 쪽은 중단하고 빠진 채로(예: 뉴스 없이) 응답합니다.
      */
-    @Transactional
     public Map<String, Object> analyze(RoadmapRequestDto request, String email) {
+        // 없는 사용자에게 GPT 비용을 쓰지 않도록 조회는 먼저 (GPT 호출은 시작하면 취소해도 과금됨)
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다: " + email));
 
-        String systemRole = "너는 IT/엔지니어링 전문 상위 1% 커리어 컨설턴트야. 사용자의 정보를 분석해 매우 구체적이고 실무적인 로드맵과 피드백을 JSON으로 제공해.";
-
-        // 🔥 [프롬프트 수정] 시작점을 건너뛰지 못하도록 강력하게 강제!
-        String userPrompt = String.format(
-                "너는 IT 대기업 채용 팀장 출신의 1급 커리어 빌더야. 사용자의 현재 위치와 목표 기업 사이의 Gap을 분석하고, 합격할 수밖에 없는 '완주형 로드맵'을 설계해.\n\n" +
-
-                        "**[사용자 프로필]**\n" +
-                        "- 전공: %s / 현재: %s %s / 목표 직무: %s (%s)\n" +
-                        "- 기술 스택: %s / 수강 과목: %s\n" +
-                        "- 현재 스펙: 학점(%s), 어학(%s), 자격증(%s), 프로젝트(%s)\n\n" +
-
-                        "**[로드맵 생성 규칙 - 절대 누락 금지]**\n" +
-                        "1. **시작점 강제 고정**: 로드맵 배열의 첫 번째 항목은 무조건 입력받은 현재 시점인 '%s %s'가 되어야 해! 현재 학기를 건너뛰지 말고 첫 번째로 넣은 후, 여기서부터 졸업(4학년 겨울방학)까지 '단 하나의 시기도 빠뜨리지 말고' 모두 순서대로 작성해.\n" +
-                        "2. **학년 명시 필수 (중요)**: '여름방학', '겨울방학'이라고 단독으로 쓰지 말고, 반드시 **'1학년 여름방학', '2학년 겨울방학'**처럼 앞에 해당 학년을 명시해! (예: [2학년 1학기, 2학년 여름방학, 2학년 2학기...])\n" +
-                        "3. **3학기 표기 금지**: 한국 대학 체계에 맞춰 'n학년 n학기' 또는 'n학년 여름/겨울방학'으로만 표기해.\n" +
-                        "4. **구체적 리소스**: '공부하세요' 대신 '인프런 OOO 강의 완강', '백준 Gold 티어 달성', '%s 기업 기술 블로그 분석' 등 수치와 고유명사를 사용해.\n\n" +
-
-                        "**[JSON 응답 규격]**:\n" +
-                        "{\n" +
-                        "  \"semesterPlans\": [\n" +
-                        "    { \"grade\": \"예: 2학년 여름방학 (반드시 학년 포함)\", \"goal\": [\"해당 시기의 핵심 목표 2개\"], \"courses\": [\"추천 전공 과목\"], \"activities\": [\"구체적인 실행 활동 3개\"] }\n" +
-                        "  ],\n" +
-                        "  \"analysis\": {\n" +
-                        "    \"overallReview\": \"현재 위치에 대한 냉철하고 날카로운 분석 (300자 내외)\",\n" +
-                        "    \"strengths\": [\"현재 데이터에서 찾아낸 강점 2개\"],\n" +
-                        "    \"gaps\": {\n" +
-                        "       \"owned\": [\"현재 보유한 핵심 역량\"],\n" +
-                        "       \"missing\": [{ \"name\": \"부족한 기술 역량\", \"method\": \"구체적인 보완 방법(도서/강의명 포함)\" }],\n" +
-                        "       \"aiFeedback\": \"목표 기업 합격을 위한 전략적 총평 (500자 이상)\"\n" +
-                        "    },\n" +
-                        "    \"topMissions\": [\"당장 다음 달까지 끝내야 할 필살 미션 3개\"],\n" +
-                        "    \"recommendedResources\": [{ \"type\": \"도서/강의 등\", \"title\": \"제목\", \"reason\": \"이유\" }]\n" +
-                        "  }\n" +
-                        "}",
-                request.getMajor(), request.getGrade(), request.getSemester(), request.getTargetJob(),
-                request.getTargetCompany(),
-                request.getTechStacks(), request.getCourses(),
-                request.getGpa(), request.getLanguage(), request.getCurrentSpecs(), request.getProjects(),
-                request.getGrade(), request.getSemester(), request.getTargetCompany());
-        
-        Map<String, Object> gptResult = getGptResponse(systemRole, userPrompt);
-        if (gptResult == null) gptResult = new HashMap<>();
+        long budgetMillis = RequestDeadline.cap(analyzeDeadlineMs);
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        Future<RoadmapResult> roadmapTask = fork(() -> generateRoadmap(request), budgetMillis);
+        Future<List<Map<String, String>>> newsTask = fork(() -> getMajorNews(request.getTargetJob()), budgetMillis);
 
         try {
-            if (gptResult.containsKey("semesterPlans")) {
-                request.setRoadmapJson(objectMapper.writeValueAsString(gptResult.get("semesterPlans")));
+            Map<String, Object> result = new HashMap<>();
+            RoadmapResult roadmap = await(roadmapTask, deadlineNanos, "로드맵 생성");
+            if (roadmap != null) {
+                applyAnalyzeResult(request, roadmap);
+                result.put("semesterPlans", roadmap.semesterPlans());
+                result.put("analysis", roadmap.analysis());
             }
-            if (gptResult.containsKey("analysis")) {
-                request.setAnalysisResult(objectMapper.writeValueAsString(gptResult.get("analysis")));
+            transactionTemplate.executeWithoutResult(status -> saveOrUpdateRoadmap(user, request));
+
+            List<Map<String, String>> newsList = await(newsTask, deadlineNanos, "뉴스 조회");
+            result.put("newsList", newsList != null ? newsList : List.of());
+            return result;
+        } finally {
+            // 저장 실패 등으로 먼저 빠져나가면 남은 작업도 중단 (이미 끝난 작업은 영향 없음)
+            roadmapTask.cancel(true);
+            newsTask.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    // 코호트 공통 로드맵 개인화, 없거나 실패하면 전체 생성 (둘 다 실패하면 null)
+    // 공통 로드맵이 없으면 백그라운드에서 만들어 두기만 하고 이 요청은 바로 전체 생성
+    private RoadmapResult generateRoadmap(RoadmapRequestDto request) {
+        RoadmapResult roadmap = null;
+        List<SemesterPlan> basePlans = roadmapTemplateService.basePlans(request);
+        if (basePlans != null) {
+            roadmap = personalize(basePlans, complete(personalizeRequest(request, basePlans), PersonalizeResult.class));
+        }
+        if (roadmap == null && !Thread.currentThread().isInterrupted()) {
+            roadmap = complete(analyzeRequest(request), RoadmapResult.class);
+        }
+        return roadmap;
+    }
+
+    // 작업 스레드에서 실행 (요청 스레드의 마감 시간을 이어서 적용 -> 외부 호출 타임아웃도 그 안으로 제한)
+    private <T> Future<T> fork(Callable<T> task, long deadlineMillis) {
+        return fanOutExecutor.submit(() -> {
+            RequestDeadline.start(deadlineMillis);
+            try {
+                return task.call();
+            } finally {
+                RequestDeadline.clear();
             }
-        } catch (Exception e) {
-            log.error("JSON 변환 실패", e);
+        });
+    }
+
+    // fork 의 비동기 버전 (결과를 기다리는 동안 스레드를 잡지 않음) - 취소되거나 시간 초과되면 작업 스레드도 중단
+    private <T> CompletableFuture<T> forkAsync(Callable<T> task, long deadlineMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = fork(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+            return null;
+        }, deadlineMillis);
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) running.cancel(true);
+        });
+        return result;
+    }
+
+    // 마감 시각까지만 기다림 - 시간 초과/실패는 null (부분 결과로 응답)
+    private <T> T await(Future<T> task, long deadlineNanos, String name) {
+        try {
+            return task.get(Math.max(1, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            log.warn("로드맵 분석 중 {} 시간 초과 - 해당 결과 없이 응답합니다.", name);
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("로드맵 분석 중 {} 실패 - 해당 결과 없이 응답합니다: {}", name, e.getCause().getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("로드맵 분석이 중단되었습니다.", e);
         }
+    }
 
-        saveOrUpdateRoadmap(user, request);
+    /**
+     * 1-1. 로드맵 분석 스트리밍 버전 (SSE)
+     * - semesterPlans 원소가 하나 완성될 때마다 "semester" 이벤트, analysis 가 완성되면 "analysis" 이벤트
+     * - 생성이 끝나면 기존과 동일하게 saveOrUpdateRoadmap 으로 저장한 뒤 "news", "done" 이벤트를 보냅니다.
+     *   (뉴스는 생성 시작과 동시에 미리 조회해 두고, 생성이 끝날 때까지 못 받으면 빈 목록)
+     * - 코호트 공통 로드맵이 이미 있으면 개인화 호출만 스트리밍하고, 끝난 뒤 "semester" 이벤트를 한꺼번에 보냅니다.
+     *   (첫 응답이 늦어지지 않도록 스트리밍 경로에서는 공통 로드맵을 새로 만들지 않음)
+     *   개인화 응답이 올바르지 않으면 전체 생성을 이어서 스트리밍합니다. ("analysis" 이벤트가 다시 올 수 있음)
+     */
+    public SseEmitter analyzeStream(RoadmapRequestDto request, String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("사용자를 찾을 수 없습니다: " + email));
 
-        List<Map<String, String>> newsList = getMajorNews(request.getTargetJob());
-        gptResult.put("newsList", newsList);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        emitter.onTimeout(() -> cancelled.set(true));
+        emitter.onError(e -> cancelled.set(true));
 
-        return gptResult;
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(streamTimeoutMs);
+        CompletableFuture<List<Map<String, String>>> newsTask = forkAsync(() -> getMajorNews(request.getTargetJob()), streamTimeoutMs);
+
+        List<SemesterPlan> basePlans = roadmapTemplateService.findBasePlans(request);
+        CompletableFuture<RoadmapResult> roadmapFuture = basePlans == null
+                ? streamFullRoadmap(request, emitter, cancelled)
+                : llmRouter.streamAsync(personalizeRequest(request, basePlans), roadmapSplitter(emitter, cancelled)::feed, cancelled::get)
+                        .handle((content, error) -> {
+                            if (error != null) {
+                                log.warn("로드맵 개인화 스트리밍 실패: {}", error.getMessage());
+                                return null;
+                            }
+                            return personalize(basePlans, parseOrNull(content, PersonalizeResult.class));
+                        })
+                        .thenCompose(roadmap -> {
+                            if (roadmap != null) {
+                                for (SemesterPlan plan : roadmap.semesterPlans()) {
+                                    sendEvent(emitter, cancelled, "semester", plan);
+                                }
+                                return CompletableFuture.completedFuture(roadmap);
+                            }
+                            if (cancelled.get()) return CompletableFuture.completedFuture(null);
+                            return streamFullRoadmap(request, emitter, cancelled);
+                        });
+
+        roadmapFuture
+                .whenComplete((roadmap, error) -> {
+                    if (cancelled.get() || error != null) newsTask.cancel(true);
+                    if (cancelled.get()) return;
+                    if (error != null) {
+                        log.error("로드맵 스트리밍 실패", error);
+                        sendEvent(emitter, cancelled, "error", Map.of("message", "AI 로드맵 생성 중 오류가 발생했습니다."));
+                        emitter.complete();
+                        return;
+                    }
+                    try {
+                        if (roadmap == null) throw new IllegalStateException("로드맵 JSON 파싱 실패");
+                        applyAnalyzeResult(request, roadmap);
+                        transactionTemplate.executeWithoutResult(status -> saveOrUpdateRoadmap(user, request));
+                    } catch (Exception e) {
+                        newsTask.cancel(true);
+                        log.error("로드맵 스트리밍 결과 저장 실패", e);
+                        emitter.completeWithError(e);
+                        return;
+                    }
+
+                    // 뉴스는 기다리며 스트림 스레드를 잡지 않고, 도착하거나 마감되면 이어서 전송
+                    newsTask.orTimeout(Math.max(1, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)
+                            .handle((newsList, newsError) -> {
+                                if (newsError != null) {
+                                    log.warn("로드맵 분석 중 뉴스 조회 실패 또는 시간 초과 - 뉴스 없이 응답합니다: {}", newsError.toString());
+                                }
+                                return newsList != null ? newsList : List.<Map<String, String>>of();
+                            })
+                            .thenAcceptAsync(newsList -> {
+                                sendEvent(emitter, cancelled, "news", newsList);
+                                sendEvent(emitter, cancelled, "done", Map.of("saved", true));
+                                emitter.complete();
+                            }, fanOutExecutor)
+                            .exceptionally(e -> {
+                                log.warn("로드맵 스트리밍 마무리 전송 실패: {}", e.getMessage());
+                                emitter.completeWithError(e);
+                                return null;
+                            });
+                });
+
+        return emitter;
+    }
+
+    // 전체 로드맵 생성 스트리밍 (결과 JSON 파싱에 실패하면 null)
+    private CompletableFuture<RoadmapResult> streamFullRoadmap(RoadmapRequestDto request, SseEmitter emitter, AtomicBoolean cancelled) {
+        return llmRouter.streamAsync(analyzeRequest(request), roadmapSplitter(emitter, cancelled)::feed, cancelled::get)
+                .thenApply(content -> parseOrNull(content, RoadmapResult.class));
+    }
+
+    // 스트리밍 응답에서 semesterPlans 원소 / analysis 가 완성될 때마다 SSE 이벤트 전송
+    private StreamingJsonSplitter roadmapSplitter(SseEmitter emitter, AtomicBoolean cancelled) {
+        return new StreamingJsonSplitter(new StreamingJsonSplitter.Listener() {
+            @Override
+            public void onArrayElement(String field, String elementJson) {
+                if (!"semesterPlans".equals(field)) return;
+                SemesterPlan plan = parseOrNull(elementJson, SemesterPlan.class);
+                if (plan != null) {
+                    sendEvent(emitter, cancelled, "semester", plan);
+                }
+            }
+
+            @Override
+            public void onValue(String field, String valueJson) {
+                if (!"analysis".equals(field)) return;
+                Analysis analysis = parseOrNull(valueJson, Analysis.class);
+                if (analysis != null) {
+                    sendEvent(emitter, cancelled, "analysis", analysis);
+                }
+            }
+        });
+    }
+
+    // 로드맵 생성 요청 (고정 지시문/스키마는 템플릿 system 부분, 사용자 프로필은 맨 뒤)
+    private LlmRequest analyzeRequest(RoadmapRequestDto request) {
+        return jsonRequest(promptRegistry.request(LlmCallSite.MAJOR_ANALYZE, PromptRegistry.values(
+                "grade", request.getGrade(),
+                "semester", request.getSemester(),
+                "major", request.getMajor(),
+                "targetJob", request.getTargetJob(),
+                "targetCompany", request.getTargetCompany(),
+                "techStacks", request.getTechStacks(),
+                "courses", request.getCourses(),
+                "gpa", request.getGpa(),
+                "language", request.getLanguage(),
+                "currentSpecs", request.getCurrentSpecs(),
+                "projects", request.getProjects())));
+    }
+
+    // 공통 로드맵 개인화 요청 (공통 로드맵은 코호트끼리 같으므로 사용자 프로필보다 앞에)
+    private LlmRequest personalizeRequest(RoadmapRequestDto request, List<SemesterPlan> basePlans) {
+        return jsonRequest(promptRegistry.request(LlmCallSite.MAJOR_PERSONALIZE, PromptRegistry.values(
+                "basePlans", llmJson.write(basePlans),
+                "grade", request.getGrade(),
+                "semester", request.getSemester(),
+                "major", request.getMajor(),
+                "targetJob", request.getTargetJob(),
+                "targetCompany", request.getTargetCompany(),
+                "techStacks", request.getTechStacks(),
+                "courses", request.getCourses(),
+                "gpa", request.getGpa(),
+                "language", request.getLanguage(),
+                "currentSpecs", request.getCurrentSpecs(),
+                "projects", request.getProjects())));
+    }
+
+    // 개인화 응답(swaps + analysis)을 전체 생성과 같은 형태로 변환, 실패 시 null
+    private RoadmapResult personalize(List<SemesterPlan> basePlans, PersonalizeResult personalized) {
+        if (personalized == null) {
+            log.warn("로드맵 개인화 응답이 올바르지 않아 전체 생성으로 대체합니다.");
+            return null;
+        }
+        return new RoadmapResult(roadmapTemplateService.applySwaps(basePlans, personalized.swaps(), maxSwaps),
+                personalized.analysis());
+    }
+
+    private void applyAnalyzeResult(RoadmapRequestDto request, RoadmapResult roadmap) {
+        request.setRoadmapJson(llmJson.write(roadmap.semesterPlans()));
+        request.setAnalysisResult(llmJson.write(roadmap.analysis()));
     }
 
     /**
@@ -172,39 +423,74 @@ public class MajorService {
         roadmapRepository.save(roadmap);
     }
 
-    private Map<String, Object> getGptResponse(String systemRole, String userPrompt) {
+    /**
+     * 결산 프롬프트에 넣을 진행 상황 (roadmapJson 원문 대신 RoadmapDigester 요약)
+     * - 토큰 예산(llm.sites.major-feedback.max-prompt-tokens)을 넘으면 뒤쪽(학기별 요약)부터 잘림
+     * - 요약에 실패하면(형식이 다른 JSON) 원문 앞부분을 사용
+     */
+    private String buildProgressSection(String roadmapJson, String finishedGrade, String fixedPrompt) {
+        String digest = roadmapDigester.digest(roadmapJson, finishedGrade);
+        // 토큰 수는 이 호출 위치에 설정된 모델(llm.sites.major-feedback.primary-model)의 인코딩으로 계산
+        String model = llmRouter.modelFor(LlmCallSite.MAJOR_FEEDBACK, "gpt-4o");
+        if (digest == null) {
+            log.warn("로드맵 진행 요약 실패 - roadmapJson 원문을 사용합니다.");
+        } else if (log.isDebugEnabled()) {
+            log.debug("로드맵 진행 요약 - 원문 {} tokens -> 요약 {} tokens",
+                    tokenCounter.count(model, roadmapJson), tokenCounter.count(model, digest));
+        }
+
+        return tokenCounter.budget(LlmCallSite.MAJOR_FEEDBACK, model, 8000)
+                .fixed(fixedPrompt)
+                .section("progress", digest != null ? digest : roadmapJson, 0, true)
+                .fit()
+                .getOrEmpty("progress");
+    }
+
+    // GPT 호출 후 응답을 type 으로 읽음 (LlmJson 복구까지 실패하면 null -> 호출한 쪽에서 대체 경로)
+    private <T> T complete(LlmRequest llmRequest, Class<T> type) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("model", "gpt-4o");
-            body.put("messages", Arrays.asList(
-                    Map.of("role", "system", "content", systemRole),
-                    Map.of("role", "user", "content", userPrompt)));
-            body.put("temperature", 0.2);
-            body.put("response_format", Map.of("type", "json_object")); // 필수: JSON 형식 강제
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    "https://api.openai.com/v1/chat/completions", entity, String.class);
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String content = root.path("choices").get(0).path("message").path("content").asText();
-            return objectMapper.readValue(content, new TypeReference<Map<String, Object>>() {});
+            LlmResponse response = llmRouter.complete(llmRequest.toBuilder().responseType(type).build());
+            return llmJson.parse(response.getContent(), type);
         } catch (Exception e) {
             log.error("GPT 호출 실패", e);
             return null;
         }
     }
 
+    private LlmRequest jsonRequest(LlmRequest.LlmRequestBuilder builder) {
+        return builder
+                .model("gpt-4o")
+                .temperature(0.2)
+                .jsonMode(true) // 필수: JSON 형식 강제
+                .build();
+    }
+
+    private <T> T parseOrNull(String json, Class<T> type) {
+        try {
+            return llmJson.parse(json, type);
+        } catch (Exception e) {
+            log.warn("JSON 파싱 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void sendEvent(SseEmitter emitter, AtomicBoolean cancelled, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트 연결 끊김 -> 스트림 중단 신호
+            cancelled.set(true);
+            throw new IllegalStateException("SSE 전송 실패 (클라이언트 연결 종료)", e);
+        }
+    }
+
     public List<Map<String, String>> getMajorNews(String keyword) {
         List<Map<String, String>> newsList = new ArrayList<>();
         try {
             String query = URLEncoder.encode(keyword + " 채용", StandardCharsets.UTF_8);
             String url = "https://news.google.com/rss/search?q=" + query + "&hl=ko&gl=KR&ceid=KR:ko";
-            Document doc = Jsoup.connect(url).userAgent("Mozilla/5.0").timeout(5000).get();
+            Document doc = outboundGuard.call(OutboundDependency.NEWS_RSS, () ->
+                    Jsoup.connect(url).userAgent("Mozilla/5.0").timeout(outboundGuard.timeoutMillis(5000)).get());
             Elements items = doc.select("item");
             for (int i = 0; i < Math.min(items.size(), 4); i++) {
                 Element item = items.get(i);
@@ -215,57 +501,88 @@ public class MajorService {
                 news.put("link", item.select("link").text());
                 newsList.add(news);
             }
-        } catch (Exception e) { log.error("뉴스 크롤링 실패", e); }
+        } catch (Exception e) { log.error("뉴스 크롤링 실패: {}", e.getMessage()); }
         return newsList;
     }
 
     /**
      * 4. 피드백 갱신 (학기 결산 시 호출)
+     * - GPT 응답을 받은 뒤에만 짧은 트랜잭션으로 저장합니다. (갱신 성공 여부 반환)
+     * - 같은 학기 피드백을 야간 일괄 결산이 같은 체크 상태(진행 상태 해시)로 이미 만들어 두었으면 GPT 를 다시 부르지 않고 진행 상황만 저장합니다.
      */
-    @Transactional
-    public void refreshFeedback(String email, String roadmapJson, String finishedGrade) {
+    public boolean refreshFeedback(String email, String roadmapJson, String finishedGrade) {
+        return refreshFeedback(email, roadmapJson, finishedGrade, false);
+    }
+
+    /**
+     * 4-1. 야간 일괄 결산 (SemesterFeedbackBatch) - 저장된 진행 상황으로 피드백을 미리 만들어 둡니다.
+     */
+    public boolean refreshFeedbackBatch(String email, String finishedGrade) {
+        return refreshFeedback(email, null, finishedGrade, true);
+    }
+
+    private boolean refreshFeedback(String email, String roadmapJson, String finishedGrade, boolean batch) {
         User user = userRepository.findByEmail(email).orElseThrow();
         Roadmap roadmap = roadmapRepository.findByUser(user).orElseThrow();
 
-        String systemRole = "너는 IT/엔지니어링 전문 상위 1% 커리어 컨설턴트야. 사용자의 진행 정보를 분석해 매우 구체적이고 실무적인 피드백을 JSON으로 제공해.";
-        
-        String userPrompt = String.format(
-            "사용자의 목표 직무는 '%s'야. 방금 '%s' 학기를 결산했어.\n" +
-            "현재까지의 로드맵 진행 데이터(JSON)는 다음과 같아:\n%s\n\n" +
-            "내가 완료(isCompleted: true)한 항목과 미완료(isCompleted: false)한 항목을 분석해서, " +
-            "**다음 학기를 위해 당장 시작해야 할 새로운 핵심 미션 3가지와 리소스**를 추천해줘.\n\n" +
-            "**[중요: 아래 JSON 형식을 글자 하나 틀리지 말고 출력할 것]**:\n" +
-            "{\n" +
-            "  \"analysis\": {\n" +
-            "    \"overallReview\": \"결산 결과에 따른 냉철한 총평 (200자 내외)\",\n" +
-            "    \"strengths\": [\"결산 데이터에서 새로 발견된 강점 2개\"],\n" +
-            "    \"gaps\": {\n" +
-            "       \"owned\": [\"현재 보유 역량\"],\n" +
-            "       \"missing\": [{ \"name\": \"부족 역량\", \"method\": \"해결책\" }],\n" +
-            "       \"aiFeedback\": \"다음 학기를 위한 조언 (300자 내외)\"\n" +
-            "    },\n" +
-            "    \"topMissions\": [\"다음 학기 최우선 핵심 미션 1\", \"미션 2\", \"미션 3\"],\n" +
-            "    \"recommendedResources\": [\n" +
-            "       { \"type\": \"인터넷 강의\", \"title\": \"구체적인 강의명(예: 인프런 OOO)\", \"reason\": \"추천 이유\" }\n" +
-            "    ]\n" +
-            "  }\n" +
-            "}",
-            roadmap.getTargetJob(), finishedGrade, roadmapJson
-        );
-
-        Map<String, Object> gptResult = getGptResponse(systemRole, userPrompt);
+        // 일괄 결산은 저장된 체크 상태 사용
+        String progressJson = roadmapJson != null ? roadmapJson : roadmap.getRoadmapJson();
+        String progressHash = Roadmap.progressHashOf(roadmapDigester.progressState(progressJson, finishedGrade));
+
+        // 일괄 결산 이후 체크 상태가 바뀌었으면(해시 불일치) 재사용하지 않고 새로 생성 (결산하는 학기의 isFinished 는 비교하지 않음)
+        if (!batch && reuseBatchFeedback && FEEDBACK_BATCH.equals(roadmap.getFeedbackSource())
+                && RoadmapDigester.sameGrade(finishedGrade, roadmap.getFeedbackFinishedGrade())
+                && progressHash != null && progressHash.equals(roadmap.getFeedbackProgressHash())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Roadmap latest = roadmapRepository.findByUser(user).orElseThrow();
+                if (roadmapJson != null) latest.setRoadmapJson(roadmapJson);
+                latest.setFeedbackSource(FEEDBACK_LIVE); // 한 번만 재사용 (다시 결산하면 새로 생성)
+            });
+            log.info("일괄 결산 피드백 재사용 - {} ({})", email, finishedGrade);
+            return true;
+        }
+
+        if (progressJson == null) {
+            log.warn("⚠️ 결산할 로드맵 진행 정보가 없습니다. - {}", email);
+            return false;
+        }
+
+        PromptTemplate template = promptRegistry.get(LlmCallSite.MAJOR_FEEDBACK);
+
+        // roadmapJson 원문(화면 구조) 대신 완료/미완료 요약만 전달
+        String fixedPrompt = template.getSystemPrompt() + template.renderUser(
+                PromptRegistry.values("targetJob", roadmap.getTargetJob(), "finishedGrade", finishedGrade, "progress", ""));
+        String progress = buildProgressSection(progressJson, finishedGrade, fixedPrompt);
+
+        LlmRequest llmRequest = jsonRequest(promptRegistry.request(LlmCallSite.MAJOR_FEEDBACK, PromptRegistry.values(
+                "targetJob", roadmap.getTargetJob(),
+                "finishedGrade", finishedGrade,
+                "progress", progress)));
+
+        FeedbackResult feedback = complete(llmRequest, FeedbackResult.class);
         
-        if (gptResult != null && gptResult.containsKey("analysis")) {
+        if (feedback != null) {
             try {
-                roadmap.setRoadmapJson(roadmapJson); 
-                roadmap.setAnalysisResult(objectMapper.writeValueAsString(gptResult.get("analysis")));
-                roadmapRepository.save(roadmap);
+                String analysisJson = llmJson.write(feedback.analysis());
+                transactionTemplate.executeWithoutResult(status -> {
+                    // GPT 를 기다리는 동안 바뀌었을 수 있으므로 트랜잭션 안에서 다시 읽어서 갱신
+                    Roadmap latest = roadmapRepository.findByUser(user).orElseThrow();
+                    if (roadmapJson != null) latest.setRoadmapJson(roadmapJson);
+                    latest.setAnalysisResult(analysisJson);
+                    latest.setFeedbackRefreshedAt(LocalDateTime.now());
+                    latest.setFeedbackFinishedGrade(finishedGrade);
+                    latest.setFeedbackSource(batch ? FEEDBACK_BATCH : FEEDBACK_LIVE);
+                    latest.setFeedbackProgressHash(progressHash);
+                });
                 log.info("✅ 새로운 AI 피드백 갱신 완료!");
+                return true;
             } catch (Exception e) { 
                 log.error("❌ 피드백 갱신(DB 저장) 실패: {}", e.getMessage()); 
             }
         } else {
-            log.warn("⚠️ GPT 응답에 'analysis' 데이터가 없습니다.");
+            log.warn("⚠️ GPT 결산 응답이 올바르지 않습니다. (analysis 누락 또는 JSON 오류)");
         }
+        return false;
     }
+
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.stereotype.Service;
 import org.tukorea.com.grad.backend.dto.NewsDto;
+import org.tukorea.com.grad.backend.resilience.OutboundDependency;
+import org.tukorea.com.grad.backend.resilience.OutboundGuard;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -20,6 +22,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NewsService {
 
+    private final OutboundGuard outboundGuard;
+
     public List<NewsDto> searchNews(String keyword) {
         List<NewsDto> newsList = new ArrayList<>();
         try {
@@ -31,11 +35,11 @@ public class NewsService {
             
             log.info("뉴스 검색 요청 URL: {}", rssUrl);
 
-            // 3. Jsoup으로 XML 데이터 파싱
-            Document doc = Jsoup.connect(rssUrl)
+            // 3. Jsoup으로 XML 데이터 파싱 (뉴스 RSS 동시 호출 한도 / 서킷 브레이커 적용)
+            Document doc = outboundGuard.call(OutboundDependency.NEWS_RSS, () -> Jsoup.connect(rssUrl)
                     .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
-                    .timeout(5000)
-                    .get();
+                    .timeout(outboundGuard.timeoutMillis(5000))
+                    .get());
 
             // 4. <item> 태그들 추출 (각각의 기사)
             Elements items = doc.select("item");
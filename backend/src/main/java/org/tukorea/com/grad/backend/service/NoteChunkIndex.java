@@ -0,0 +1,176 @@
+package org.tukorea.com.grad.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 사용자 한 명의 학습 노트 BM25 검색 인덱스 (메모리)
+ * - 노트를 문단 단위로 묶어 chunkChars 이하 조각(chunk)으로 나눈 뒤 조각 단위로 검색합니다.
+ * - 한글은 조사/어미가 붙어도 맞도록 글자 2-gram, 영문/숫자는 소문자 단어 단위로 색인합니다.
+ * - 노트 추가/수정/삭제 시 해당 노트의 조각만 교체합니다.
+ */
+class NoteChunkIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final int chunkChars;
+
+    private final Map<Long, List<Chunk>> chunksByNote = new HashMap<>();
+    private final Map<String, Set<Chunk>> postings = new HashMap<>();
+    private long totalLength;
+    private int chunkCount;
+
+    NoteChunkIndex(int chunkChars) {
+        this.chunkChars = Math.max(200, chunkChars);
+    }
+
+    synchronized void upsert(Long noteId, String title, String content) {
+        remove(noteId);
+
+        List<Chunk> chunks = new ArrayList<>();
+        int seq = 0;
+        for (String text : split(content == null ? "" : content)) {
+            // 제목도 검색되도록 각 조각에 함께 색인
+            Map<String, Integer> termFreqs = new HashMap<>();
+            int length = 0;
+            for (String term : tokenize((title == null ? "" : title) + " " + text)) {
+                termFreqs.merge(term, 1, Integer::sum);
+                length++;
+            }
+            Chunk chunk = new Chunk(noteId, seq++, title, text, termFreqs, length);
+            chunks.add(chunk);
+            termFreqs.keySet().forEach(term -> postings.computeIfAbsent(term, key -> new HashSet<>()).add(chunk));
+            totalLength += length;
+            chunkCount++;
+        }
+        chunksByNote.put(noteId, chunks);
+    }
+
+    synchronized void remove(Long noteId) {
+        List<Chunk> chunks = chunksByNote.remove(noteId);
+        if (chunks == null) return;
+        for (Chunk chunk : chunks) {
+            for (String term : chunk.termFreqs.keySet()) {
+                Set<Chunk> posting = postings.get(term);
+                if (posting == null) continue;
+                posting.remove(chunk);
+                if (posting.isEmpty()) postings.remove(term);
+            }
+            totalLength -= chunk.length;
+            chunkCount--;
+        }
+    }
+
+    /**
+     * @param preferredNoteId 사용자가 보고 있는 노트 (점수 가중치 boost 적용, 없으면 null)
+     */
+    synchronized List<Chunk> search(String query, int topK, Long preferredNoteId, double boost) {
+        if (chunkCount == 0) return List.of();
+
+        double avgLength = (double) totalLength / chunkCount;
+        Map<Chunk, Double> scores = new HashMap<>();
+        for (String term : new HashSet<>(tokenize(query))) {
+            Set<Chunk> posting = postings.get(term);
+            if (posting == null) continue;
+            double idf = Math.log(1 + (chunkCount - posting.size() + 0.5) / (posting.size() + 0.5));
+            for (Chunk chunk : posting) {
+                int tf = chunk.termFreqs.get(term);
+                double norm = tf + K1 * (1 - B + B * chunk.length / avgLength);
+                scores.merge(chunk, idf * tf * (K1 + 1) / norm, Double::sum);
+            }
+        }
+        if (preferredNoteId != null) {
+            scores.replaceAll((chunk, score) -> chunk.noteId.equals(preferredNoteId) ? score * boost : score);
+        }
+
+        // 점수 내림차순, 같으면 노트/조각 순서 (항상 같은 결과 -> 캐시 키 안정)
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Chunk, Double>comparingByValue().reversed()
+                        .thenComparing(entry -> entry.getKey().noteId)
+                        .thenComparing(entry -> entry.getKey().seq))
+                .limit(topK)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    synchronized List<Chunk> chunksOf(Long noteId) {
+        return List.copyOf(chunksByNote.getOrDefault(noteId, List.of()));
+    }
+
+    // 문단을 chunkChars 이하로 묶고, 긴 문단은 자름
+    List<String> split(String content) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : content.split("\\n\\s*\\n")) {
+            String trimmed = paragraph.strip();
+            if (trimmed.isEmpty()) continue;
+
+            if (current.length() > 0 && current.length() + trimmed.length() + 2 > chunkChars) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            while (trimmed.length() > chunkChars) {
+                if (current.length() > 0) {
+                    chunks.add(current.toString());
+                    current.setLength(0);
+                }
+                chunks.add(trimmed.substring(0, chunkChars));
+                trimmed = trimmed.substring(chunkChars);
+            }
+            if (current.length() > 0) current.append("\n\n");
+            current.append(trimmed);
+        }
+        if (current.length() > 0) chunks.add(current.toString());
+        return chunks;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            if (containsHangul(word)) {
+                if (word.length() == 1) {
+                    terms.add(word);
+                    continue;
+                }
+                for (int i = 0; i + 1 < word.length(); i++) {
+                    terms.add(word.substring(i, i + 2));
+                }
+            } else if (word.length() > 1 || Character.isDigit(word.charAt(0))) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static boolean containsHangul(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.UnicodeScript.of(word.charAt(i)) == Character.UnicodeScript.HANGUL) return true;
+        }
+        return false;
+    }
+
+    static final class Chunk {
+        final Long noteId;
+        final int seq;
+        final String title;
+        final String text;
+        final Map<String, Integer> termFreqs;
+        final int length;
+
+        Chunk(Long noteId, int seq, String title, String text, Map<String, Integer> termFreqs, int length) {
+            this.noteId = noteId;
+            this.seq = seq;
+            this.title = title;
+            this.text = text;
+            this.termFreqs = termFreqs;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.tukorea.com.grad.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.entity.StudyNote;
+import org.tukorea.com.grad.backend.repository.StudyNoteRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * AI 질문용 학습 노트 검색 (사용자별 BM25 인덱스를 메모리에 보관)
+ * - 사용자가 처음 질문할 때 그 사용자의 노트 전체로 인덱스를 만들고,
+ *   이후에는 StudyNoteService 의 생성/수정/삭제(커밋 후)마다 해당 노트만 갱신합니다.
+ * - 인덱스를 만드는 동안(DB 조회 중) 들어온 변경은 모아 두었다가, 조회한 노트를 넣은 뒤 순서대로 다시 적용합니다.
+ *   (조회 직후에 커밋된 노트가 빠진 인덱스가 계속 쓰이지 않도록)
+ * - 최근에 사용한 ai.notes.index.max-users 명까지만 보관합니다. (LRU)
+ */
+@Slf4j
+@Component
+public class NoteRetriever {
+
+    private final StudyNoteRepository noteRepository;
+    private final int chunkChars;
+    private final int maxUsers;
+
+    private final Map<Long, NoteChunkIndex> indexes;
+
+    // 인덱스를 만드는 중인 사용자 (indexes 락으로 보호)
+    private final Map<Long, Loading> loading = new HashMap<>();
+
+    public NoteRetriever(StudyNoteRepository noteRepository,
+                         @Value("${ai.notes.chunk-chars:800}") int chunkChars,
+                         @Value("${ai.notes.index.max-users:500}") int maxUsers) {
+        this.noteRepository = noteRepository;
+        this.chunkChars = chunkChars;
+        this.maxUsers = maxUsers;
+        this.indexes = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NoteChunkIndex> eldest) {
+                return size() > NoteRetriever.this.maxUsers;
+            }
+        };
+    }
+
+    /**
+     * 질문과 관련된 노트 조각 상위 topK 개
+     * @param preferredNoteId 사용자가 보고 있는 노트 (있으면 가중치 부여)
+     */
+    public List<NoteChunk> search(Long userId, String question, int topK, Long preferredNoteId, double boost) {
+        return indexFor(userId).search(question, topK, preferredNoteId, boost).stream()
+                .map(chunk -> new NoteChunk(chunk.noteId, chunk.title, chunk.text))
+                .toList();
+    }
+
+    /**
+     * 검색어와 겹치는 조각이 없을 때 보고 있는 노트의 앞부분 조각을 사용
+     */
+    public List<NoteChunk> firstChunks(Long userId, Long noteId, int limit) {
+        return indexFor(userId).chunksOf(noteId).stream()
+                .limit(limit)
+                .map(chunk -> new NoteChunk(chunk.noteId, chunk.title, chunk.text))
+                .toList();
+    }
+
+    // 노트 생성/수정 후 (이미 인덱스가 있거나 만드는 중인 사용자만 갱신, 없으면 다음 검색 때 새로 만듦)
+    public void onNoteSaved(Long userId, Long noteId, String title, String content) {
+        apply(userId, index -> index.upsert(noteId, title, content));
+    }
+
+    public void onNoteDeleted(Long userId, Long noteId) {
+        apply(userId, index -> index.remove(noteId));
+    }
+
+    private void apply(Long userId, Consumer<NoteChunkIndex> change) {
+        NoteChunkIndex index;
+        synchronized (indexes) {
+            Loading pending = loading.get(userId);
+            if (pending != null) {
+                pending.changes.add(change); // 만드는 중 -> 완성된 뒤 적용
+                return;
+            }
+            index = indexes.get(userId);
+        }
+        if (index != null) change.accept(index);
+    }
+
+    private NoteChunkIndex indexFor(Long userId) {
+        Loading mine = new Loading();
+        Loading running;
+        synchronized (indexes) {
+            NoteChunkIndex index = indexes.get(userId);
+            if (index != null) return index;
+            running = loading.putIfAbsent(userId, mine);
+        }
+        if (running != null) {
+            return await(running); // 같은 사용자의 인덱스를 다른 요청이 만드는 중
+        }
+
+        // DB 조회는 락 밖에서 (조회 중 들어온 변경은 mine.changes 에 쌓임)
+        try {
+            NoteChunkIndex built = new NoteChunkIndex(chunkChars);
+            List<StudyNote> notes = noteRepository.findAllByUser_IdOrderByCreatedAtDesc(userId);
+            notes.forEach(note -> built.upsert(note.getNoteId(), note.getTitle(), note.getContent()));
+            log.debug("노트 검색 인덱스 생성 - userId: {}, 노트 {}개", userId, notes.size());
+
+            synchronized (indexes) {
+                mine.changes.forEach(change -> change.accept(built));
+                loading.remove(userId, mine);
+                indexes.put(userId, built);
+            }
+            mine.result.complete(built);
+            return built;
+        } catch (RuntimeException e) {
+            synchronized (indexes) {
+                loading.remove(userId, mine);
+            }
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private NoteChunkIndex await(Loading running) {
+        try {
+            return running.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    public record NoteChunk(Long noteId, String title, String text) {
+    }
+
+    private static final class Loading {
+        private final List<Consumer<NoteChunkIndex>> changes = new ArrayList<>();
+        private final CompletableFuture<NoteChunkIndex> result = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,504 @@
+package org.tukorea.com.grad.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.tukorea.com.grad.backend.resilience.OutboundDependency;
+import org.tukorea.com.grad.backend.resilience.OutboundGuard;
+import org.tukorea.com.grad.backend.resilience.RequestDeadline;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 비교과 공지 이미지 썸네일
+ * - 학교 홈페이지의 원본 포스터(수 MB)를 한 번만 받아 정해진 폭(tukorea.thumbnails.widths)의 JPEG 로 줄여
+ *   디스크에 저장하고, 이후에는 저장된 파일로 응답합니다. refresh-after-hours 가 지나면 원본을 다시 받습니다.
+ * - 파일 이름에 썸네일 내용의 해시가 들어가므로 한 번 쓴 파일의 내용은 바뀌지 않고, 같은 해시를 ETag 로 씁니다.
+ * - 디스크 캐시는 max-cache-bytes 를 넘으면 가장 오래 쓰지 않은 항목부터 색인에서 빼고, 파일은 delete-grace-ms 뒤에 지웁니다.
+ *   (Tomcat sendfile 은 컨트롤러가 반환한 뒤에 파일을 열기 때문에 바로 지우면 응답 중인 파일이 사라질 수 있음)
+ * - 같은 이미지에 대한 동시 요청은 한 번만 받아서 줄이고 결과를 나눠 씁니다.
+ * - 디코딩은 max-concurrent-decodes 개까지만 동시에 하고, 큰 원본은 필요한 해상도로 건너뛰며 읽습니다. (힙 사용량 제한)
+ * - 허용한 호스트(allowed-hosts)의 이미지만 받습니다. (임의 URL 프록시가 되지 않도록, 리다이렉트도 따라가지 않음)
+ */
+@Slf4j
+@Service
+public class NoticeThumbnailService {
+
+    static final String PATH = "/api/tukorea/thumbnails";
+
+    // 원본 헤더의 해상도 상한 (이보다 크면 읽지 않음) / 실제로 메모리에 풀어 두는 해상도 상한 (INT_RGB 기준 약 32MB)
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+    private static final long MAX_DECODED_PIXELS = 8_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    // {URL 해시}-{폭}-{내용 해시}.jpg
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{40}-[0-9]+)-([0-9a-f]{16})\\.jpg");
+
+    private final OutboundGuard outboundGuard;
+    private final List<String> allowedHosts;
+    private final List<Integer> widths;
+    private final int defaultWidth;
+    private final Path cacheDir;
+    private final long maxCacheBytes;
+    private final int maxSourceBytes;
+    private final long refreshAfterMillis;
+    private final long deleteGraceMillis;
+    private final Semaphore decodePermits;
+
+    // {URL 해시}-{폭} -> 현재 파일 (접근 순서, 맨 앞이 가장 오래 쓰지 않은 항목)
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes = 0;
+    // 색인에서 뺐지만 아직 지우지 않은 파일 -> 지워도 되는 시각 (System.currentTimeMillis)
+    private final Map<String, Long> retired = new LinkedHashMap<>();
+
+    // 원본 URL 해시 -> 썸네일 생성 중인 작업
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public NoticeThumbnailService(OutboundGuard outboundGuard,
+                                  @Value("${tukorea.thumbnails.allowed-hosts:tukorea.ac.kr}") List<String> allowedHosts,
+                                  @Value("${tukorea.thumbnails.widths:240,480,960}") List<Integer> widths,
+                                  @Value("${tukorea.thumbnails.default-width:480}") int defaultWidth,
+                                  @Value("${tukorea.thumbnails.cache-dir:${java.io.tmpdir}/tukorea-thumbnails}") String cacheDir,
+                                  @Value("${tukorea.thumbnails.max-cache-bytes:268435456}") long maxCacheBytes,
+                                  @Value("${tukorea.thumbnails.max-source-bytes:20971520}") int maxSourceBytes,
+                                  @Value("${tukorea.thumbnails.refresh-after-hours:168}") long refreshAfterHours,
+                                  @Value("${tukorea.thumbnails.delete-grace-ms:60000}") long deleteGraceMillis,
+                                  @Value("${tukorea.thumbnails.max-concurrent-decodes:2}") int maxConcurrentDecodes) {
+        this.outboundGuard = outboundGuard;
+        this.allowedHosts = allowedHosts.stream().map(String::trim).filter(h -> !h.isEmpty()).toList();
+        this.widths = widths.stream().filter(w -> w > 0).distinct().sorted().toList();
+        this.defaultWidth = defaultWidth;
+        this.cacheDir = Paths.get(cacheDir);
+        this.maxCacheBytes = maxCacheBytes;
+        this.maxSourceBytes = maxSourceBytes;
+        this.refreshAfterMillis = TimeUnit.HOURS.toMillis(refreshAfterHours);
+        this.deleteGraceMillis = deleteGraceMillis;
+        this.decodePermits = new Semaphore(Math.max(1, maxConcurrentDecodes));
+        loadCache();
+    }
+
+    /**
+     * 공지 목록에 내려줄 썸네일 주소 (허용하지 않는 이미지면 null)
+     */
+    public String proxyUrl(String imageUrl) {
+        if (imageUrl == null || !isAllowed(imageUrl)) return null;
+        return UriComponentsBuilder.fromPath(PATH)
+                .queryParam("url", "{url}")
+                .queryParam("w", defaultWidth)
+                .encode()
+                .buildAndExpand(imageUrl)
+                .toUriString();
+    }
+
+    /**
+     * 요청한 폭에 가장 가까운 썸네일 (없거나 오래됐으면 원본을 받아 모든 폭을 만든 뒤)
+     * - 반환한 파일은 delete-grace-ms 동안은 지워지지 않습니다.
+     * - 잘못된 주소 / 허용하지 않는 호스트: IllegalArgumentException
+     * - 생성 대기열이 가득 참: RejectedExecutionException
+     * - 원본을 받지 못했거나 이미지로 읽을 수 없음: IllegalStateException, OutboundCallException, DependencyUnavailableException
+     */
+    public Thumbnail thumbnail(String imageUrl, Integer requestedWidth) {
+        if (imageUrl == null || !isAllowed(imageUrl)) {
+            throw new IllegalArgumentException("허용하지 않는 이미지 주소입니다.");
+        }
+        String key = sha256(imageUrl).substring(0, 40);
+        String slot = slot(key, snapWidth(requestedWidth));
+
+        Thumbnail cached = lookup(slot, true);
+        if (cached != null) return cached;
+
+        try {
+            generateOnce(imageUrl, key);
+        } catch (RuntimeException e) {
+            // 다시 만들지 못했으면 오래된 썸네일이라도 응답
+            Thumbnail stale = lookup(slot, false);
+            if (stale != null) return stale;
+            throw e;
+        }
+
+        Thumbnail created = lookup(slot, false);
+        if (created == null) {
+            // 만들자마자 다른 이미지 때문에 밀려난 경우 (캐시가 폭 수보다 작게 설정됨)
+            throw new IllegalStateException("썸네일 캐시 용량이 부족합니다.");
+        }
+        return created;
+    }
+
+    private void generateOnce(String imageUrl, String key) {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            awaitShared(running); // 다른 요청이 만드는 중 -> 끝나면 같은 파일 사용
+            return;
+        }
+        try {
+            generate(imageUrl, key);
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // 원본을 한 번 받아 큰 폭부터 차례로 줄이며 저장 (작은 폭은 바로 앞 결과에서 줄임)
+    private void generate(String imageUrl, String key) {
+        byte[] source = download(imageUrl);
+        acquireDecodePermit();
+        try {
+            BufferedImage image = decode(source, widths.get(widths.size() - 1));
+            for (int i = widths.size() - 1; i >= 0; i--) {
+                int width = widths.get(i);
+                image = downscale(image, width);
+                store(slot(key, width), image);
+            }
+        } finally {
+            decodePermits.release();
+        }
+        log.debug("썸네일 생성 - {}", imageUrl);
+    }
+
+    private byte[] download(String imageUrl) {
+        Connection.Response response = outboundGuard.call(OutboundDependency.TUKOREA, () -> Jsoup.connect(imageUrl)
+                .userAgent("Mozilla/5.0")
+                .timeout(outboundGuard.timeoutMillis(10000))
+                .ignoreContentType(true)
+                .followRedirects(false)
+                .maxBodySize(maxSourceBytes + 1)
+                .execute());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("원본 이미지 응답 " + response.statusCode());
+        }
+        byte[] body = response.bodyAsBytes();
+        if (body.length > maxSourceBytes) {
+            throw new IllegalStateException("원본 이미지가 너무 큽니다.");
+        }
+        return body;
+    }
+
+    private void acquireDecodePermit() {
+        try {
+            if (!decodePermits.tryAcquire(RequestDeadline.cap(10000), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("썸네일 생성 대기열이 가득 찼습니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("썸네일 생성 대기 중 중단되었습니다.");
+        }
+    }
+
+    /**
+     * 헤더로 해상도를 먼저 확인한 뒤, 가장 큰 썸네일 폭의 두 배 정도까지만 건너뛰며 디코딩
+     * (원본 포스터를 그대로 풀면 수백 MB 가 될 수 있음)
+     */
+    static BufferedImage decode(byte[] body, int largestWidth) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(body))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalStateException("지원하지 않는 이미지 형식입니다.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IllegalStateException("원본 이미지 해상도가 너무 큽니다.");
+                }
+                int step = subsampling(width, height, largestWidth);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("이미지를 읽을 수 없습니다: " + e.getMessage(), e);
+        }
+    }
+
+    // 건너뛸 간격: 폭은 largestWidth * 2 이상을 남기되, 풀어 둘 픽셀 수는 MAX_DECODED_PIXELS 이하로
+    static int subsampling(int width, int height, int largestWidth) {
+        int step = Math.max(1, width / (largestWidth * 2));
+        while ((long) ceilDiv(width, step) * ceilDiv(height, step) > MAX_DECODED_PIXELS) {
+            step++;
+        }
+        return step;
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * 절반씩 여러 번 줄임 (한 번에 크게 줄이면 bilinear 로는 글자가 뭉개짐), 원본보다 크게는 만들지 않음
+     * - 결과는 항상 불투명 RGB (JPEG 로 저장하므로 투명 배경은 흰색으로)
+     */
+    static BufferedImage downscale(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        if (source.getType() == BufferedImage.TYPE_INT_RGB && source.getWidth() == targetWidth) return source;
+
+        BufferedImage current = source;
+        do {
+            int w = Math.max(targetWidth, current.getWidth() / 2);
+            int h = w == targetWidth ? targetHeight : Math.max(1, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, Color.WHITE, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (current.getWidth() > targetWidth);
+        return current;
+    }
+
+    // 내용 해시를 붙인 이름으로 임시 파일에 쓴 뒤 이름을 바꿈 (한 번 쓴 이름의 내용은 바뀌지 않음)
+    private void store(String slot, BufferedImage image) {
+        byte[] jpeg = encode(image);
+        String file = slot + "-" + sha256(jpeg).substring(0, 16) + ".jpg";
+        Path target = cacheDir.resolve(file);
+        Path tmp = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tmp = Files.createTempFile(cacheDir, file, ".tmp");
+            Files.write(tmp, jpeg);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            admit(slot, new Entry(file, jpeg.length, System.currentTimeMillis()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("썸네일 저장 실패", e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // 다음 시작 때 정리됨
+                }
+            }
+        }
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("썸네일 인코딩 실패", e);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    // fresh 면 refresh-after 가 지난 항목은 없는 것으로 봄 (원본이 바뀌었을 수 있으니 다시 생성)
+    private synchronized Thumbnail lookup(String slot, boolean fresh) {
+        Entry entry = entries.get(slot);
+        if (entry == null) return null;
+        if (fresh && System.currentTimeMillis() - entry.createdAt() > refreshAfterMillis) return null;
+        Path path = cacheDir.resolve(entry.file());
+        if (!Files.isRegularFile(path)) {
+            entries.remove(slot);
+            cachedBytes -= entry.size();
+            return null;
+        }
+        String hash = entry.file().substring(slot.length() + 1, entry.file().length() - ".jpg".length());
+        return new Thumbnail(path, entry.size(), "\"" + hash + "\"");
+    }
+
+    private synchronized void admit(String slot, Entry entry) {
+        retired.remove(entry.file());
+        Entry previous = entries.put(slot, entry);
+        cachedBytes += entry.size();
+        if (previous != null) {
+            cachedBytes -= previous.size();
+            if (!previous.file().equals(entry.file())) retire(previous.file());
+        }
+        evict();
+    }
+
+    // 가장 오래 쓰지 않은 항목부터 색인에서 뺌 (파일은 purgeRetired 가 유예 시간 뒤에 지움)
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> oldest = entries.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && oldest.hasNext()) {
+            Entry entry = oldest.next().getValue();
+            cachedBytes -= entry.size();
+            oldest.remove();
+            retire(entry.file());
+        }
+    }
+
+    private void retire(String file) {
+        retired.put(file, System.currentTimeMillis() + deleteGraceMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${tukorea.thumbnails.delete-grace-ms:60000}")
+    public synchronized void purgeRetired() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> files = retired.entrySet().iterator();
+        while (files.hasNext()) {
+            Map.Entry<String, Long> file = files.next();
+            if (file.getValue() > now) continue;
+            try {
+                Files.deleteIfExists(cacheDir.resolve(file.getKey()));
+            } catch (IOException e) {
+                log.debug("썸네일 캐시 삭제 실패 ({}): {}", file.getKey(), e.getMessage());
+            }
+            files.remove();
+        }
+    }
+
+    // 서버 시작 시 남아 있는 캐시 파일을 수정 시각 순으로 다시 등록 (같은 항목의 예전 파일은 지움)
+    private synchronized void loadCache() {
+        try {
+            Files.createDirectories(cacheDir);
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                for (Path file : files.sorted(Comparator.comparing(NoticeThumbnailService::modifiedAt)).toList()) {
+                    String name = file.getFileName().toString();
+                    Matcher matcher = FILE_NAME.matcher(name);
+                    if (!matcher.matches()) {
+                        Files.deleteIfExists(file); // 임시 파일, 예전 형식의 파일
+                        continue;
+                    }
+                    Entry entry = new Entry(name, Files.size(file), modifiedAt(file));
+                    Entry previous = entries.put(matcher.group(1), entry);
+                    cachedBytes += entry.size();
+                    if (previous != null) {
+                        cachedBytes -= previous.size();
+                        Files.deleteIfExists(cacheDir.resolve(previous.file()));
+                    }
+                }
+            }
+            evict();
+            log.info("썸네일 캐시 {}개 ({} bytes) - {}", entries.size(), cachedBytes, cacheDir);
+        } catch (IOException e) {
+            log.warn("썸네일 캐시 디렉터리를 읽지 못했습니다 ({}): {}", cacheDir, e.getMessage());
+        }
+    }
+
+    private static long modifiedAt(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private boolean isAllowed(String imageUrl) {
+        URI uri;
+        try {
+            // 게시판 이미지 경로에 공백이 그대로 들어 있는 경우가 있음 (Jsoup 은 요청 시 알아서 인코딩)
+            uri = URI.create(imageUrl.replace(" ", "%20"));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if (host == null || uri.getUserInfo() != null) return false;
+        if (!"https".equalsIgnoreCase(scheme) && !"http".equalsIgnoreCase(scheme)) return false;
+        String lower = host.toLowerCase();
+        return allowedHosts.stream().anyMatch(allowed -> lower.equals(allowed) || lower.endsWith("." + allowed));
+    }
+
+    // 요청 폭 이상인 가장 작은 폭 (없으면 가장 큰 폭)
+    private int snapWidth(Integer requested) {
+        int width = requested == null ? defaultWidth : requested;
+        for (int candidate : widths) {
+            if (candidate >= width) return candidate;
+        }
+        return widths.get(widths.size() - 1);
+    }
+
+    // 다른 요청이 만드는 썸네일을 요청 마감 시간까지만 기다림
+    private static void awaitShared(CompletableFuture<Void> running) {
+        try {
+            running.get(RequestDeadline.cap(30000), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RejectedExecutionException("썸네일 생성 대기 시간이 초과되었습니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("썸네일 생성 대기 중 중단되었습니다.");
+        }
+    }
+
+    private static String slot(String key, int width) {
+        return key + "-" + width;
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String file, long size, long createdAt) {
+    }
+
+    /**
+     * 디스크에 저장된 썸네일 (etag 는 썸네일 내용의 해시)
+     */
+    public record Thumbnail(Path path, long size, String etag) {
+    }
+}
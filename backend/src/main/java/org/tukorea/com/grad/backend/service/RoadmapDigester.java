@@ -0,0 +1,188 @@
+package org.tukorea.com.grad.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 로드맵 진행 데이터(roadmapJson) -> 프롬프트용 간단한 진행 요약
+ * - roadmapJson 은 화면 구조 그대로라 GPT 에 넣으면 토큰이 많이 듭니다.
+ *   완료/미완료 항목, 달성률, 방금 결산한 학기의 상세만 텍스트로 정리합니다.
+ * - roadmapJson 형식: [{ grade, goal[], courses[], activities[], isFinished }]
+ *   각 항목은 "문자열" 또는 { content, isCompleted }
+ */
+@Component
+public class RoadmapDigester {
+
+    private static final String[][] CATEGORIES = {
+            {"goal", "목표"}, {"courses", "과목"}, {"activities", "활동"}
+    };
+    private static final int MAX_ITEM_LENGTH = 60;
+    private static final Pattern TERM = Pattern.compile("(\\d)\\s*학기"); // "2학년 1학기" -> 1
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param finishedGrade 방금 결산한 학기 (grade 값), 없으면 null
+     * @return 진행 요약 텍스트 (JSON 파싱에 실패하면 null)
+     */
+    public String digest(String roadmapJson, String finishedGrade) {
+        JsonNode semesters = parse(roadmapJson);
+        if (semesters == null) return null;
+
+        int totalItems = 0;
+        int completedItems = 0;
+        int finishedSemesters = 0;
+        JsonNode finishedSemester = null;
+        List<String> semesterLines = new ArrayList<>();
+
+        for (JsonNode semester : semesters) {
+            String grade = semester.path("grade").asText("");
+            boolean finished = semester.path("isFinished").asBoolean(false);
+            if (finished) finishedSemesters++;
+            // 방금 결산한 학기는 아래에 상세 항목으로 따로 정리하므로 학기별 요약 줄은 만들지 않음 (진행률에는 포함)
+            boolean justFinished = finishedSemester == null && sameGrade(finishedGrade, grade);
+            if (justFinished) finishedSemester = semester;
+
+            StringBuilder line = new StringBuilder("- ").append(grade).append(finished ? " (결산 완료)" : " (예정)").append(": ");
+            List<String> incomplete = new ArrayList<>();
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                int[] counts = count(semester.path(CATEGORIES[i][0]), incomplete);
+                totalItems += counts[1];
+                completedItems += counts[0];
+                if (i > 0) line.append(", ");
+                line.append(CATEGORIES[i][1]).append(' ').append(counts[0]).append('/').append(counts[1]);
+            }
+
+            // 지난 학기는 밀린 항목, 예정 학기는 목표만 간단히
+            if (finished && !incomplete.isEmpty()) {
+                line.append(" | 미완료: ").append(String.join(", ", incomplete));
+            } else if (!finished) {
+                List<String> goals = new ArrayList<>();
+                for (JsonNode goal : semester.path("goal")) goals.add(content(goal));
+                if (!goals.isEmpty()) line.append(" | 목표: ").append(String.join(", ", goals));
+            }
+            if (!justFinished) semesterLines.add(line.toString());
+        }
+
+        StringBuilder digest = new StringBuilder();
+        digest.append("[전체 진행률] 완료 항목 ").append(completedItems).append('/').append(totalItems)
+                .append(" (").append(percent(completedItems, totalItems)).append("%), 결산 완료 학기 ")
+                .append(finishedSemesters).append('/').append(semesters.size()).append('\n');
+
+        if (finishedSemester != null) {
+            digest.append("\n[방금 결산한 학기: ").append(finishedGrade).append("]\n");
+            for (String[] category : CATEGORIES) {
+                List<String> done = new ArrayList<>();
+                List<String> notDone = new ArrayList<>();
+                for (JsonNode item : finishedSemester.path(category[0])) {
+                    (isCompleted(item) ? done : notDone).add(content(item));
+                }
+                digest.append("- ").append(category[1])
+                        .append(" 완료: ").append(done.isEmpty() ? "없음" : String.join(", ", done))
+                        .append(" / 미완료: ").append(notDone.isEmpty() ? "없음" : String.join(", ", notDone))
+                        .append('\n');
+            }
+        }
+
+        digest.append("\n[학기별 요약]\n");
+        semesterLines.forEach(line -> digest.append(line).append('\n'));
+        return digest.toString();
+    }
+
+    /**
+     * 결산 피드백 재사용 판단용 진행 상태 (학기별 항목 완료 여부 + 결산 여부)
+     * - finishedGrade 학기의 isFinished 는 넣지 않습니다. 화면은 결산을 요청하기 직전에 그 학기를 isFinished=true 로 저장하므로
+     *   야간 일괄 결산(결산 전)과 사용자의 직접 결산(결산 후)이 같은 체크 상태면 같은 값이 나와야 합니다.
+     * @return JSON 파싱에 실패하면 null
+     */
+    public String progressState(String roadmapJson, String finishedGrade) {
+        JsonNode semesters = parse(roadmapJson);
+        if (semesters == null) return null;
+
+        StringBuilder state = new StringBuilder();
+        for (JsonNode semester : semesters) {
+            String grade = semester.path("grade").asText("");
+            state.append(grade.replaceAll("\\s+", ""));
+            if (!sameGrade(finishedGrade, grade)) {
+                state.append(semester.path("isFinished").asBoolean(false) ? "|결산" : "|예정");
+            }
+            for (String[] category : CATEGORIES) {
+                state.append('|').append(category[0]);
+                for (JsonNode item : semester.path(category[0])) {
+                    String text = item.isObject() ? item.path("content").asText("") : item.asText("");
+                    state.append('\u0000').append(text.strip()).append(isCompleted(item) ? "=1" : "=0");
+                }
+            }
+            state.append('\n');
+        }
+        return state.toString();
+    }
+
+    /**
+     * 이번에 결산할 학기 = 아직 결산하지 않은 학기 중 "n학년 {term}학기" 인 첫 학기 (방학은 제외)
+     * @param term 방금 끝난 학기 (1 또는 2)
+     * @return 해당 학기가 없거나 JSON 파싱에 실패하면 null
+     */
+    public String semesterToClose(String roadmapJson, int term) {
+        JsonNode semesters = parse(roadmapJson);
+        if (semesters == null) return null;
+
+        for (JsonNode semester : semesters) {
+            if (semester.path("isFinished").asBoolean(false)) continue;
+            String grade = semester.path("grade").asText("").strip();
+            Matcher matcher = TERM.matcher(grade);
+            if (matcher.find() && Integer.parseInt(matcher.group(1)) == term) return grade;
+        }
+        return null;
+    }
+
+    /**
+     * 같은 학기인지 ("2학년 1학기" 와 "2학년1학기" 를 같은 학기로)
+     */
+    static boolean sameGrade(String a, String b) {
+        if (a == null || b == null) return false;
+        return a.replaceAll("\\s+", "").equals(b.replaceAll("\\s+", ""));
+    }
+
+    private JsonNode parse(String roadmapJson) {
+        if (roadmapJson == null) return null;
+        try {
+            JsonNode semesters = objectMapper.readTree(roadmapJson);
+            return semesters != null && semesters.isArray() ? semesters : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // {완료 수, 전체 수}, 미완료 항목 이름은 incomplete 에 추가
+    private static int[] count(JsonNode items, List<String> incomplete) {
+        int done = 0;
+        int total = 0;
+        for (JsonNode item : items) {
+            total++;
+            if (isCompleted(item)) done++;
+            else incomplete.add(content(item));
+        }
+        return new int[]{done, total};
+    }
+
+    private static boolean isCompleted(JsonNode item) {
+        return item.isObject() && item.path("isCompleted").asBoolean(false);
+    }
+
+    private static String content(JsonNode item) {
+        String text = item.isObject() ? item.path("content").asText("") : item.asText("");
+        text = text.replaceAll("\\s+", " ").trim();
+        return text.length() > MAX_ITEM_LENGTH ? text.substring(0, MAX_ITEM_LENGTH) + "…" : text;
+    }
+
+    private static int percent(int part, int total) {
+        return total == 0 ? 0 : Math.round(part * 100f / total);
+    }
+}
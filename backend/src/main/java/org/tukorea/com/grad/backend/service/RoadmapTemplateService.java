@@ -0,0 +1,303 @@
+package org.tukorea.com.grad.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tukorea.com.grad.backend.dto.RoadmapRequestDto;
+import org.tukorea.com.grad.backend.entity.RoadmapTemplate;
+import org.tukorea.com.grad.backend.llm.LlmCallSite;
+import org.tukorea.com.grad.backend.llm.LlmJson;
+import org.tukorea.com.grad.backend.llm.LlmRequest;
+import org.tukorea.com.grad.backend.llm.LlmResponse;
+import org.tukorea.com.grad.backend.llm.LlmRouter;
+import org.tukorea.com.grad.backend.llm.PromptRegistry;
+import org.tukorea.com.grad.backend.llm.schema.PersonalizeResult;
+import org.tukorea.com.grad.backend.llm.schema.SemesterPlan;
+import org.tukorea.com.grad.backend.llm.schema.TemplateResult;
+import org.tukorea.com.grad.backend.repository.RoadmapTemplateRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 코호트(전공, 학년, 학기, 목표 직무) 공통 로드맵 관리
+ * - 코호트마다 학기별 계획 뼈대를 한 번만 생성해 roadmap_template 에 저장하고 모든 사용자가 공유합니다.
+ * - 사용자별 분석은 이 뼈대를 바탕으로 짧은 개인화 호출(major-personalize)만 수행합니다. (MajorService)
+ * - 템플릿이 없으면 요청은 기다리지 않고 전체 생성으로 진행하며, 템플릿은 백그라운드에서 만들어 다음 요청부터 사용합니다.
+ * - 만료된 템플릿은 요청 경로에서 그대로 쓰고, 스케줄러가 한가한 시간에 다시 생성합니다.
+ *
+ * 메트릭: roadmap.template.requests{result=hit|miss|error|skipped}, roadmap.template.generated
+ */
+@Slf4j
+@Service
+public class RoadmapTemplateService {
+
+    private final RoadmapTemplateRepository templateRepository;
+    private final LlmRouter llmRouter;
+    private final PromptRegistry promptRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final LlmJson llmJson;
+
+    // 같은 코호트 템플릿을 동시에 여러 번 생성하지 않도록 (서버 내)
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    // 백그라운드 템플릿 생성 (동시 생성 수와 대기열을 제한, 넘치면 다음 miss 때 다시 시도)
+    private final ThreadPoolExecutor generateExecutor;
+
+    private final boolean enabled;
+    private final long ttlHours;
+    private final int refreshBatchSize;
+    private final long retainUnusedDays;
+
+    public RoadmapTemplateService(RoadmapTemplateRepository templateRepository,
+                                  LlmRouter llmRouter,
+                                  PromptRegistry promptRegistry,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  LlmJson llmJson,
+                                  @Value("${ai.roadmap-template.enabled:true}") boolean enabled,
+                                  @Value("${ai.roadmap-template.ttl-hours:168}") long ttlHours,
+                                  @Value("${ai.roadmap-template.refresh-batch-size:20}") int refreshBatchSize,
+                                  @Value("${ai.roadmap-template.retain-unused-days:30}") long retainUnusedDays,
+                                  @Value("${ai.roadmap-template.background-generators:2}") int backgroundGenerators) {
+        this.templateRepository = templateRepository;
+        this.llmRouter = llmRouter;
+        this.promptRegistry = promptRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.llmJson = llmJson;
+        this.enabled = enabled;
+        this.ttlHours = ttlHours;
+        this.refreshBatchSize = refreshBatchSize;
+        this.retainUnusedDays = retainUnusedDays;
+
+        int generators = Math.max(1, backgroundGenerators);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.generateExecutor = new ThreadPoolExecutor(
+                generators, generators, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(generators * 8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "roadmap-template-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        generateExecutor.shutdownNow();
+    }
+
+    /**
+     * 1. 코호트 공통 학기별 계획
+     * - 없으면 백그라운드 생성만 걸어 두고 바로 null (호출한 쪽은 기다리지 않고 기존 전체 생성으로 진행)
+     * - 비활성화되었어도 null
+     */
+    public List<SemesterPlan> basePlans(RoadmapRequestDto request) {
+        if (!enabled) return null;
+
+        String cohortKey = cohortKey(request);
+        List<SemesterPlan> cached = findPlans(cohortKey);
+        if (cached != null) return cached;
+
+        meterRegistry.counter("roadmap.template.requests", "result", "miss").increment();
+        generateInBackground(cohortKey, request.getMajor(), request.getGrade(), request.getSemester(), request.getTargetJob());
+        return null;
+    }
+
+    /**
+     * 2. 이미 있는 템플릿만 조회 (생성하지 않음, 스트리밍처럼 첫 응답이 급한 경로용)
+     */
+    public List<SemesterPlan> findBasePlans(RoadmapRequestDto request) {
+        if (!enabled) return null;
+        List<SemesterPlan> cached = findPlans(cohortKey(request));
+        if (cached == null) {
+            meterRegistry.counter("roadmap.template.requests", "result", "miss").increment();
+        }
+        return cached;
+    }
+
+    /**
+     * 3. 개인화 결과(swaps)를 공통 계획에 적용한 새 목록 (공통 계획은 바꾸지 않음)
+     * - remove 와 같은 활동이 있으면 교체, 없으면 해당 시기에 추가 / 시기를 못 찾은 교체는 무시
+     */
+    public List<SemesterPlan> applySwaps(List<SemesterPlan> basePlans, List<PersonalizeResult.Swap> swaps, int maxSwaps) {
+        List<SemesterPlan> plans = new ArrayList<>(basePlans);
+
+        int applied = 0;
+        for (PersonalizeResult.Swap swap : swaps) {
+            if (applied >= maxSwaps) break;
+
+            String grade = normalize(swap.grade());
+            String remove = swap.remove() == null ? "" : swap.remove().strip();
+            String add = swap.add() == null ? "" : swap.add().strip();
+            if (add.isEmpty()) continue;
+
+            for (int i = 0; i < plans.size(); i++) {
+                SemesterPlan plan = plans.get(i);
+                if (!normalize(plan.grade()).equals(grade)) continue;
+
+                List<String> activities = new ArrayList<>(plan.activities());
+                int index = remove.isEmpty() ? -1 : activities.indexOf(remove);
+                if (index >= 0) {
+                    activities.set(index, add);
+                } else {
+                    activities.add(add);
+                }
+                plans.set(i, plan.withActivities(activities));
+                applied++;
+                break;
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * 4. 만료된 템플릿 재생성 (기본: 매일 새벽 4시)
+     * - 최근 retain-unused-days 안에 쓰인 코호트만 다시 만들고, 오래 안 쓰인 것은 삭제합니다.
+     */
+    @Scheduled(cron = "${ai.roadmap-template.refresh-cron:0 0 4 * * *}")
+    public void refreshExpired() {
+        if (!enabled) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime usedSince = now.minusDays(retainUnusedDays);
+        try {
+            int deleted = templateRepository.deleteExpiredUnused(now, usedSince);
+            if (deleted > 0) log.info("사용되지 않는 코호트 로드맵 {}건 삭제", deleted);
+
+            List<RoadmapTemplate> expired = templateRepository.findExpiredInUse(now, usedSince, PageRequest.of(0, refreshBatchSize));
+            int refreshed = 0;
+            for (RoadmapTemplate template : expired) {
+                if (generate(template.getCohortKey(), template.getMajor(), template.getGrade(),
+                        template.getSemester(), template.getTargetJob()) != null) {
+                    refreshed++;
+                }
+            }
+            if (!expired.isEmpty()) log.info("코호트 로드맵 재생성 {}/{}건", refreshed, expired.size());
+        } catch (Exception e) {
+            log.warn("코호트 로드맵 재생성 실패: {}", e.getMessage());
+        }
+    }
+
+    // 같은 코호트가 이미 생성 중이면 그대로 두고, 아니면 백그라운드 생성 시작 (대기열이 차면 건너뜀)
+    private void generateInBackground(String cohortKey, String major, String grade, String semester, String targetJob) {
+        if (!inFlight.add(cohortKey)) return;
+
+        try {
+            generateExecutor.execute(() -> {
+                try {
+                    generate(cohortKey, major, grade, semester, targetJob);
+                } finally {
+                    inFlight.remove(cohortKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(cohortKey);
+            meterRegistry.counter("roadmap.template.requests", "result", "skipped").increment();
+            log.debug("코호트 로드맵 생성 대기열이 가득 차 건너뜁니다. - {} / {}", major, targetJob);
+        }
+    }
+
+    private List<SemesterPlan> findPlans(String cohortKey) {
+        Optional<RoadmapTemplate> template = templateRepository.findById(cohortKey);
+        if (template.isEmpty()) return null;
+
+        List<SemesterPlan> plans;
+        try {
+            plans = llmJson.parseList(template.get().getSemesterPlans(), SemesterPlan.class);
+        } catch (Exception e) {
+            log.warn("코호트 로드맵 JSON 파싱 실패: {}", e.getMessage());
+            return null;
+        }
+        meterRegistry.counter("roadmap.template.requests", "result", "hit").increment();
+        templateRepository.touch(cohortKey, LocalDateTime.now());
+        return plans;
+    }
+
+    // GPT 로 공통 계획 생성 후 저장 (실패 시 null)
+    private List<SemesterPlan> generate(String cohortKey, String major, String grade, String semester, String targetJob) {
+        LlmRequest llmRequest = promptRegistry.request(LlmCallSite.ROADMAP_TEMPLATE, PromptRegistry.values(
+                        "major", major,
+                        "grade", grade,
+                        "semester", semester,
+                        "targetJob", targetJob))
+                .model("gpt-4o")
+                .temperature(0.2)
+                .jsonMode(true)
+                .responseType(TemplateResult.class)
+                .build();
+
+        try {
+            LlmResponse response = llmRouter.complete(llmRequest);
+            List<SemesterPlan> plans = llmJson.parse(response.getContent(), TemplateResult.class).semesterPlans();
+            String plansJson = llmJson.write(plans);
+
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                RoadmapTemplate template = templateRepository.findById(cohortKey)
+                        .orElse(RoadmapTemplate.builder().cohortKey(cohortKey).lastUsedAt(now).build());
+                template.setMajor(major);
+                template.setGrade(grade);
+                template.setSemester(semester);
+                template.setTargetJob(targetJob);
+                template.setSemesterPlans(plansJson);
+                template.setPromptTemplate(llmRequest.getPromptTemplate());
+                template.setGeneratedAt(now);
+                template.setExpiresAt(now.plusHours(ttlHours));
+                templateRepository.save(template);
+            });
+
+            meterRegistry.counter("roadmap.template.generated").increment();
+            log.info("코호트 로드맵 생성 - {} {} {} / {}", major, grade, semester, targetJob);
+            return plans;
+        } catch (Exception e) {
+            meterRegistry.counter("roadmap.template.requests", "result", "error").increment();
+            log.error("코호트 로드맵 생성 실패 ({} / {}): {}", major, targetJob, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 코호트 키 = SHA-256(정규화된 전공 | 학년 | 학기 | 목표 직무)
+     */
+    static String cohortKey(RoadmapRequestDto request) {
+        String material = normalize(request.getMajor())
+                + '\u0000' + normalize(request.getGrade())
+                + '\u0000' + normalize(request.getSemester())
+                + '\u0000' + normalize(request.getTargetJob());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 유니코드 NFKC + 소문자 + 공백 제거 ("2 학년" 과 "2학년" 을 같은 코호트로)
+    private static String normalize(String value) {
+        if (value == null) return "";
+        return Normalizer.normalize(value, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+    }
+}
@@ -0,0 +1,179 @@
+package org.tukorea.com.grad.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.tukorea.com.grad.backend.entity.AiJobType;
+import org.tukorea.com.grad.backend.entity.Roadmap;
+import org.tukorea.com.grad.backend.repository.RoadmapRepository;
+import org.tukorea.com.grad.backend.resilience.TokenBucketStore;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 학기 종료 후 결산 피드백 일괄 처리
+ * - 학기 종료일(semester-end-dates)이 지나면, 그 뒤로 피드백을 받지 않은 사용자마다 SEMESTER_FEEDBACK_BATCH 작업을 등록합니다.
+ *   결산할 학기는 로드맵(roadmapJson)에서 아직 결산하지 않은 그 학기(종료일 순서대로 1학기, 2학기)를 찾습니다.
+ *   (dedupKey 로 사용자 x 학기당 한 번만, 서버가 여러 대여도 중복 없음)
+ * - 작업은 ai_job 에 저장되므로 재시작 후에도 이어서 처리되고, AiJobWorker 가 한가한 시간(window)에만
+ *   분당 토큰 예산(tokens-per-minute) 안에서 하나씩 꺼내 실행합니다.
+ * - 사용자가 나중에 직접 결산하면 미리 만든 피드백을 그대로 사용합니다. (MajorService.refreshFeedback)
+ */
+@Slf4j
+@Component
+public class SemesterFeedbackBatch {
+
+    private static final int PAGE_SIZE = 200;
+
+    private final AiJobService aiJobService;
+    private final RoadmapRepository roadmapRepository;
+    private final RoadmapDigester roadmapDigester;
+    private final TokenBucketStore tokenBucketStore;
+
+    private final boolean enabled;
+    private final List<MonthDay> semesterEndDates = new ArrayList<>();
+    private final ZoneId zone;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final long enqueueWithinDays;
+    private final double tokensPerMinute;
+    private final double globalTokensPerMinute;
+    private final double estimatedTokensPerJob;
+
+    public SemesterFeedbackBatch(AiJobService aiJobService,
+                                 RoadmapRepository roadmapRepository,
+                                 RoadmapDigester roadmapDigester,
+                                 TokenBucketStore tokenBucketStore,
+                                 @Value("${ai.feedback-batch.enabled:true}") boolean enabled,
+                                 @Value("${ai.feedback-batch.semester-end-dates:06-21,12-21}") List<String> semesterEndDates,
+                                 @Value("${ai.feedback-batch.zone:Asia/Seoul}") String zone,
+                                 @Value("${ai.feedback-batch.window-start:01:00}") String windowStart,
+                                 @Value("${ai.feedback-batch.window-end:07:00}") String windowEnd,
+                                 @Value("${ai.feedback-batch.enqueue-within-days:45}") long enqueueWithinDays,
+                                 @Value("${ai.feedback-batch.tokens-per-minute:10000}") double tokensPerMinute,
+                                 @Value("${admission.global.tokens-per-minute:30000}") double globalTokensPerMinute,
+                                 @Value("${ai.feedback-batch.estimated-tokens-per-job:3000}") double estimatedTokensPerJob) {
+        this.aiJobService = aiJobService;
+        this.roadmapRepository = roadmapRepository;
+        this.roadmapDigester = roadmapDigester;
+        this.tokenBucketStore = tokenBucketStore;
+        this.enabled = enabled;
+        for (String date : semesterEndDates) {
+            this.semesterEndDates.add(MonthDay.parse("--" + date.strip()));
+        }
+        Collections.sort(this.semesterEndDates);
+        this.zone = ZoneId.of(zone);
+        this.windowStart = LocalTime.parse(windowStart);
+        this.windowEnd = LocalTime.parse(windowEnd);
+        this.enqueueWithinDays = enqueueWithinDays;
+        this.tokensPerMinute = tokensPerMinute;
+        this.globalTokensPerMinute = globalTokensPerMinute;
+        this.estimatedTokensPerJob = estimatedTokensPerJob;
+    }
+
+    /**
+     * 1. 결산 대상 등록 (기본: 매일 0시 30분)
+     * - 가장 최근 학기 종료일 이후 피드백을 받지 않은 로드맵마다 작업 하나
+     */
+    @Scheduled(cron = "${ai.feedback-batch.enqueue-cron:0 30 0 * * *}", zone = "${ai.feedback-batch.zone:Asia/Seoul}")
+    public void enqueueDue() {
+        if (!enabled) return;
+
+        LocalDate today = LocalDate.now(zone);
+        LocalDate endedOn = lastSemesterEnd(today);
+        if (endedOn.plusDays(enqueueWithinDays).isBefore(today)) return; // 학기 중에는 할 일 없음
+        int term = termOf(endedOn);
+
+        // DB 시간(LocalDateTime.now(), 서버 기본 시간대)과 같은 기준으로 비교
+        LocalDateTime endedAt = endedOn.plusDays(1).atStartOfDay(zone)
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        int queued = 0;
+        long afterId = 0;
+        try {
+            while (true) {
+                List<Roadmap> due = roadmapRepository.findFeedbackDue(endedAt, afterId, PageRequest.of(0, PAGE_SIZE));
+                for (Roadmap roadmap : due) {
+                    afterId = roadmap.getId();
+                    String email = roadmap.getUser().getEmail();
+                    // 프로필의 grade/semester 는 분석 당시 학기라 그 뒤 학기와 맞지 않음 -> 로드맵에서 이번에 끝난 학기를 찾음
+                    String finishedGrade = roadmapDigester.semesterToClose(roadmap.getRoadmapJson(), term);
+                    if (finishedGrade == null) continue;
+                    if (aiJobService.submitOnce(AiJobType.SEMESTER_FEEDBACK_BATCH, email,
+                            Map.of("finishedGrade", finishedGrade),
+                            "feedback-batch:" + email + ":" + endedOn)) {
+                        queued++;
+                    }
+                }
+                if (due.size() < PAGE_SIZE) break;
+            }
+        } catch (Exception e) {
+            log.warn("학기 결산 일괄 작업 등록 중단 ({}건 등록 후): {}", queued, e.getMessage());
+            return;
+        }
+        if (queued > 0) {
+            log.info("학기 결산 일괄 작업 {}건 등록 ({} 종료 학기)", queued, endedOn);
+        }
+    }
+
+    /**
+     * 2. 지금 일괄 작업을 실행해도 되는 시간인지 (window-start ~ window-end, 자정을 넘어가도 됨 / 둘이 같으면 종일)
+     */
+    public boolean inWindow() {
+        if (!enabled) return false;
+        LocalTime now = LocalTime.now(zone);
+        if (windowStart.isBefore(windowEnd)) {
+            return !now.isBefore(windowStart) && now.isBefore(windowEnd);
+        }
+        return !now.isBefore(windowStart) || now.isBefore(windowEnd);
+    }
+
+    /**
+     * 3. 작업 하나만큼 토큰 예산 차감 (일괄 전용 예산 + 실시간 요청과 공유하는 전역 예산 모두 여유가 있을 때만)
+     * - 여러 서버가 같은 예산을 나눠 씀 (admission.store)
+     */
+    public boolean tryAcquireBudget() {
+        List<TokenBucketStore.Bucket> buckets = new ArrayList<>();
+        buckets.add(new TokenBucketStore.Bucket("batch:semester-feedback",
+                tokensPerMinute, tokensPerMinute, estimatedTokensPerJob));
+        if (globalTokensPerMinute > 0) {
+            buckets.add(new TokenBucketStore.Bucket("global:llm",
+                    globalTokensPerMinute, globalTokensPerMinute, estimatedTokensPerJob));
+        }
+        try {
+            return tokenBucketStore.tryConsume(buckets) == 0;
+        } catch (Exception e) {
+            log.warn("일괄 결산 토큰 예산 확인 실패: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // 오늘 이전(오늘 포함)의 가장 최근 학기 종료일
+    LocalDate lastSemesterEnd(LocalDate today) {
+        LocalDate latest = null;
+        for (MonthDay endDate : semesterEndDates) {
+            for (int year = today.getYear() - 1; year <= today.getYear(); year++) {
+                LocalDate candidate = endDate.atYear(year);
+                if (!candidate.isAfter(today) && (latest == null || candidate.isAfter(latest))) {
+                    latest = candidate;
+                }
+            }
+        }
+        return latest == null ? today : latest;
+    }
+
+    // 끝난 학기 번호 (종료일을 날짜순으로 1학기, 2학기 ...)
+    int termOf(LocalDate endedOn) {
+        int index = semesterEndDates.indexOf(MonthDay.from(endedOn));
+        return index < 0 ? 1 : index + 1;
+    }
+}
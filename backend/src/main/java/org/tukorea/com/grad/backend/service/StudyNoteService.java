@@ -1,21 +1,36 @@
 package org.tukorea.com.grad.backend.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.tukorea.com.grad.backend.dto.NoteRequestDto;
 import org.tukorea.com.grad.backend.dto.NoteResponseDto;
 import org.tukorea.com.grad.backend.entity.StudyNote;
 import org.tukorea.com.grad.backend.entity.User;
+import org.tukorea.com.grad.backend.llm.LlmCallSite;
+import org.tukorea.com.grad.backend.llm.LlmRouter;
+import org.tukorea.com.grad.backend.llm.LlmRequest;
+import org.tukorea.com.grad.backend.llm.LlmResponse;
+import org.tukorea.com.grad.backend.llm.NearDuplicateAnswerCache;
+import org.tukorea.com.grad.backend.llm.PromptBudget;
+import org.tukorea.com.grad.backend.llm.TokenCounter;
 import org.tukorea.com.grad.backend.repository.StudyNoteRepository;
 import org.tukorea.com.grad.backend.repository.UserRepository;
 
-import java.util.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StudyNoteService {
@@ -23,9 +38,22 @@ public class StudyNoteService {
     private final StudyNoteRepository noteRepository;
     private final UserRepository userRepository;
 
-    // 🚨 환경변수에서 API 키 가져오기 (보안)
-    @Value("${openai.api.key}")
-    private String apiKey;
+    // 🚨 OpenAI 호출은 공용 게이트웨이를 통해 (커넥션 재사용 + 타임아웃)
+    private final LlmRouter llmRouter;
+    private final TokenCounter tokenCounter;
+    private final NoteRetriever noteRetriever;
+    private final NearDuplicateAnswerCache answerCache;
+
+    // AI 질문 시 프롬프트에 넣을 노트 조각 수 / 보고 있는 노트 가중치
+    @Value("${ai.notes.top-k:5}")
+    private int topK;
+
+    @Value("${ai.notes.selected-note-boost:1.5}")
+    private double selectedNoteBoost;
+
+    // SSE 연결 최대 유지 시간
+    @Value("${openai.stream.emitter-timeout-ms:120000}")
+    private long streamTimeoutMs;
 
     // 1. 노트 생성 (수정: 토큰에서 추출한 email로 유저 찾기)
     @Transactional
@@ -40,7 +68,9 @@ public class StudyNoteService {
                 .category(dto.getCategory())
                 .build();
 
-        return noteRepository.save(note).getNoteId();
+        StudyNote saved = noteRepository.save(note);
+        afterCommit(() -> noteRetriever.onNoteSaved(user.getId(), saved.getNoteId(), saved.getTitle(), saved.getContent()));
+        return saved.getNoteId();
     }
 
     // 2. 노트 조회 (수정: 토큰에서 추출한 email로 유저 찾기)
@@ -75,6 +105,8 @@ public class StudyNoteService {
                 .orElseThrow(() -> new IllegalArgumentException("해당 노트를 찾을 수 없습니다. id=" + noteId));
 
         note.update(dto.getTitle(), dto.getContent(), dto.getCategory());
+        Long userId = note.getUser().getId();
+        afterCommit(() -> noteRetriever.onNoteSaved(userId, noteId, dto.getTitle(), dto.getContent()));
     }
 
     // 4. 노트 삭제
@@ -83,47 +115,29 @@ public class StudyNoteService {
         StudyNote note = noteRepository.findById(noteId)
                 .orElseThrow(() -> new IllegalArgumentException("해당 노트를 찾을 수 없습니다. id=" + noteId));
         
+        Long userId = note.getUser().getId();
         noteRepository.delete(note);
+        afterCommit(() -> noteRetriever.onNoteDeleted(userId, noteId));
     }
 
     // 5. OpenAI API 호출
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    public String askAi(String content, String question) {
-        String url = "https://api.openai.com/v1/chat/completions";
-
+    // - 로그인 사용자: 전체 노트에서 질문과 관련된 조각만 검색해서 전달 (noteId 가 있으면 그 노트 우선)
+    // - 비로그인: 클라이언트가 보낸 noteContent 사용 (이전 방식)
+    // - 같은 노트 내용에 거의 같은 질문이 오면 캐시된 답변 재사용 (ai.tutor.similar-cache.*)
+    public String askAi(String email, String question, Long noteId, String noteContent) {
         try {
-            RestTemplate restTemplate = new RestTemplate();
-            
-            // 1. 헤더 설정
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey); // @Value로 안전하게 주입받은 키 사용
-
-            // 2. 요청 바디(프롬프트) 설정
-            String prompt = "학생의 전공 학습 노트 내용입니다:\n" + content + 
-                            "\n\n질문: " + question + 
-                            "\n위의 노트 내용을 바탕으로 친절하고 자세하게 답변해줘.";
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("model", "gpt-4o"); 
-            
-            List<Map<String, String>> messages = new ArrayList<>();
-            messages.add(Map.of("role", "system", "content", "당신은 컴퓨터공학 전공 튜터입니다."));
-            messages.add(Map.of("role", "user", "content", prompt));
-            
-            body.put("messages", messages);
-            body.put("temperature", 0.2);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-
-            // 3. API 호출
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
-
-            // 4. 응답 파싱 (@SuppressWarnings 덕분에 노란줄 안 생김)
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) response.getBody().get("choices");
-                Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                return (String) message.get("content");
+            String content = noteContext(email, question, noteId, noteContent);
+            NearDuplicateAnswerCache.Fingerprint fingerprint = answerCache.fingerprint(question, content);
+            Optional<String> cached = answerCache.get(fingerprint);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            LlmResponse response = llmRouter.complete(buildTutorRequest(content, question));
+
+            if (response.getContent() != null) {
+                answerCache.put(fingerprint, response.getContent());
+                return response.getContent();
             }
 
             return "AI 응답을 받지 못했습니다.";
@@ -133,4 +147,120 @@ public class StudyNoteService {
             return "AI 서버 통신 오류: " + e.getMessage();
         }
     }
-}
\ No newline at end of file
+
+    // 6. OpenAI API 스트리밍 호출 (SSE 로 토큰 단위 전달)
+    public SseEmitter askAiStream(String email, String question, Long noteId, String noteContent) {
+        String content = noteContext(email, question, noteId, noteContent);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        // 클라이언트가 연결을 끊으면(타임아웃/전송 실패 포함) 업스트림 생성도 중단
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        emitter.onTimeout(() -> cancelled.set(true));
+        emitter.onError(e -> cancelled.set(true));
+
+        // 캐시 적중 시 업스트림 호출 없이 한 번에 전달
+        NearDuplicateAnswerCache.Fingerprint fingerprint = answerCache.fingerprint(question, content);
+        Optional<String> cached = answerCache.get(fingerprint);
+        if (cached.isPresent()) {
+            try {
+                sendEvent(emitter, cancelled, "token", Map.of("content", cached.get()));
+                sendEvent(emitter, cancelled, "done", Map.of("length", cached.get().length()));
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                log.debug("캐시 답변 전송 중 연결 종료: {}", e.getMessage());
+            }
+            return emitter;
+        }
+
+        llmRouter.streamAsync(buildTutorRequest(content, question),
+                        token -> sendEvent(emitter, cancelled, "token", Map.of("content", token)),
+                        cancelled::get)
+                .whenComplete((answer, error) -> {
+                    if (cancelled.get()) return;
+                    if (error != null) {
+                        log.error("AI 스트리밍 실패: {}", error.getMessage());
+                        sendEvent(emitter, cancelled, "error", Map.of("message", "AI 서버 통신 오류"));
+                        emitter.complete();
+                        return;
+                    }
+                    answerCache.put(fingerprint, answer);
+                    sendEvent(emitter, cancelled, "done", Map.of("length", answer.length()));
+                    emitter.complete();
+                });
+
+        return emitter;
+    }
+
+    // 질문에 넣을 노트 내용 (BM25 상위 조각, 노트 제목 표시)
+    private String noteContext(String email, String question, Long noteId, String noteContent) {
+        User user = email == null ? null : userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            return noteContent == null ? "" : noteContent;
+        }
+
+        List<NoteRetriever.NoteChunk> chunks = noteRetriever.search(user.getId(), question, topK, noteId, selectedNoteBoost);
+        if (chunks.isEmpty() && noteId != null) {
+            chunks = noteRetriever.firstChunks(user.getId(), noteId, topK);
+        }
+        if (chunks.isEmpty()) {
+            return noteContent == null ? "(관련된 노트 내용을 찾지 못했습니다.)" : noteContent;
+        }
+
+        StringBuilder context = new StringBuilder();
+        for (NoteRetriever.NoteChunk chunk : chunks) {
+            context.append("[노트: ").append(chunk.title()).append("]\n").append(chunk.text()).append("\n\n");
+        }
+        return context.toString().strip();
+    }
+
+    // DB 반영이 확정된 뒤에만 검색 인덱스 갱신 (롤백 시 반영 안 함)
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private LlmRequest buildTutorRequest(String content, String question) {
+        String systemPrompt = "당신은 컴퓨터공학 전공 튜터입니다.";
+        String header = "학생의 전공 학습 노트 내용입니다:\n";
+        String footer = "\n위의 노트 내용을 바탕으로 친절하고 자세하게 답변해줘.";
+
+        // 긴 노트는 토큰 예산(llm.sites.note-tutor.max-prompt-tokens)에 맞춰 뒷부분을 잘라냄 (질문이 우선)
+        PromptBudget.Result budget = tokenCounter.budget(LlmCallSite.NOTE_TUTOR, llmRouter.modelFor(LlmCallSite.NOTE_TUTOR, "gpt-4o"), 6000)
+                .fixed(systemPrompt)
+                .fixed(header + "\n\n질문: " + footer)
+                .section("question", question, 0, true)
+                .section("note", content, 1, true)
+                .fit();
+
+        // 요청 프롬프트 설정
+        String prompt = header + budget.getOrEmpty("note") + 
+                        "\n\n질문: " + budget.getOrEmpty("question") + 
+                        footer;
+
+        return LlmRequest.builder()
+                .callSite(LlmCallSite.NOTE_TUTOR)
+                .model("gpt-4o")
+                .systemPrompt(systemPrompt)
+                .userPrompt(prompt)
+                .temperature(0.2)
+                .build();
+    }
+
+    private void sendEvent(SseEmitter emitter, AtomicBoolean cancelled, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트 연결 끊김 -> 스트림 중단 신호
+            cancelled.set(true);
+            throw new IllegalStateException("SSE 전송 실패 (클라이언트 연결 종료)", e);
+        }
+    }
+}
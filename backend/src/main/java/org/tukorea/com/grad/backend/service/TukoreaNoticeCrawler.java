@@ -0,0 +1,484 @@
+package org.tukorea.com.grad.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tukorea.com.grad.backend.entity.TukoreaNotice;
+import org.tukorea.com.grad.backend.repository.TukoreaNoticeRepository;
+import org.tukorea.com.grad.backend.repository.TukoreaNoticeRepository.SeenNotice;
+import org.tukorea.com.grad.backend.resilience.OutboundDependency;
+import org.tukorea.com.grad.backend.resilience.OutboundGuard;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 학교 홈페이지 비교과 공지 수집 (백그라운드)
+ * - 게시판을 max-pages 쪽까지 넘기며 상세 페이지를 가져와 tukorea_notice 에 저장하고, 끝나면 TukoreaService 사본을 갱신합니다.
+ * - 상세 페이지는 tukorea.detail.parallelism 개씩 동시에 가져오고, 요청 시작 간격은 politeness-delay-ms 이상으로 유지합니다.
+ *   (서버 전체 동시 호출 수는 OutboundGuard 의 resilience.dependencies.tukorea.max-concurrent-calls)
+ * - 학교 홈페이지가 응답하지 않아도 API 는 마지막으로 수집한 공지로 계속 응답합니다.
+ * - 증분 수집: 이미 수집한 공지는 revalidate-after-hours 가 지나야 다시 확인하고, 그때도 ETag / Last-Modified 로
+ *   조건부 요청(304 면 본문을 받지 않음)을 보냅니다. 다시 받은 본문도 contentHash 가 같으면 저장하지 않습니다.
+ *   게시판은 최신 글부터 나오므로 한 쪽 전체가 이미 수집한 공지면 다음 쪽은 넘기지 않습니다.
+ *
+ * 메트릭: tukorea.crawl.pages{result=fetched|not-modified|skipped|failed}, tukorea.crawl.notices{result=new|changed|unchanged}
+ */
+@Slf4j
+@Component
+public class TukoreaNoticeCrawler {
+
+    static final String BASE_URL = "https://www.tukorea.ac.kr";
+
+    // 등록일 표기 ("2025.03.02", "2025-03-02 10:00", "2025/3/2")
+    private static final Pattern POSTED_DATE = Pattern.compile("(\\d{4})\\s*[.\\-/]\\s*(\\d{1,2})\\s*[.\\-/]\\s*(\\d{1,2})");
+
+    private final TukoreaNoticeRepository noticeRepository;
+    private final TukoreaService tukoreaService;
+    private final OutboundGuard outboundGuard;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final String boardUrl;
+    private final int maxPages;
+    private final long maxRuntimeMillis;
+    private final long revalidateAfterHours;
+    private final int parallelism;
+    private final long politenessDelayNanos;
+
+    private final ExecutorService detailExecutor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean postedOnBackfilled = false;
+
+    // 다음 요청을 시작해도 되는 시각 (System.nanoTime 기준)
+    private final AtomicLong nextFetchAt = new AtomicLong(System.nanoTime());
+
+    public TukoreaNoticeCrawler(TukoreaNoticeRepository noticeRepository,
+                                TukoreaService tukoreaService,
+                                OutboundGuard outboundGuard,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${tukorea.crawler.enabled:true}") boolean enabled,
+                                @Value("${tukorea.crawler.board-url:https://www.tukorea.ac.kr/tukorea/6622/subview.do}") String boardUrl,
+                                @Value("${tukorea.crawler.max-pages:5}") int maxPages,
+                                @Value("${tukorea.crawler.max-runtime-ms:600000}") long maxRuntimeMillis,
+                                @Value("${tukorea.crawler.revalidate-after-hours:24}") long revalidateAfterHours,
+                                @Value("${tukorea.detail.parallelism:3}") int parallelism,
+                                @Value("${tukorea.detail.politeness-delay-ms:200}") long politenessDelayMs) {
+        this.noticeRepository = noticeRepository;
+        this.tukoreaService = tukoreaService;
+        this.outboundGuard = outboundGuard;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.boardUrl = boardUrl;
+        this.maxPages = Math.max(1, maxPages);
+        this.maxRuntimeMillis = maxRuntimeMillis;
+        this.revalidateAfterHours = revalidateAfterHours;
+        this.parallelism = Math.max(1, parallelism);
+        this.politenessDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, politenessDelayMs));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.detailExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "tukorea-detail-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        detailExecutor.shutdownNow();
+    }
+
+    /**
+     * 공지 수집 (기본: 시작 10초 후, 이후 30분마다)
+     */
+    @Scheduled(initialDelayString = "${tukorea.crawler.initial-delay-ms:10000}",
+            fixedDelayString = "${tukorea.crawler.interval-ms:1800000}")
+    public void crawl() {
+        if (!enabled || !running.compareAndSet(false, true)) return;
+
+        long startedAt = System.nanoTime();
+        long deadlineNanos = startedAt + TimeUnit.MILLISECONDS.toNanos(maxRuntimeMillis);
+        CrawlStats stats = new CrawlStats();
+        try {
+            if (!postedOnBackfilled) backfillPostedOn();
+
+            // 이번 수집을 시작하기 전까지 저장된 공지
+            Map<String, SeenNotice> ingested = new HashMap<>();
+            noticeRepository.findAllSeen().forEach(notice -> ingested.put(notice.getLink(), notice));
+            LocalDateTime revalidateBefore = LocalDateTime.now().minusHours(revalidateAfterHours);
+
+            Set<String> boardLinks = new HashSet<>();
+            for (int page = 1; page <= maxPages; page++) {
+                List<BoardRow> rows = new ArrayList<>();
+                for (BoardRow row : fetchBoard(page)) {
+                    if (boardLinks.add(row.link())) rows.add(row);
+                }
+                // 빈 쪽이거나 앞 쪽과 같은 목록 (마지막 쪽을 넘김)
+                if (rows.isEmpty()) break;
+                stats.boardPages++;
+
+                List<DetailTask> tasks = new ArrayList<>();
+                List<String> skipped = new ArrayList<>();
+                for (BoardRow row : rows) {
+                    SeenNotice known = ingested.get(row.link());
+                    if (known != null && known.getLastFetchedAt() != null && known.getLastFetchedAt().isAfter(revalidateBefore)) {
+                        skipped.add(row.link());
+                    } else {
+                        tasks.add(new DetailTask(row, known));
+                    }
+                }
+                if (!skipped.isEmpty()) {
+                    noticeRepository.touchSeen(skipped, LocalDateTime.now());
+                    stats.skipped += skipped.size();
+                }
+
+                for (DetailResult result : fetchDetails(tasks, deadlineNanos, stats)) {
+                    apply(result, stats);
+                }
+
+                if (System.nanoTime() - deadlineNanos > 0) {
+                    log.warn("비교과 공지 수집 시간 초과 - {}쪽까지만 수집", page);
+                    break;
+                }
+                // 상단 고정 공지가 섞여 있을 수 있으므로 한 쪽 전체가 이미 수집한 공지일 때만 멈춤
+                if (rows.stream().allMatch(row -> ingested.containsKey(row.link()))) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("비교과 공지 수집 실패: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+
+        if (stats.added + stats.changed > 0) tukoreaService.reload();
+        stats.report(meterRegistry);
+        log.info("비교과 공지 수집 - 게시판 {}쪽, 상세 다운로드 {} / 304 {} / 건너뜀 {} / 실패 {}, 신규 {} / 변경 {} / 같은 내용 {}, {}ms",
+                stats.boardPages, stats.fetched, stats.notModified, stats.skipped, stats.failed,
+                stats.added, stats.changed, stats.unchanged,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    // postedOn 컬럼이 생기기 전에 저장된 공지의 등록일을 채움 (서버 시작 후 한 번)
+    private void backfillPostedOn() {
+        Integer filled = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (TukoreaNotice notice : noticeRepository.findByPostedOnIsNullAndPostedDateIsNotNull()) {
+                LocalDate postedOn = postedOn(notice.getPostedDate());
+                if (postedOn == null) continue;
+                notice.setPostedOn(postedOn);
+                count++;
+            }
+            return count;
+        });
+        postedOnBackfilled = true;
+        if (filled != null && filled > 0) {
+            log.info("비교과 공지 등록일 {}건 채움", filled);
+            tukoreaService.reload();
+        }
+    }
+
+    // 게시판 한 쪽의 공지 목록 (제목, 상세 링크)
+    private List<BoardRow> fetchBoard(int page) throws InterruptedException {
+        Document doc = fetch(page == 1 ? boardUrl : boardUrl + (boardUrl.contains("?") ? "&" : "?") + "page=" + page);
+
+        List<BoardRow> rows = new ArrayList<>();
+        for (Element row : doc.select("tbody tr")) {
+
+            Element titleElement = row.selectFirst("a");
+            if (titleElement == null) continue;
+
+            String title = titleElement.text().trim();
+            String href = titleElement.attr("href");
+
+            if (href == null || href.isEmpty()) continue;
+
+            String link = href.startsWith("http")
+                    ? href
+                    : BASE_URL + href;
+
+            rows.add(new BoardRow(title, link));
+        }
+        return rows;
+    }
+
+    // 앞쪽 행부터 parallelism 개씩 요청해 두고 게시판 순서대로 결과를 모음 (실패한 공지는 건너뜀)
+    private List<DetailResult> fetchDetails(List<DetailTask> tasks, long deadlineNanos, CrawlStats stats)
+            throws InterruptedException {
+        List<DetailResult> results = new ArrayList<>();
+        Deque<Future<DetailResult>> inFlight = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < tasks.size() || !inFlight.isEmpty()) {
+                while (inFlight.size() < parallelism && next < tasks.size()) {
+                    DetailTask task = tasks.get(next++);
+                    inFlight.addLast(detailExecutor.submit(() -> fetchDetail(task.row(), task.known())));
+                }
+
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) break;
+                try {
+                    results.add(inFlight.peekFirst().get(remaining, TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    stats.failed++;
+                    log.debug("비교과 공지 상세 조회 실패: {}", e.getCause().getMessage());
+                } catch (TimeoutException e) {
+                    break;
+                }
+                inFlight.pollFirst();
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    // 상세 페이지 조건부 요청 (304 면 notice 가 null)
+    private DetailResult fetchDetail(BoardRow row, SeenNotice known) throws InterruptedException {
+        awaitPoliteSlot();
+        DetailPage page = outboundGuard.call(OutboundDependency.TUKOREA, () -> {
+            Connection connection = Jsoup.connect(row.link())
+                    .userAgent("Mozilla/5.0")
+                    .timeout(outboundGuard.timeoutMillis(10000));
+            if (known != null && known.getEtag() != null) {
+                connection.header("If-None-Match", known.getEtag());
+            }
+            if (known != null && known.getLastModified() != null) {
+                connection.header("If-Modified-Since", known.getLastModified());
+            }
+            Connection.Response response = connection.execute();
+            if (response.statusCode() == 304) return null;
+            return new DetailPage(response.parse(), response.header("ETag"), response.header("Last-Modified"));
+        });
+        if (page == null) {
+            return new DetailResult(row, known, null);
+        }
+
+        TukoreaNotice notice = parseDetailPage(row.title(), row.link(), page.document());
+        notice.setEtag(page.etag());
+        notice.setLastModified(page.lastModified());
+        notice.setContentHash(contentHash(notice));
+        return new DetailResult(row, known, notice);
+    }
+
+    // 상세 확인 결과 반영 (바뀌지 않았으면 확인 시각만 갱신)
+    private void apply(DetailResult result, CrawlStats stats) {
+        LocalDateTime now = LocalDateTime.now();
+        TukoreaNotice fetched = result.notice();
+        if (fetched == null) {
+            stats.notModified++;
+            noticeRepository.touchFetched(result.row().link(), null, null, now);
+            return;
+        }
+
+        stats.fetched++;
+        if (result.known() != null && Objects.equals(fetched.getContentHash(), result.known().getContentHash())) {
+            stats.unchanged++;
+            noticeRepository.touchFetched(fetched.getLink(), fetched.getEtag(), fetched.getLastModified(), now);
+            return;
+        }
+
+        Boolean created = save(fetched, now);
+        if (Boolean.TRUE.equals(created)) stats.added++;
+        else if (Boolean.FALSE.equals(created)) stats.changed++;
+    }
+
+    /**
+     * 학교 홈페이지 요청 (동시 호출 한도 / 서킷 브레이커 적용)
+     */
+    private Document fetch(String url) throws InterruptedException {
+        awaitPoliteSlot();
+        return outboundGuard.call(OutboundDependency.TUKOREA, () -> Jsoup.connect(url)
+                .userAgent("Mozilla/5.0")
+                .timeout(outboundGuard.timeoutMillis(10000))
+                .get());
+    }
+
+    // 서버 전체에서 요청 시작 간격을 politenessDelay 이상으로 (순서대로 시작 시각을 예약하고 그때까지 대기)
+    private void awaitPoliteSlot() throws InterruptedException {
+        if (politenessDelayNanos == 0) return;
+        long now = System.nanoTime();
+        long reserved = nextFetchAt.getAndUpdate(prev -> (prev - now > 0 ? prev : now) + politenessDelayNanos);
+        long wait = reserved - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * 상세 페이지 파싱 (학과 필터링은 조회 시 TukoreaService 에서)
+     */
+    private TukoreaNotice parseDetailPage(String title, String link, Document detailDoc) {
+
+        // ===== 등록일 =====
+        Element dateElement =
+                detailDoc.selectFirst("dt:contains(등록일) + dd");
+
+        String date = dateElement != null
+                ? dateElement.text().trim()
+                : "날짜 정보 없음";
+
+        // ===== 본문 내용 =====
+        Element contentElement =
+                detailDoc.selectFirst(".view-con");
+
+        String content = contentElement != null
+                ? contentElement.text().trim()
+                : "";
+
+        // ===== 이미지 =====
+        Element imgElement =
+                detailDoc.selectFirst(".view-con img");
+
+        String imageUrl = null;
+
+        if (imgElement != null) {
+            String src = imgElement.attr("src");
+
+            imageUrl = src.startsWith("http")
+                    ? src
+                    : BASE_URL + src;
+        }
+
+        return TukoreaNotice.builder()
+                .title(title)
+                .link(link)
+                .postedDate(date)
+                .postedOn(postedOn(date))
+                .content(content)
+                .imageUrl(imageUrl)
+                .build();
+    }
+
+    // link 기준 저장 (이미 있으면 내용 갱신) - 새 공지면 true, 갱신이면 false, 실패하면 null
+    private Boolean save(TukoreaNotice fetched, LocalDateTime now) {
+        try {
+            return transactionTemplate.execute(status -> {
+                TukoreaNotice existing = noticeRepository.findByLink(fetched.getLink()).orElse(null);
+                if (existing == null) {
+                    fetched.setFirstSeenAt(now);
+                    fetched.setLastSeenAt(now);
+                    fetched.setLastFetchedAt(now);
+                    noticeRepository.save(fetched);
+                    return true;
+                }
+                existing.setTitle(fetched.getTitle());
+                existing.setPostedDate(fetched.getPostedDate());
+                existing.setPostedOn(fetched.getPostedOn());
+                existing.setContent(fetched.getContent());
+                existing.setImageUrl(fetched.getImageUrl());
+                existing.setContentHash(fetched.getContentHash());
+                existing.setEtag(fetched.getEtag());
+                existing.setLastModified(fetched.getLastModified());
+                existing.setLastSeenAt(now);
+                existing.setLastFetchedAt(now);
+                return false;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버가 같은 공지를 먼저 저장함
+            return null;
+        } catch (Exception e) {
+            log.warn("비교과 공지 저장 실패 ({}): {}", fetched.getLink(), e.getMessage());
+            return null;
+        }
+    }
+
+    // 등록일 문자열 -> 날짜 (형식이 다르거나 없는 날짜면 null)
+    static LocalDate postedOn(String postedDate) {
+        if (postedDate == null) return null;
+        Matcher matcher = POSTED_DATE.matcher(postedDate);
+        if (!matcher.find()) return null;
+        try {
+            return LocalDate.of(Integer.parseInt(matcher.group(1)),
+                    Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    static String contentHash(TukoreaNotice notice) {
+        String material = Objects.toString(notice.getTitle(), "")
+                + '\n' + Objects.toString(notice.getPostedDate(), "")
+                + '\n' + Objects.toString(notice.getContent(), "")
+                + '\n' + Objects.toString(notice.getImageUrl(), "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record BoardRow(String title, String link) {
+    }
+
+    private record DetailTask(BoardRow row, SeenNotice known) {
+    }
+
+    // 200 응답 (본문은 요청 안에서 파싱)
+    private record DetailPage(Document document, String etag, String lastModified) {
+    }
+
+    private record DetailResult(BoardRow row, SeenNotice known, TukoreaNotice notice) {
+    }
+
+    // 한 번의 수집 결과 (수집 스레드에서만 사용)
+    private static final class CrawlStats {
+        int boardPages;
+        int fetched;     // 상세 페이지 본문을 받음 (200)
+        int notModified; // 304
+        int skipped;     // 최근에 확인해서 요청하지 않음
+        int failed;
+        int added;       // 새 공지
+        int changed;     // 내용이 바뀐 공지
+        int unchanged;   // 다시 받았지만 내용이 같음
+
+        void report(MeterRegistry registry) {
+            registry.counter("tukorea.crawl.pages", "result", "fetched").increment(fetched);
+            registry.counter("tukorea.crawl.pages", "result", "not-modified").increment(notModified);
+            registry.counter("tukorea.crawl.pages", "result", "skipped").increment(skipped);
+            registry.counter("tukorea.crawl.pages", "result", "failed").increment(failed);
+            registry.counter("tukorea.crawl.notices", "result", "new").increment(added);
+            registry.counter("tukorea.crawl.notices", "result", "changed").increment(changed);
+            registry.counter("tukorea.crawl.notices", "result", "unchanged").increment(unchanged);
+        }
+    }
+}
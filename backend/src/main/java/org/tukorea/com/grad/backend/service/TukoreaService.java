@@ -1,144 +1,193 @@
 package org.tukorea.com.grad.backend.service;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.tukorea.com.grad.backend.dto.TukoreaNoticeDto;
+import org.tukorea.com.grad.backend.entity.TukoreaNotice;
+import org.tukorea.com.grad.backend.repository.RoadmapRepository;
+import org.tukorea.com.grad.backend.repository.TukoreaNoticeRepository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 비교과 공지 조회
+ * - 학교 홈페이지를 직접 읽지 않고, TukoreaNoticeCrawler 가 수집한 tukorea_notice 의 메모리 사본에서 찾습니다.
+ *   (학교 홈페이지가 느리거나 응답하지 않아도 바로 응답)
+ * - 사본은 수집이 끝날 때와 tukorea.notices.reload-interval-ms 마다 (다른 서버가 수집한 공지 반영) 다시 읽습니다.
+ * - 사본을 만들 때 로드맵에 등록된 학과명 + 공통 키워드를 KeywordMatcher 로 한 번에 찾아 공지마다 들어 있는 키워드와
+ *   대상 학년을 기록해 두므로, 요청마다 본문을 다시 훑지 않습니다.
+ *   색인에 없는 학과(아직 로드맵이 없거나 max-majors 초과)는 요청 시 제목/본문에서 직접 찾고, 색인은 다시 만들지 않습니다.
+ *   (요청 값으로 색인이 늘어나거나 요청 경로에서 락을 잡지 않도록)
+ */
+@Slf4j
 @Service
 public class TukoreaService {
 
-    private static final String BASE_URL = "https://www.tukorea.ac.kr";
-    private static final String BOARD_URL =
-            "https://www.tukorea.ac.kr/tukorea/6622/subview.do";
+    private static final int MAX_NOTICES = 6;
+
+    // 학과와 상관없이 보여주는 공지 키워드
+    private static final List<String> SHARED_KEYWORDS = List.of("취업", "포트폴리오", "토익");
+
+    // "3학년", "3, 4학년", "2~4학년" 처럼 대상 학년을 밝힌 부분 ("2025학년도" 는 제외)
+    private static final Pattern GRADE_MENTION = Pattern.compile("(?<![0-9])([1-4])\\s*(?:[~\\-]\\s*([1-4])\\s*)?학년(?!도)");
+    private static final Pattern GRADE_LIST = Pattern.compile("(?<![0-9])([1-4])\\s*[,·/]\\s*(?=(?:[1-4]\\s*[,·/]\\s*)*[1-4]\\s*(?:[~\\-]\\s*[1-4]\\s*)?학년(?!도))");
+    private static final Pattern DIGIT = Pattern.compile("[1-4]");
+
+    private final TukoreaNoticeRepository noticeRepository;
+    private final RoadmapRepository roadmapRepository;
+    private final NoticeThumbnailService thumbnailService;
+    private final int maxCached;
+    private final int maxMajors;
+
+    // 최신 등록일 순 사본과 키워드 색인 (통째로 교체)
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded = false;
+
+    public TukoreaService(TukoreaNoticeRepository noticeRepository,
+                          RoadmapRepository roadmapRepository,
+                          NoticeThumbnailService thumbnailService,
+                          @Value("${tukorea.notices.max-cached:500}") int maxCached,
+                          @Value("${tukorea.notices.max-majors:200}") int maxMajors) {
+        this.noticeRepository = noticeRepository;
+        this.roadmapRepository = roadmapRepository;
+        this.thumbnailService = thumbnailService;
+        this.maxCached = maxCached;
+        this.maxMajors = maxMajors;
+    }
 
     /**
-     * 비교과 공지 목록 가져오기
+     * 비교과 공지 목록 가져오기 (학과 관련 공지, 대상 학년을 밝힌 공지는 해당 학년만)
      */
     public List<TukoreaNoticeDto> getExtracurriculars(String major, String grade) {
+        ensureLoaded();
+        Snapshot current = snapshot;
+        Integer majorIndex = current.keywordIndex().get(major);
+        Integer userGrade = gradeNumber(grade);
 
         List<TukoreaNoticeDto> noticeList = new ArrayList<>();
+        for (IndexedNotice indexed : current.notices()) {
+            TukoreaNotice notice = indexed.notice();
+            String title = notice.getTitle() == null ? "" : notice.getTitle();
+            String content = notice.getContent() == null ? "" : notice.getContent();
 
-        try {
-            Document doc = Jsoup.connect(BOARD_URL)
-                    .userAgent("Mozilla/5.0")
-                    .timeout(10000)
-                    .get();
-
-            Elements rows = doc.select("tbody tr");
-
-            for (Element row : rows) {
-
-                Element titleElement = row.selectFirst("a");
-                if (titleElement == null) continue;
-
-                String title = titleElement.text().trim();
-                String href = titleElement.attr("href");
-
-                if (href == null || href.isEmpty()) continue;
-
-                String link = href.startsWith("http")
-                        ? href
-                        : BASE_URL + href;
-
-                TukoreaNoticeDto detail =
-                        parseDetailPage(title, link, major, grade);
-
-                if (detail != null) {
-                    noticeList.add(detail);
-                }
+            // ===== 학과 필터링 =====
+            boolean related = indexed.keywords().intersects(current.shared())
+                    || (majorIndex != null ? indexed.keywords().get(majorIndex)
+                                           : title.contains(major) || content.contains(major));
+            if (!related) continue;
+            if (userGrade != null && !indexed.grades().isEmpty() && !indexed.grades().contains(userGrade)) continue;
 
-                // 최대 6개만 가져오기
-                if (noticeList.size() >= 6) break;
-            }
+            noticeList.add(TukoreaNoticeDto.builder()
+                    .title(title)
+                    .date(notice.getPostedDate())
+                    .link(notice.getLink())
+                    .category("비교과")
+                    .major(major)
+                    .grade(grade)
+                    .generatedDate(LocalDate.now().toString())
+                    .content(content)
+                    .imageUrl(notice.getImageUrl())
+                    .thumbnailUrl(thumbnailService.proxyUrl(notice.getImageUrl()))
+                    .build());
 
-        } catch (Exception e) {
-            e.printStackTrace();
+            // 최대 6개만 가져오기
+            if (noticeList.size() >= MAX_NOTICES) break;
         }
-
         return noticeList;
     }
 
-    /**
-     * 상세 페이지 파싱
-     */
-    private TukoreaNoticeDto parseDetailPage(
-            String title,
-            String link,
-            String major,
-            String grade) {
-
+    // 저장된 공지 다시 읽기
+    @Scheduled(fixedDelayString = "${tukorea.notices.reload-interval-ms:300000}")
+    public void reload() {
         try {
-            Document detailDoc = Jsoup.connect(link)
-                    .userAgent("Mozilla/5.0")
-                    .timeout(10000)
-                    .get();
-
-            // ===== 등록일 =====
-            Element dateElement =
-                    detailDoc.selectFirst("dt:contains(등록일) + dd");
-
-            String date = dateElement != null
-                    ? dateElement.text().trim()
-                    : "날짜 정보 없음";
-
-            // ===== 본문 내용 =====
-            Element contentElement =
-                    detailDoc.selectFirst(".view-con");
-
-            String content = contentElement != null
-                    ? contentElement.text().trim()
-                    : "";
-
-            // ===== 학과 필터링 =====
-            List<String> keywords = List.of(
-                    major,
-                    "취업",
-                    "포트폴리오",
-                    "토익"
-            );
-
-            boolean related = keywords.stream()
-                    .anyMatch(k -> title.contains(k) || content.contains(k));
+            List<TukoreaNotice> notices = noticeRepository.findLatest(PageRequest.of(0, maxCached));
+            // 색인할 학과명 (로드맵에 등록된 학과만, maxMajors 까지 / 매번 새로 읽어 더 이상 없는 학과는 빠짐)
+            Set<String> majors = new LinkedHashSet<>();
+            for (String major : roadmapRepository.findDistinctMajors()) {
+                if (majors.size() >= maxMajors) break;
+                if (major != null && !major.isBlank()) majors.add(major);
+            }
+            snapshot = index(notices, majors);
+            loaded = true;
+            log.debug("비교과 공지 {}건 로드 (키워드 {}개)", notices.size(), snapshot.keywordIndex().size());
+        } catch (Exception e) {
+            log.warn("비교과 공지 로드 실패: {}", e.getMessage());
+        }
+    }
 
-            if (!related) return null;
+    // 공지마다 제목/본문을 한 번씩만 훑어 들어 있는 키워드와 대상 학년을 기록
+    private Snapshot index(List<TukoreaNotice> notices, Set<String> majors) {
+        Set<String> keywordSet = new LinkedHashSet<>(SHARED_KEYWORDS);
+        keywordSet.addAll(majors);
+        KeywordMatcher matcher = new KeywordMatcher(new ArrayList<>(keywordSet));
 
-            // ===== 이미지 =====
-            Element imgElement =
-                    detailDoc.selectFirst(".view-con img");
+        Map<String, Integer> keywordIndex = new HashMap<>();
+        for (int i = 0; i < matcher.keywords().size(); i++) {
+            keywordIndex.put(matcher.keywords().get(i), i);
+        }
+        BitSet shared = new BitSet();
+        shared.set(0, SHARED_KEYWORDS.size());
+
+        List<IndexedNotice> indexed = new ArrayList<>(notices.size());
+        for (TukoreaNotice notice : notices) {
+            // 제목과 본문을 따로 훑음 (둘을 이어 붙이면 경계에 걸친 키워드가 잘못 잡힘)
+            BitSet found = matcher.match(notice.getTitle());
+            found.or(matcher.match(notice.getContent()));
+            String text = (notice.getTitle() == null ? "" : notice.getTitle()) + " "
+                    + (notice.getContent() == null ? "" : notice.getContent());
+            indexed.add(new IndexedNotice(notice, found, targetGrades(text)));
+        }
+        return new Snapshot(List.copyOf(indexed), Map.copyOf(keywordIndex), shared);
+    }
 
-            String imageUrl = null;
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (!loaded) reload();
+        }
+    }
 
-            if (imgElement != null) {
-                String src = imgElement.attr("src");
+    // 공지가 밝힌 대상 학년 (비어 있으면 모든 학년에게 보여줌)
+    static Set<Integer> targetGrades(String text) {
+        Set<Integer> targets = new HashSet<>();
+        Matcher listed = GRADE_LIST.matcher(text);
+        while (listed.find()) {
+            targets.add(Integer.parseInt(listed.group(1)));
+        }
+        Matcher mention = GRADE_MENTION.matcher(text);
+        while (mention.find()) {
+            int from = Integer.parseInt(mention.group(1));
+            int to = mention.group(2) != null ? Integer.parseInt(mention.group(2)) : from;
+            for (int g = Math.min(from, to); g <= Math.max(from, to); g++) targets.add(g);
+        }
+        return Set.copyOf(targets);
+    }
 
-                imageUrl = src.startsWith("http")
-                        ? src
-                        : BASE_URL + src;
-            }
+    // "2학년", "2" -> 2
+    private static Integer gradeNumber(String grade) {
+        if (grade == null) return null;
+        Matcher matcher = DIGIT.matcher(grade);
+        return matcher.find() ? Integer.parseInt(matcher.group()) : null;
+    }
 
-            // ===== DTO 생성 =====
-            return TukoreaNoticeDto.builder()
-                    .title(title)
-                    .date(date)
-                    .link(link)
-                    .category("비교과")
-                    .major(major)
-                    .grade(grade)
-                    .generatedDate(LocalDate.now().toString())
-                    .content(content)
-                    .imageUrl(imageUrl)
-                    .build();
+    // keywords 는 Snapshot 의 키워드 번호 기준
+    private record IndexedNotice(TukoreaNotice notice, BitSet keywords, Set<Integer> grades) {
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
+    private record Snapshot(List<IndexedNotice> notices, Map<String, Integer> keywordIndex, BitSet shared) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), new BitSet());
     }
-}
\ No newline at end of file
+}
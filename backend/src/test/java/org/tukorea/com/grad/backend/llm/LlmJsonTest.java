@@ -0,0 +1,64 @@
+package org.tukorea.com.grad.backend.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.tukorea.com.grad.backend.llm.schema.LlmSchemaException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmJsonTest {
+
+	private final LlmJson llmJson = new LlmJson(new SimpleMeterRegistry());
+
+	@Test
+	void stripsCodeFenceAndSurroundingProse() {
+		assertEquals("{\"a\":1}", LlmJson.repair("```json\n{\"a\":1}\n```"));
+		assertEquals("{\"a\":[1,2]}", LlmJson.repair("결과입니다: {\"a\":[1,2]} 도움이 되었길 바랍니다. {\"b\":2}"));
+	}
+
+	@Test
+	void closesTruncatedStringsAndBracketsInOrder() {
+		assertEquals("{\"a\":[{\"b\":\"x\"}]}", LlmJson.repair("{\"a\":[{\"b\":\"x"));
+		assertEquals("{\"a\":[1,2]}", LlmJson.repair("{\"a\":[1,2,"));
+		assertEquals("{\"a\":null}", LlmJson.repair("{\"a\":"));
+	}
+
+	@Test
+	void fillsMissingCloserWhenBracketTypeIsWrong() {
+		assertEquals("{\"a\":[1,2]}", LlmJson.repair("{\"a\":[1,2}"));
+		assertEquals("{\"a\":[{\"b\":1}],\"c\":2}", LlmJson.repair("{\"a\":[{\"b\":1],\"c\":2}"));
+	}
+
+	@Test
+	void dropsCloserWithoutMatchingOpener() {
+		assertEquals("{\"a\":1}", LlmJson.repair("{\"a\":1]}"));
+		assertEquals("{\"a\":{\"b\":2}}", LlmJson.repair("{\"a\":{\"b\":2]}}"));
+	}
+
+	@Test
+	void ignoresBracketsInsideStrings() {
+		String json = "{\"a\":\"} ] { [\",\"b\":\"\\\"}\"}";
+		assertEquals(json, LlmJson.repair(json + " 끝"));
+	}
+
+	@Test
+	void repairedResponsesParse() {
+		Map<?, ?> value = llmJson.parse("```json\n{\"plans\":[{\"grade\":\"1학년\",\"items\":[\"a\",\"b\"}", Map.class);
+
+		assertEquals(List.of(Map.of("grade", "1학년", "items", List.of("a", "b"))), value.get("plans"));
+	}
+
+	@Test
+	void rejectsUnrepairableContent() {
+		assertThrows(LlmSchemaException.class, () -> llmJson.parse("죄송합니다. 답변할 수 없습니다.", Map.class));
+		assertThrows(LlmSchemaException.class, () -> llmJson.parse("  ", Map.class));
+		assertFalse(llmJson.isValid("분석 결과를 만들 수 없습니다.", Map.class));
+		assertTrue(llmJson.isValid("{\"a\":1}", Map.class));
+	}
+}
@@ -0,0 +1,44 @@
+package org.tukorea.com.grad.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTest {
+
+	private final MinHash minHash = new MinHash(128);
+
+	@Test
+	void ignoresCaseSpacingAndPunctuation() {
+		assertArrayEquals(minHash.signature("JPA와 MyBatis의 차이점은?", 2),
+				minHash.signature("jpa와mybatis의 차이점은", 2));
+	}
+
+	@Test
+	void estimateStaysCloseToExactJaccard() {
+		String[][] pairs = {
+				{"트랜잭션 격리 수준에서 팬텀 리드가 생기는 이유를 설명해 주세요", "트랜잭션 격리 수준에서 팬텀 리드가 왜 생기는지 설명해 주세요"},
+				{"스프링 빈의 생명주기와 초기화 콜백 순서를 알려줘", "스프링 빈 생명주기와 소멸 콜백 순서를 알려줘"},
+				{"해시 테이블의 충돌 해결 방법을 비교해 주세요", "운영체제의 페이지 교체 알고리즘을 비교해 주세요"},
+				{"인덱스를 걸면 조회가 빨라지는 이유", "인덱스를 걸면 삽입이 느려지는 이유"},
+		};
+		for (String[] pair : pairs) {
+			double exact = MinHash.exactJaccard(pair[0], pair[1], 2);
+			double estimate = MinHash.similarity(minHash.signature(pair[0], 2), minHash.signature(pair[1], 2));
+			// 해시 128개 -> 표준편차 0.05 이하
+			assertEquals(exact, estimate, 0.15, pair[0] + " / " + pair[1]);
+		}
+	}
+
+	@Test
+	void wordSwapLeavesManyDifferingShingles() {
+		String difference = "JPA와 MyBatis의 차이점은?";
+		String common = "JPA와 MyBatis의 공통점은?";
+
+		assertTrue(MinHash.exactJaccard(difference, common, 2) > 0.55);
+		assertEquals(6, MinHash.differingShingles(MinHash.shingleSet(difference, 2), MinHash.shingleSet(common, 2)));
+		assertEquals(1, MinHash.differingShingles(MinHash.shingleSet(difference, 2), MinHash.shingleSet(difference + "요", 2)));
+	}
+}
@@ -0,0 +1,100 @@
+package org.tukorea.com.grad.backend.llm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateAnswerCacheTest {
+
+	private static final String NOTE = "JPA 는 객체와 테이블을 매핑하고, MyBatis 는 SQL 을 직접 작성해 결과를 객체로 매핑한다.";
+
+	@Test
+	void reusesAnswerForSameQuestionWrittenDifferently() {
+		NearDuplicateAnswerCache cache = cache(0.8, 100);
+		cache.put(cache.fingerprint("JPA와 MyBatis의 차이점은?", NOTE), "answer");
+
+		assertEquals(Optional.of("answer"), cache.get(cache.fingerprint("jpa 와 mybatis 의 차이점은", NOTE)));
+		assertEquals(Optional.of("answer"), cache.get(cache.fingerprint("JPA와 MyBatis의 차이점은요?", NOTE)));
+	}
+
+	@Test
+	void doesNotReuseAnswerForOppositeQuestion() {
+		NearDuplicateAnswerCache cache = cache(0.8, 100);
+		cache.put(cache.fingerprint("JPA와 MyBatis의 차이점은?", NOTE), "answer");
+
+		assertEquals(Optional.empty(), cache.get(cache.fingerprint("JPA와 MyBatis의 공통점은?", NOTE)));
+	}
+
+	@Test
+	void differingShinglesRejectWordSwapEvenWithLowThreshold() {
+		NearDuplicateAnswerCache cache = cache(0.5, 100);
+		cache.put(cache.fingerprint("JPA와 MyBatis의 차이점은?", NOTE), "answer");
+
+		assertEquals(Optional.empty(), cache.get(cache.fingerprint("JPA와 MyBatis의 공통점은?", NOTE)));
+	}
+
+	@Test
+	void doesNotReuseAnswerForDifferentNote() {
+		NearDuplicateAnswerCache cache = cache(0.8, 100);
+		cache.put(cache.fingerprint("JPA와 MyBatis의 차이점은?", NOTE), "answer");
+
+		assertEquals(Optional.empty(), cache.get(cache.fingerprint("JPA와 MyBatis의 차이점은?",
+				"운영체제는 프로세스마다 독립된 가상 주소 공간을 제공하고 페이지 테이블로 물리 주소를 찾는다.")));
+	}
+
+	@Test
+	void lshFindsSimilarQuestionsAsCandidates() {
+		MinHash minHash = new MinHash(128);
+		Random random = new Random(42);
+		int similarPairs = 0;
+		int found = 0;
+		for (int i = 0; i < 300; i++) {
+			String question = randomHangul(random, 20 + random.nextInt(20));
+			String variant = question + randomHangul(random, 1);
+			if (MinHash.exactJaccard(question, variant, 2) < 0.8) continue;
+			similarPairs++;
+
+			Set<Long> left = new HashSet<>();
+			for (long key : NearDuplicateAnswerCache.bandKeys(minHash.signature(question, 2))) left.add(key);
+			if (Arrays.stream(NearDuplicateAnswerCache.bandKeys(minHash.signature(variant, 2))).anyMatch(left::contains)) {
+				found++;
+			}
+		}
+
+		assertTrue(similarPairs > 200);
+		// 밴드 32개 x 4행 -> Jaccard 0.8 쌍을 후보로 놓칠 확률은 1e-7 수준
+		assertEquals(similarPairs, found);
+	}
+
+	@Test
+	void evictedEntriesAreRemovedFromIndex() {
+		NearDuplicateAnswerCache cache = cache(0.8, 2);
+		NearDuplicateAnswerCache.Fingerprint first = cache.fingerprint("해시 테이블의 충돌 해결 방법은?", NOTE);
+		cache.put(first, "first");
+		cache.put(cache.fingerprint("프로세스와 스레드의 차이는?", NOTE), "second");
+		cache.put(cache.fingerprint("데드락이 생기는 네 가지 조건은?", NOTE), "third");
+
+		assertEquals(2, cache.indexedEntries());
+		assertEquals(Optional.empty(), cache.get(first));
+	}
+
+	private static NearDuplicateAnswerCache cache(double questionThreshold, int maxEntries) {
+		return new NearDuplicateAnswerCache(new SimpleMeterRegistry(), true, questionThreshold, 2, 0.8, maxEntries, 0.0, 0.8);
+	}
+
+	private static String randomHangul(Random random, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			text.append((char) ('가' + random.nextInt(11172)));
+		}
+		return text.toString();
+	}
+}
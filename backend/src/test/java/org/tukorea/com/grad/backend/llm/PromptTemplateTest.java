@@ -0,0 +1,66 @@
+package org.tukorea.com.grad.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PromptTemplateTest {
+
+	private static final String SOURCE = """
+			#! 로드맵 분석 프롬프트
+			### system
+			너는 진로 상담가야.
+			#! 이 줄은 빠짐
+			JSON 으로만 답해.
+			### user
+			전공: {{major}}
+			목표 직무: {{ targetJob }} / 다시 {{major}}
+			""";
+
+	@Test
+	void parsesSectionsAndSkipsComments() {
+		PromptTemplate template = PromptTemplate.parse("major-analyze", 2, SOURCE.replace("\n", "\r\n"));
+
+		assertEquals("major-analyze:v2", template.getId());
+		assertEquals("너는 진로 상담가야.\nJSON 으로만 답해.", template.getSystemPrompt());
+		assertEquals(Set.of("major", "targetJob"), template.getVariableNames());
+	}
+
+	@Test
+	void rendersEveryOccurrenceAndNullAsEmpty() {
+		PromptTemplate template = PromptTemplate.parse("major-analyze", 1, SOURCE);
+		Map<String, Object> values = new HashMap<>();
+		values.put("major", "컴퓨터공학");
+		values.put("targetJob", null);
+
+		assertEquals("전공: 컴퓨터공학\n목표 직무:  / 다시 컴퓨터공학", template.renderUser(values));
+	}
+
+	@Test
+	void rejectsMissingVariableAtRenderTime() {
+		PromptTemplate template = PromptTemplate.parse("major-analyze", 1, SOURCE);
+
+		assertThrows(IllegalArgumentException.class, () -> template.renderUser(Map.of("major", "컴퓨터공학")));
+	}
+
+	@Test
+	void rejectsMalformedTemplates() {
+		assertInvalid("### user\n{{a}}\n### system\n고정");                 // 순서
+		assertInvalid("### system\n고정\n");                                 // user 없음
+		assertInvalid("머리말\n### system\n고정\n### user\n{{a}}");          // 헤더 앞 내용
+		assertInvalid("### system\n고정\n### system\n또\n### user\n{{a}}");  // 중복 섹션
+		assertInvalid("### system\n{{a}}\n### user\n{{b}}");                 // system 변수
+		assertInvalid("### system\n고정\n### user\n{{a}");                   // 닫히지 않음
+		assertInvalid("### system\n고정\n### user\na}}");                    // 짝 없는 }}
+		assertInvalid("### system\n고정\n### user\n{{1a}}");                 // 잘못된 이름
+	}
+
+	private static void assertInvalid(String source) {
+		assertThrows(IllegalStateException.class, () -> PromptTemplate.parse("test", 1, source), source);
+	}
+}
@@ -0,0 +1,80 @@
+package org.tukorea.com.grad.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingJsonSplitterTest {
+
+	private static final String RESPONSE = "{\"semesterPlans\":[{\"grade\":\"1학년\",\"activities\":[\"동아리\",\"스터디\"]},"
+			+ "{\"grade\":\"2학년\",\"note\":\"괄호 } ] 와 \\\"따옴표\\\" 가 들어간 문자열\"}],"
+			+ "\"version\":2,\"title\":\"{무시}\","
+			+ "\"analysis\":{\"summary\":\"좋음\",\"gaps\":[{\"skill\":\"Docker\"}]}}";
+
+	@Test
+	void emitsEachArrayElementAndObjectValue() {
+		List<String> events = split(RESPONSE, RESPONSE.length());
+
+		assertEquals(List.of(
+				"semesterPlans=" + "{\"grade\":\"1학년\",\"activities\":[\"동아리\",\"스터디\"]}",
+				"semesterPlans=" + "{\"grade\":\"2학년\",\"note\":\"괄호 } ] 와 \\\"따옴표\\\" 가 들어간 문자열\"}",
+				"analysis:" + "{\"summary\":\"좋음\",\"gaps\":[{\"skill\":\"Docker\"}]}"
+		), events);
+	}
+
+	@Test
+	void resultDoesNotDependOnChunkBoundaries() {
+		List<String> whole = split(RESPONSE, RESPONSE.length());
+		for (int size = 1; size <= 7; size++) {
+			assertEquals(whole, split(RESPONSE, size), "chunk size " + size);
+		}
+	}
+
+	@Test
+	void emitsElementsBeforeTheArrayIsClosed() {
+		List<String> events = new ArrayList<>();
+		StreamingJsonSplitter splitter = splitter(events);
+
+		splitter.feed("{\"semesterPlans\":[{\"grade\":\"1학년\"},");
+		assertEquals(List.of("semesterPlans={\"grade\":\"1학년\"}"), events);
+
+		splitter.feed("{\"grade\":\"2학년\"");
+		assertEquals(1, events.size());
+		splitter.feed("}]}");
+		assertEquals(2, events.size());
+		assertEquals("{\"semesterPlans\":[{\"grade\":\"1학년\"},{\"grade\":\"2학년\"}]}", splitter.getText());
+	}
+
+	@Test
+	void ignoresScalarArrayElementsAndTopLevelScalars() {
+		List<String> events = split("{\"tags\":[\"a\",1,true],\"count\":3,\"items\":[[1,2],{\"k\":\"v\"}]}", 3);
+
+		assertEquals(List.of("items=[1,2]", "items={\"k\":\"v\"}"), events);
+	}
+
+	private static List<String> split(String text, int chunkSize) {
+		List<String> events = new ArrayList<>();
+		StreamingJsonSplitter splitter = splitter(events);
+		for (int i = 0; i < text.length(); i += chunkSize) {
+			splitter.feed(text.substring(i, Math.min(text.length(), i + chunkSize)));
+		}
+		return events;
+	}
+
+	private static StreamingJsonSplitter splitter(List<String> events) {
+		return new StreamingJsonSplitter(new StreamingJsonSplitter.Listener() {
+			@Override
+			public void onArrayElement(String field, String elementJson) {
+				events.add(field + "=" + elementJson);
+			}
+
+			@Override
+			public void onValue(String field, String valueJson) {
+				events.add(field + ":" + valueJson);
+			}
+		});
+	}
+}
@@ -0,0 +1,86 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	@Test
+	void staysClosedUntilMinimumCallsReached() {
+		CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 60_000);
+
+		breaker.onFailure();
+		breaker.onFailure();
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+	}
+
+	@Test
+	void opensOnFailureRateOverSlidingWindow() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, 60_000);
+
+		// 성공 3 + 실패 1 = 25%
+		breaker.onSuccess();
+		breaker.onSuccess();
+		breaker.onSuccess();
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		// 가장 오래된 성공이 밀려나 실패 2 / 4 = 50%
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void halfOpenAllowsSingleProbeAndClosesOnSuccess() {
+		CircuitBreaker breaker = openedBreaker();
+
+		assertTrue(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+
+		// 닫히면서 이전 실패 기록도 지워짐
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void failedProbeReopens() {
+		CircuitBreaker breaker = openedBreaker();
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void ignoredProbeReleasesSlot() {
+		CircuitBreaker breaker = openedBreaker();
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onIgnored();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+		assertFalse(breaker.tryAcquire());
+	}
+
+	// openDurationMillis = 0 이라 바로 다음 tryAcquire 에서 HALF_OPEN 으로 넘어감
+	private static CircuitBreaker openedBreaker() {
+		CircuitBreaker breaker = new CircuitBreaker(2, 2, 0.5, 0);
+		breaker.onFailure();
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		return breaker;
+	}
+}
@@ -0,0 +1,70 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.tukorea.com.grad.backend.llm.LlmException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundGuardTest {
+
+	private static OutboundGuard guard() {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+				"resilience.dependencies.tukorea.sliding-window-size", "4",
+				"resilience.dependencies.tukorea.minimum-calls", "4",
+				"resilience.dependencies.tukorea.failure-rate-threshold", "0.5",
+				"resilience.dependencies.tukorea.open-duration-ms", "60000")));
+		return new OutboundGuard(environment, new SimpleMeterRegistry());
+	}
+
+	private static void callFailing(OutboundGuard guard, Exception error) {
+		assertThrows(Exception.class, () -> guard.call(OutboundDependency.TUKOREA, () -> {
+			throw error;
+		}));
+	}
+
+	@Test
+	void clientErrorsDoNotOpenCircuit() {
+		OutboundGuard guard = guard();
+		for (int i = 0; i < 8; i++) {
+			callFailing(guard, new HttpStatusException("삭제된 게시글", 404, "https://www.tukorea.ac.kr/x"));
+			callFailing(guard, new LlmException("잘못된 요청", 400));
+			callFailing(guard, new IllegalStateException("파싱 실패"));
+		}
+		assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState(OutboundDependency.TUKOREA));
+	}
+
+	@Test
+	void serverErrorsAndTimeoutsOpenCircuit() {
+		OutboundGuard guard = guard();
+		callFailing(guard, new HttpStatusException("점검 중", 503, "https://www.tukorea.ac.kr/x"));
+		callFailing(guard, new LlmException("한도 초과", 429));
+		callFailing(guard, new SocketTimeoutException("Read timed out"));
+		callFailing(guard, new LlmException("LLM 응답 시간 초과", new TimeoutException()));
+
+		assertEquals(CircuitBreaker.State.OPEN, guard.circuitState(OutboundDependency.TUKOREA));
+		assertThrows(DependencyUnavailableException.class, () -> guard.call(OutboundDependency.TUKOREA, () -> "ok"));
+	}
+
+	@Test
+	void classifiesStatusAndTransientFailures() {
+		assertEquals(404, OutboundGuard.statusOf(new OutboundCallException("x", new HttpStatusException("x", 404, "u"))));
+		assertEquals(0, OutboundGuard.statusOf(new IOException("connection reset")));
+		assertTrue(OutboundGuard.isRetryableStatus(502));
+		assertFalse(OutboundGuard.isRetryableStatus(403));
+		assertTrue(OutboundGuard.isTransientFailure(new LlmException("LLM 호출 실패", new IOException("reset"))));
+		assertFalse(OutboundGuard.isTransientFailure(new LlmException("LLM 응답 파싱 실패", new IllegalArgumentException())));
+	}
+}
@@ -0,0 +1,64 @@
+package org.tukorea.com.grad.backend.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketStoreTest {
+
+	@Test
+	void refillAddsTokensPerElapsedTimeUpToCapacity() {
+		TokenBucketStore.Bucket bucket = new TokenBucketStore.Bucket("user", 10, 6, 1); // 분당 6개 = 10초에 1개
+
+		assertEquals(3.0, bucket.refill(2, 10_000), 1e-9);
+		assertEquals(10.0, bucket.refill(9, 60_000), 1e-9);
+		// 시계가 뒤로 가도 토큰이 줄지 않음
+		assertEquals(2.0, bucket.refill(2, -5_000), 1e-9);
+	}
+
+	@Test
+	void waitIsTimeUntilMissingTokensAreRefilled() {
+		TokenBucketStore.Bucket bucket = new TokenBucketStore.Bucket("user", 10, 6, 3);
+
+		assertEquals(0, bucket.waitMillis(3));
+		assertEquals(0, bucket.waitMillis(5.5));
+		assertEquals(10_000, bucket.waitMillis(2));
+		assertEquals(25_000, bucket.waitMillis(0.5));
+		// 아주 조금 모자라도 최소 1ms
+		assertEquals(1, bucket.waitMillis(2.99999999));
+	}
+
+	@Test
+	void costLargerThanCapacityIsCappedSoItCanEventuallyPass() {
+		TokenBucketStore.Bucket bucket = new TokenBucketStore.Bucket("global", 5, 60, 50);
+
+		assertEquals(5.0, bucket.effectiveCost(), 1e-9);
+		assertEquals(0, bucket.waitMillis(5));
+		assertEquals(1_000, bucket.waitMillis(4));
+	}
+
+	@Test
+	void bucketWithoutRefillWaitsForever() {
+		TokenBucketStore.Bucket bucket = new TokenBucketStore.Bucket("user", 1, 0, 1);
+
+		assertEquals(Long.MAX_VALUE, bucket.waitMillis(0));
+	}
+
+	@Test
+	void inMemoryStoreConsumesAllBucketsOrNone() {
+		InMemoryTokenBucketStore store = new InMemoryTokenBucketStore();
+		TokenBucketStore.Bucket user = new TokenBucketStore.Bucket("user", 10, 1, 2);
+		TokenBucketStore.Bucket global = new TokenBucketStore.Bucket("global", 3, 1, 2);
+
+		assertEquals(0, store.tryConsume(List.of(user, global)));
+		// global 이 1개만 남아 거절 -> user 도 차감되지 않아야 함
+		assertTrue(store.tryConsume(List.of(user, global)) > 0);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(0, store.tryConsume(List.of(user)));
+		}
+		assertTrue(store.tryConsume(List.of(user)) > 0);
+	}
+}
@@ -0,0 +1,81 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.tukorea.com.grad.backend.entity.ActivityCatalog;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityCatalogServiceTest {
+
+	private static final LocalDate REGISTERED = LocalDate.of(2026, 4, 10);
+
+	@Test
+	void relativeDeadlineCountsFromRegistrationDay() {
+		assertEquals(LocalDate.of(2026, 4, 24), ActivityCatalogService.deadlineOf("D-14", REGISTERED));
+		assertEquals(LocalDate.of(2026, 4, 13), ActivityCatalogService.deadlineOf("마감 d - 3", REGISTERED));
+		assertEquals(REGISTERED, ActivityCatalogService.deadlineOf("D-day", REGISTERED));
+	}
+
+	@Test
+	void absoluteDatesAreTakenAsIs() {
+		assertEquals(LocalDate.of(2026, 5, 31), ActivityCatalogService.deadlineOf("2026.05.31", REGISTERED));
+		assertEquals(LocalDate.of(2026, 5, 31), ActivityCatalogService.deadlineOf("2026년 5월 31일까지", REGISTERED));
+		assertEquals(LocalDate.of(2025, 12, 1), ActivityCatalogService.deadlineOf("2025-12-01", REGISTERED));
+		assertNull(ActivityCatalogService.deadlineOf("2026.02.30", REGISTERED));
+	}
+
+	@Test
+	void monthOnlyDatesRollToNextOccurrence() {
+		assertEquals(LocalDate.of(2026, 5, 31), ActivityCatalogService.deadlineOf("5월 31일", REGISTERED));
+		assertEquals(LocalDate.of(2026, 4, 20), ActivityCatalogService.deadlineOf("4월 중순", REGISTERED));
+		assertEquals(LocalDate.of(2026, 6, 10), ActivityCatalogService.deadlineOf("6월 초", REGISTERED));
+		assertEquals(LocalDate.of(2026, 6, 30), ActivityCatalogService.deadlineOf("6월 말", REGISTERED));
+		// 등록일보다 앞이면 내년
+		assertEquals(LocalDate.of(2027, 4, 5), ActivityCatalogService.deadlineOf("4월 5일", REGISTERED));
+		assertEquals(REGISTERED, ActivityCatalogService.deadlineOf("4월 초", REGISTERED)); // 당일은 올해
+		assertEquals(LocalDate.of(2027, 2, 28), ActivityCatalogService.deadlineOf("2월", REGISTERED));
+	}
+
+	@Test
+	void nonDatesHaveNoDeadline() {
+		assertNull(ActivityCatalogService.deadlineOf("상시", REGISTERED));
+		assertNull(ActivityCatalogService.deadlineOf(" ", REGISTERED));
+		assertNull(ActivityCatalogService.deadlineOf(null, REGISTERED));
+		assertNull(ActivityCatalogService.deadlineOf("13월", REGISTERED));
+	}
+
+	@Test
+	void ddayIsRecomputedAndExpiredShowsClosed() {
+		ActivityCatalog relative = ActivityCatalog.builder().dday("D-14").deadline(LocalDate.of(2026, 4, 24)).build();
+		assertEquals("D-4", ActivityCatalogService.ddayOf(relative, LocalDate.of(2026, 4, 20)));
+		assertEquals("D-day", ActivityCatalogService.ddayOf(relative, LocalDate.of(2026, 4, 24)));
+		assertEquals("마감", ActivityCatalogService.ddayOf(relative, LocalDate.of(2026, 4, 25)));
+		assertTrue(ActivityCatalogService.expired(relative, LocalDate.of(2026, 4, 25)));
+
+		ActivityCatalog absolute = ActivityCatalog.builder().dday("5월 말").deadline(LocalDate.of(2026, 5, 31)).build();
+		assertEquals("5월 말", ActivityCatalogService.ddayOf(absolute, LocalDate.of(2026, 4, 20)));
+
+		ActivityCatalog always = ActivityCatalog.builder().dday("상시").build();
+		assertEquals("상시", ActivityCatalogService.ddayOf(always, LocalDate.of(2030, 1, 1)));
+		assertFalse(ActivityCatalogService.expired(always, LocalDate.of(2030, 1, 1)));
+	}
+
+	@Test
+	void linkKeyIgnoresCosmeticDifferencesAndSearchLinks() {
+		String key = ActivityCatalogService.linkKey("https://www.contest.or.kr/notice/12/");
+		assertNotNull(key);
+		assertEquals(key, ActivityCatalogService.linkKey("http://contest.or.kr/notice/12"));
+		assertFalse(key.equals(ActivityCatalogService.linkKey("https://contest.or.kr/notice/13")));
+
+		assertNull(ActivityCatalogService.linkKey("https://www.google.com/search?q=공모전"));
+		assertNull(ActivityCatalogService.linkKey("https://search.naver.com/search?query=x"));
+		assertNull(ActivityCatalogService.linkKey("not a url"));
+		assertNull(ActivityCatalogService.linkKey(""));
+	}
+}
@@ -0,0 +1,53 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordMatcherTest {
+
+	@Test
+	void findsNestedKeywords() {
+		KeywordMatcher matcher = new KeywordMatcher(List.of("컴퓨터공학과", "컴퓨터", "공학", "전자공학과"));
+
+		// "컴퓨터공학과" 안의 "컴퓨터", "공학" 도 함께 잡힘 (실패 링크 출력 합치기)
+		assertEquals(bits(0, 1, 2), matcher.match("컴퓨터공학과 캡스톤 설명회"));
+		assertEquals(bits(2, 3), matcher.match("전자공학과 신입생 안내"));
+	}
+
+	@Test
+	void findsOverlappingKeywords() {
+		KeywordMatcher matcher = new KeywordMatcher(List.of("he", "she", "his", "hers"));
+
+		assertEquals(bits(0, 1, 3), matcher.match("ushers"));
+		assertEquals(bits(2), matcher.match("this"));
+		// 실패 링크를 따라가다 다시 시작하는 경우 ("shis" -> she 실패 후 his)
+		assertEquals(bits(2), matcher.match("shis"));
+	}
+
+	@Test
+	void matchesOnlyWholeKeywordAfterPartialPrefix() {
+		KeywordMatcher matcher = new KeywordMatcher(List.of("포트폴리오"));
+
+		assertEquals(bits(), matcher.match("포트"));
+		assertEquals(bits(), matcher.match("폴리오"));
+		assertEquals(bits(0), matcher.match("포트포트폴리오 특강"));
+	}
+
+	@Test
+	void emptyKeywordMatchesEverything() {
+		KeywordMatcher matcher = new KeywordMatcher(List.of("", "취업"));
+
+		assertEquals(bits(0), matcher.match(null));
+		assertEquals(bits(0, 1), matcher.match("취업 특강"));
+	}
+
+	private static BitSet bits(int... indexes) {
+		BitSet bits = new BitSet();
+		for (int index : indexes) bits.set(index);
+		return bits;
+	}
+}
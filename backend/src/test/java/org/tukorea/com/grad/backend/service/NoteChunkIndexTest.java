@@ -0,0 +1,77 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteChunkIndexTest {
+
+	@Test
+	void tokenizesHangulAsBigramsAndLatinAsWords() {
+		assertEquals(List.of("운영", "영체", "체제", "os", "3", "가"), NoteChunkIndex.tokenize("운영체제 OS a 3 가"));
+	}
+
+	@Test
+	void matchesHangulWithParticles() {
+		NoteChunkIndex index = new NoteChunkIndex(200);
+		index.upsert(1L, "자료구조", "스택은 후입선출 구조이다.");
+		index.upsert(2L, "네트워크", "TCP 는 연결 지향 프로토콜이다.");
+
+		List<NoteChunkIndex.Chunk> hits = index.search("스택이란?", 5, null, 1.0);
+
+		assertEquals(1, hits.size());
+		assertEquals(1L, hits.get(0).noteId.longValue());
+	}
+
+	@Test
+	void ranksRarerAndMoreFrequentTermsHigher() {
+		NoteChunkIndex index = new NoteChunkIndex(200);
+		index.upsert(1L, "메모", "process thread");
+		index.upsert(2L, "메모", "process process deadlock");
+		index.upsert(3L, "메모", "process scheduling");
+
+		List<NoteChunkIndex.Chunk> hits = index.search("process deadlock", 3, null, 1.0);
+
+		// deadlock 은 한 노트에만 있어 idf 가 크고, process 는 모든 노트에 있어 순서만 가름
+		assertEquals(List.of(2L, 1L, 3L), hits.stream().map(chunk -> chunk.noteId).toList());
+	}
+
+	@Test
+	void boostsPreferredNote() {
+		NoteChunkIndex index = new NoteChunkIndex(200);
+		index.upsert(1L, "메모", "cache cache");
+		index.upsert(2L, "메모", "cache");
+
+		assertEquals(1L, index.search("cache", 1, null, 1.0).get(0).noteId.longValue());
+		assertEquals(2L, index.search("cache", 1, 2L, 10.0).get(0).noteId.longValue());
+	}
+
+	@Test
+	void upsertReplacesAndRemoveDropsChunks() {
+		NoteChunkIndex index = new NoteChunkIndex(200);
+		index.upsert(1L, "메모", "kotlin");
+		index.upsert(1L, "메모", "java");
+
+		assertTrue(index.search("kotlin", 5, null, 1.0).isEmpty());
+		assertEquals(1, index.search("java", 5, null, 1.0).size());
+
+		index.remove(1L);
+		assertTrue(index.search("java", 5, null, 1.0).isEmpty());
+		assertTrue(index.chunksOf(1L).isEmpty());
+	}
+
+	@Test
+	void splitsByParagraphWithinChunkSize() {
+		NoteChunkIndex index = new NoteChunkIndex(200);
+		String shortParagraph = "a".repeat(120);
+		String longParagraph = "b".repeat(450);
+
+		List<String> chunks = index.split(shortParagraph + "\n\n" + shortParagraph + "\n\n" + longParagraph);
+
+		assertEquals(List.of(shortParagraph, shortParagraph, "b".repeat(200), "b".repeat(200), "b".repeat(50)), chunks);
+		assertEquals(List.of("x\n\ny"), index.split("x\n  \ny"));
+	}
+}
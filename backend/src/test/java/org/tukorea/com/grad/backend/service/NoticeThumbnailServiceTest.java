@@ -0,0 +1,47 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NoticeThumbnailServiceTest {
+
+	@Test
+	void subsamplingKeepsTwiceTheLargestWidth() {
+		assertEquals(1, NoticeThumbnailService.subsampling(300, 200, 480));
+		assertEquals(4, NoticeThumbnailService.subsampling(4000, 3000, 480));
+	}
+
+	@Test
+	void subsamplingCapsDecodedPixelsForTallImages() {
+		// 세로로 긴 포스터: 폭 기준으로는 1 이지만 5천만 픽셀을 풀 수는 없음
+		int step = NoticeThumbnailService.subsampling(1000, 50000, 480);
+		assertEquals(3, step);
+	}
+
+	@Test
+	void downscaleHalvesToTargetWidthKeepingRatio() {
+		BufferedImage source = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage result = NoticeThumbnailService.downscale(source, 480);
+		assertEquals(480, result.getWidth());
+		assertEquals(240, result.getHeight());
+		assertEquals(BufferedImage.TYPE_INT_RGB, result.getType());
+	}
+
+	@Test
+	void downscaleNeverUpscales() {
+		BufferedImage rgb = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+		assertSame(rgb, NoticeThumbnailService.downscale(rgb, 480));
+
+		// 투명 이미지는 크기가 같아도 흰 배경의 RGB 로 바꿈
+		BufferedImage argb = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage result = NoticeThumbnailService.downscale(argb, 480);
+		assertNotSame(argb, result);
+		assertEquals(300, result.getWidth());
+		assertEquals(0xFFFFFF, result.getRGB(0, 0) & 0xFFFFFF);
+	}
+}
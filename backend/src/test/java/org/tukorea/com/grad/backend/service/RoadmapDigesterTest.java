@@ -0,0 +1,63 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.tukorea.com.grad.backend.entity.Roadmap;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RoadmapDigesterTest {
+
+	private final RoadmapDigester digester = new RoadmapDigester();
+
+	private static String roadmap(boolean secondFinished, boolean algorithmDone) {
+		return "[" +
+				"{\"grade\":\"2학년 1학기\",\"isFinished\":true,\"goal\":[{\"content\":\"자료구조\",\"isCompleted\":true}],\"courses\":[],\"activities\":[]}," +
+				"{\"grade\":\"2학년 여름방학\",\"isFinished\":false,\"goal\":[\"토익\"],\"courses\":[],\"activities\":[]}," +
+				"{\"grade\":\"2학년 2학기\",\"isFinished\":" + secondFinished + ",\"goal\":[{\"content\":\"알고리즘\",\"isCompleted\":" + algorithmDone + "}],\"courses\":[\"운영체제\"],\"activities\":[]}" +
+				"]";
+	}
+
+	@Test
+	void batchFeedbackIsReusedAfterClientMarksSemesterFinished() {
+		// 야간 일괄 결산은 결산 전 상태, 사용자는 isFinished=true 로 바꾼 뒤 같은 학기를 결산
+		String batchHash = Roadmap.progressHashOf(digester.progressState(roadmap(false, true), "2학년 2학기"));
+		String liveHash = Roadmap.progressHashOf(digester.progressState(roadmap(true, true), "2학년2학기"));
+
+		assertEquals(batchHash, liveHash);
+	}
+
+	@Test
+	void changedCheckStateOrOtherSemesterIsNotReused() {
+		String batchHash = Roadmap.progressHashOf(digester.progressState(roadmap(false, true), "2학년 2학기"));
+
+		assertNotEquals(batchHash, Roadmap.progressHashOf(digester.progressState(roadmap(true, false), "2학년 2학기")));
+		assertNotEquals(batchHash, Roadmap.progressHashOf(digester.progressState(roadmap(true, true), "2학년 여름방학")));
+	}
+
+	@Test
+	void picksFirstUnfinishedSemesterOfEndedTerm() {
+		assertEquals("2학년 2학기", digester.semesterToClose(roadmap(false, false), 2));
+		assertNull(digester.semesterToClose(roadmap(true, false), 2));
+		assertNull(digester.semesterToClose(roadmap(false, false), 1)); // 2학년 1학기는 이미 결산
+		assertNull(digester.semesterToClose("not json", 1));
+	}
+
+	@Test
+	void mapsSemesterEndDateToTerm() {
+		SemesterFeedbackBatch batch = new SemesterFeedbackBatch(null, null, null, null, true,
+				List.of("12-21", "06-21"), "Asia/Seoul", "01:00", "07:00", 45, 1, 1, 1);
+
+		LocalDate endedOn = batch.lastSemesterEnd(LocalDate.of(2026, 7, 1));
+		assertEquals(LocalDate.of(2026, 6, 21), endedOn);
+		assertEquals(1, batch.termOf(endedOn));
+
+		endedOn = batch.lastSemesterEnd(LocalDate.of(2027, 1, 5));
+		assertEquals(LocalDate.of(2026, 12, 21), endedOn);
+		assertEquals(2, batch.termOf(endedOn));
+	}
+}
@@ -0,0 +1,50 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.tukorea.com.grad.backend.llm.schema.PersonalizeResult.Swap;
+import org.tukorea.com.grad.backend.llm.schema.SemesterPlan;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoadmapTemplateServiceTest {
+
+	// applySwaps 는 저장소/LLM 을 쓰지 않음 (작업 스레드는 생성 요청이 있을 때만 만들어짐)
+	private final RoadmapTemplateService service =
+			new RoadmapTemplateService(null, null, null, null, null, null, true, 168, 20, 30, 1);
+
+	private final List<SemesterPlan> basePlans = List.of(
+			new SemesterPlan("2학년 1학기", List.of("자료구조"), List.of(), List.of("알고리즘 스터디", "교내 해커톤")),
+			new SemesterPlan("2학년 여름방학", List.of(), List.of(), List.of("토익")));
+
+	@Test
+	void replacesNamedActivityInMatchingSemester() {
+		List<SemesterPlan> plans = service.applySwaps(basePlans,
+				List.of(new Swap("2학년1학기", " 교내 해커톤 ", "공개SW 컨트리뷰톤")), 3);
+
+		assertEquals(List.of("알고리즘 스터디", "공개SW 컨트리뷰톤"), plans.get(0).activities());
+		assertEquals(List.of("알고리즘 스터디", "교내 해커톤"), basePlans.get(0).activities()); // 공통 로드맵은 그대로
+	}
+
+	@Test
+	void appendsWhenRemoveIsMissingOrUnknown() {
+		List<SemesterPlan> plans = service.applySwaps(basePlans, List.of(
+				new Swap("2학년 여름방학", null, "정보처리기사"),
+				new Swap("2학년 여름방학", "없는 활동", "AWS 자격증")), 3);
+
+		assertEquals(List.of("토익", "정보처리기사", "AWS 자격증"), plans.get(1).activities());
+	}
+
+	@Test
+	void skipsEmptyOrUnknownSwapsAndStopsAtMaxSwaps() {
+		List<SemesterPlan> plans = service.applySwaps(basePlans, List.of(
+				new Swap("2학년 1학기", "교내 해커톤", " "),     // add 없음
+				new Swap("5학년 1학기", null, "졸업 작품"),       // 없는 학기 (횟수에 포함되지 않음)
+				new Swap("2학년 1학기", null, "캡스톤"),
+				new Swap("2학년 여름방학", null, "인턴십")), 1);
+
+		assertEquals(List.of("알고리즘 스터디", "교내 해커톤", "캡스톤"), plans.get(0).activities());
+		assertEquals(List.of("토익"), plans.get(1).activities());
+	}
+}
@@ -0,0 +1,27 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TukoreaNoticeCrawlerTest {
+
+	@Test
+	void parsesBoardDateFormats() {
+		assertEquals(LocalDate.of(2025, 3, 4), TukoreaNoticeCrawler.postedOn("2025.03.04"));
+		assertEquals(LocalDate.of(2025, 3, 4), TukoreaNoticeCrawler.postedOn("2025-3-4"));
+		assertEquals(LocalDate.of(2025, 12, 31), TukoreaNoticeCrawler.postedOn("등록일 2025 / 12 / 31 조회 120"));
+	}
+
+	@Test
+	void returnsNullForMissingOrInvalidDate() {
+		assertNull(TukoreaNoticeCrawler.postedOn(null));
+		assertNull(TukoreaNoticeCrawler.postedOn(""));
+		assertNull(TukoreaNoticeCrawler.postedOn("25.03.04"));
+		assertNull(TukoreaNoticeCrawler.postedOn("2025.02.30")); // 없는 날짜
+		assertNull(TukoreaNoticeCrawler.postedOn("2025.13.01"));
+	}
+}
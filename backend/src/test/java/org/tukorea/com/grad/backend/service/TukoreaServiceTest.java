@@ -0,0 +1,31 @@
+package org.tukorea.com.grad.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TukoreaServiceTest {
+
+	@Test
+	void readsSingleAndRangeGrades() {
+		assertEquals(Set.of(3), TukoreaService.targetGrades("3학년 대상 취업 특강"));
+		assertEquals(Set.of(1, 2), TukoreaService.targetGrades("1~2학년 멘토링 모집"));
+		assertEquals(Set.of(2, 3, 4), TukoreaService.targetGrades("재학생(2 - 4 학년) 신청"));
+	}
+
+	@Test
+	void readsListedGrades() {
+		assertEquals(Set.of(3, 4), TukoreaService.targetGrades("3, 4학년 현장실습"));
+		assertEquals(Set.of(1, 2, 3), TukoreaService.targetGrades("1·2·3학년 상담 주간"));
+		assertEquals(Set.of(1, 3, 4), TukoreaService.targetGrades("1/3~4학년 대상"));
+	}
+
+	@Test
+	void ignoresAcademicYearsAndOtherNumbers() {
+		assertEquals(Set.of(), TukoreaService.targetGrades("2025학년도 1학기 수강신청 안내"));
+		assertEquals(Set.of(4), TukoreaService.targetGrades("2025학년도 4학년 졸업 사정"));
+		assertEquals(Set.of(), TukoreaService.targetGrades("12학년 (오타) / 전학년 대상"));
+	}
+}
@@ -36,7 +36,7 @@ const Activity = () => {
               title: item.title,
               organizer: '관련 기관',
               desc: item.description,
-              tags: [],
+              tags: item.tags || [],
               link: item.link
             }));
             setActivities(mappedData);
@@ -98,7 +98,8 @@ const StudyNote = () => {
     setIsAiLoading(true);
     setAiResponse("🧠 AI가 답변을 작성 중입니다...");
     try {
-      const response = await axios.post('/api/ai/ask', { noteContent: selectedNote.content, question: aiQuery });
+      // 노트 본문은 서버가 찾아서 사용 (보고 있는 노트 우선)
+      const response = await axios.post('/api/ai/ask', { question: aiQuery, noteId: selectedNote.realId });
       setAiResponse(response.data.answer || response.data);
     } catch (error) { setAiResponse("AI 연결 실패"); }
     finally { setIsAiLoading(false); setAiQuery(''); }